@@ -0,0 +1,488 @@
+package org.thegalactic.context;
+
+/*
+ * BinaryTable.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.nio.LongBuffer;
+
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class gives a representation of the binary relation of a context.
+ *
+ * Observations and attributes are identified by dense integer identifiers,
+ * from `0` to `sizeObservations() - 1` and from `0` to `sizeAttributes() - 1`.
+ * The relation is stored twice:
+ *
+ * - by row: the intent of each observation, indexed by attribute identifiers;
+ * - by column: the extent of each attribute, indexed by observation
+ * identifiers.
+ *
+ * Both storages are kept synchronised by every modification method, so that
+ * extents and intents are computed by intersections without any translation.
+ * Removing an observation or an attribute shifts the following identifiers
+ * down by one. A table built from its rows only (see
+ * {@link #BinaryTable(int, int, LongBuffer[], int)}) derives its columns when
+ * they are first needed.
+ *
+ * Rows and columns are stored as packed words (see {@link BitWords}). When
+ * compression is enabled (see {@link #setCompression}), rows and columns
+ * sparse enough are stored instead as sorted arrays of identifiers: the
+ * representation is chosen for each row and each column according to its
+ * density. Sets given to and returned by methods of this class are always
+ * packed words.
+ */
+public class BinaryTable {
+
+    /**
+     * Intent of each observation.
+     */
+    private BitVectors rows;
+
+    /**
+     * Extent of each attribute, null until derived from the rows.
+     */
+    private volatile BitVectors columns;
+
+    /**
+     * Constructs a new empty table.
+     */
+    public BinaryTable() {
+        this(0, 0, false);
+    }
+
+    /**
+     * Constructs a new table with the specified numbers of observations and
+     * attributes, and an empty relation.
+     *
+     * Rows and columns are allocated once with the exact number of words they
+     * need.
+     *
+     * @param observations number of observations
+     * @param attributes   number of attributes
+     */
+    public BinaryTable(final int observations, final int attributes) {
+        this(observations, attributes, false);
+    }
+
+    /**
+     * Constructs a new table with the specified numbers of observations and
+     * attributes, an empty relation, and the specified compression mode.
+     *
+     * When compression is enabled, rows and columns start compressed and are
+     * converted to packed words as soon as they become too dense.
+     *
+     * @param observations number of observations
+     * @param attributes   number of attributes
+     * @param compression  true to enable compression
+     */
+    public BinaryTable(final int observations, final int attributes, final boolean compression) {
+        this.rows = new BitVectors(observations, attributes, compression);
+        this.columns = new BitVectors(attributes, observations, compression);
+    }
+
+    /**
+     * Constructs a new table from the rows stored in the specified read-only
+     * buffers, e.g. mapped from a file.
+     *
+     * Each buffer holds consecutive rows of `BitWords.size(attributes)` packed
+     * words. Rows are read from the buffers until the first modification of
+     * the table, which copies them into arrays, so the buffers must not be
+     * modified afterwards. Columns are derived from the rows when they are
+     * first needed.
+     *
+     * @param observations number of observations
+     * @param attributes   number of attributes
+     * @param rows         the buffers of the intents of the observations
+     * @param perBuffer    number of rows of each buffer, except the last one
+     */
+    public BinaryTable(final int observations, final int attributes, final LongBuffer[] rows, final int perBuffer) {
+        this.rows = new BitVectors(observations, attributes, rows, perBuffer);
+    }
+
+    /**
+     * Constructs a new table as a copy of the specified one.
+     *
+     * @param table table to be copied
+     */
+    public BinaryTable(final BinaryTable table) {
+        this.rows = new BitVectors(table.rows);
+        final BitVectors vectors = table.columns;
+        if (vectors != null) {
+            this.columns = new BitVectors(vectors);
+        }
+    }
+
+    /**
+     * Returns the columns, deriving them from the rows if needed.
+     *
+     * @return the extent of each attribute
+     */
+    private BitVectors columns() {
+        BitVectors vectors = this.columns;
+        if (vectors == null) {
+            synchronized (this) {
+                vectors = this.columns;
+                if (vectors == null) {
+                    vectors = this.transpose();
+                    this.columns = vectors;
+                }
+            }
+        }
+        return vectors;
+    }
+
+    /**
+     * Computes the columns from the rows.
+     *
+     * @return the extent of each attribute
+     */
+    private BitVectors transpose() {
+        final int observations = this.rows.count();
+        final int length = this.rows.length();
+        final BitVectors vectors = new BitVectors(this.rows.bits(), observations, false);
+        final long[] row = new long[length];
+        for (int o = 0; o < observations; o++) {
+            this.rows.copy(o, row);
+            for (int a = BitWords.nextSetBit(row, 0, length); a >= 0; a = BitWords.nextSetBit(row, a + 1, length)) {
+                vectors.set(a, o);
+            }
+        }
+        vectors.setCompression(this.rows.isCompression());
+        return vectors;
+    }
+
+    /*
+     * --------------- SIZES ------------
+     */
+    /**
+     * Returns the number of observations.
+     *
+     * @return the number of observations
+     */
+    public int sizeObservations() {
+        return this.rows.count();
+    }
+
+    /**
+     * Returns the number of attributes.
+     *
+     * @return the number of attributes
+     */
+    public int sizeAttributes() {
+        return this.rows.bits();
+    }
+
+    /**
+     * Returns the number of significant words of a row.
+     *
+     * @return the number of words needed to store a set of attributes
+     */
+    public int rowLength() {
+        return this.rows.length();
+    }
+
+    /**
+     * Returns the number of significant words of a column.
+     *
+     * @return the number of words needed to store a set of observations
+     */
+    public int columnLength() {
+        return BitWords.size(this.rows.count());
+    }
+
+    /**
+     * Returns the number of attributes of the specified observation.
+     *
+     * @param o an observation identifier
+     *
+     * @return the size of the intent of the observation
+     */
+    public int rowSize(final int o) {
+        return this.rows.cardinality(o);
+    }
+
+    /**
+     * Returns the number of observations of the specified attribute.
+     *
+     * @param a an attribute identifier
+     *
+     * @return the size of the extent of the attribute
+     */
+    public int columnSize(final int a) {
+        return this.columns().cardinality(a);
+    }
+
+    /*
+     * --------------- COMPRESSION ------------
+     */
+    /**
+     * Tests if a relation is sparse enough to be stored with compression.
+     *
+     * @param cells        number of related pairs
+     * @param observations number of observations
+     * @param attributes   number of attributes
+     *
+     * @return true if compression is recommended
+     */
+    public static boolean isSparse(final long cells, final int observations, final int attributes) {
+        return cells * BitVectors.SPARSE_RATIO <= (long) observations * attributes;
+    }
+
+    /**
+     * Tests if compression of sparse rows and columns is enabled.
+     *
+     * @return true if compression is enabled
+     */
+    public boolean isCompression() {
+        return this.rows.isCompression();
+    }
+
+    /**
+     * Enables or disables compression of sparse rows and columns.
+     *
+     * Enabling compression compresses the rows and columns that are sparse
+     * enough; disabling it stores all of them as packed words.
+     *
+     * @param compression true to enable compression
+     */
+    public void setCompression(final boolean compression) {
+        this.rows.setCompression(compression);
+        this.columns().setCompression(compression);
+    }
+
+    /**
+     * Compresses the rows and columns that have become sparse enough, if
+     * compression is enabled.
+     *
+     * Rows and columns that become too dense are converted on the fly by the
+     * modification methods, but the reverse conversion is only done by this
+     * method.
+     */
+    public void compact() {
+        this.rows.compact();
+        this.columns().compact();
+    }
+
+    /**
+     * Tests if the specified row is compressed.
+     *
+     * @param o an observation identifier
+     *
+     * @return true if the intent of the observation is compressed
+     */
+    public boolean isCompressedRow(final int o) {
+        return this.rows.isCompressed(o);
+    }
+
+    /**
+     * Tests if the specified column is compressed.
+     *
+     * @param a an attribute identifier
+     *
+     * @return true if the extent of the attribute is compressed
+     */
+    public boolean isCompressedColumn(final int a) {
+        return this.columns().isCompressed(a);
+    }
+
+    /*
+     * --------------- MODIFICATION METHODS ------------
+     */
+    /**
+     * Adds a new observation with an empty intent.
+     *
+     * @return the identifier of the new observation
+     */
+    public int addObservation() {
+        this.columns().addBit();
+        return this.rows.add();
+    }
+
+    /**
+     * Adds a new attribute with an empty extent.
+     *
+     * @return the identifier of the new attribute
+     */
+    public int addAttribute() {
+        this.rows.addBit();
+        return this.columns().add();
+    }
+
+    /**
+     * Removes the specified observation.
+     *
+     * Identifiers of the following observations are decreased by one.
+     *
+     * @param o an observation identifier
+     */
+    public void removeObservation(final int o) {
+        this.columns().removeBit(o);
+        this.rows.remove(o);
+    }
+
+    /**
+     * Removes the specified attribute.
+     *
+     * Identifiers of the following attributes are decreased by one.
+     *
+     * @param a an attribute identifier
+     */
+    public void removeAttribute(final int a) {
+        this.rows.removeBit(a);
+        this.columns().remove(a);
+    }
+
+    /**
+     * Relates the specified observation and attribute.
+     *
+     * @param o an observation identifier
+     * @param a an attribute identifier
+     *
+     * @return true if they were not already related
+     */
+    public boolean set(final int o, final int a) {
+        this.columns().set(a, o);
+        return this.rows.set(o, a);
+    }
+
+    /**
+     * Unrelates the specified observation and attribute.
+     *
+     * @param o an observation identifier
+     * @param a an attribute identifier
+     *
+     * @return true if they were related
+     */
+    public boolean clear(final int o, final int a) {
+        this.columns().clear(a, o);
+        return this.rows.clear(o, a);
+    }
+
+    /**
+     * Exchanges observations and attributes.
+     */
+    public void reverse() {
+        final BitVectors vectors = this.rows;
+        this.rows = this.columns();
+        this.columns = vectors;
+    }
+
+    /*
+     * --------------- ACCESS METHODS ------------
+     */
+    /**
+     * Checks if the specified observation and attribute are related.
+     *
+     * @param o an observation identifier
+     * @param a an attribute identifier
+     *
+     * @return true if they are related
+     */
+    public boolean get(final int o, final int a) {
+        return this.rows.get(o, a);
+    }
+
+    /**
+     * Copies the intent of the specified observation.
+     *
+     * @param o      an observation identifier
+     * @param intent the result, of at least {@link #rowLength} words
+     */
+    public void row(final int o, final long[] intent) {
+        this.rows.copy(o, intent);
+    }
+
+    /**
+     * Copies the extent of the specified attribute.
+     *
+     * @param a      an attribute identifier
+     * @param extent the result, of at least {@link #columnLength} words
+     */
+    public void column(final int a, final long[] extent) {
+        this.columns().copy(a, extent);
+    }
+
+    /**
+     * Intersects a set of observations with the extent of the specified
+     * attribute.
+     *
+     * The result may be the specified set itself.
+     *
+     * @param observations a set of observations, of {@link #columnLength} words
+     * @param a            an attribute identifier
+     * @param extent       the result, of at least {@link #columnLength} words
+     */
+    public void extent(final long[] observations, final int a, final long[] extent) {
+        this.columns().and(a, observations, extent);
+    }
+
+    /**
+     * Returns the number of observations of a set that have the specified
+     * attribute.
+     *
+     * @param observations a set of observations, of {@link #columnLength} words
+     * @param a            an attribute identifier
+     *
+     * @return the size of the intersection of the set and the extent
+     */
+    public int extentSize(final long[] observations, final int a) {
+        return this.columns().andCardinality(a, observations);
+    }
+
+    /**
+     * Computes the extent of a set of attributes, i.e. the intersection of
+     * their columns.
+     *
+     * @param attributes a set of attributes, of {@link #rowLength} words
+     * @param extent     the result, of at least {@link #columnLength} words
+     */
+    public void extent(final long[] attributes, final long[] extent) {
+        this.columns().intersect(attributes, extent);
+    }
+
+    /**
+     * Computes the intent of a set of observations, i.e. the intersection of
+     * their rows.
+     *
+     * @param observations a set of observations, of {@link #columnLength} words
+     * @param intent       the result, of at least {@link #rowLength} words
+     */
+    public void intent(final long[] observations, final long[] intent) {
+        this.rows.intersect(observations, intent);
+    }
+
+    /**
+     * Returns the number of observations sharing all the specified attributes.
+     *
+     * @param attributes a set of attributes, of {@link #rowLength} words
+     * @param buffer     a buffer of at least {@link #columnLength} words
+     *
+     * @return the size of the extent of the attributes
+     */
+    public int extentSize(final long[] attributes, final long[] buffer) {
+        this.extent(attributes, buffer);
+        return BitWords.cardinality(buffer, this.columnLength());
+    }
+
+    /**
+     * Returns the number of attributes shared by all the specified
+     * observations.
+     *
+     * @param observations a set of observations, of {@link #columnLength} words
+     * @param buffer       a buffer of at least {@link #rowLength} words
+     *
+     * @return the size of the intent of the observations
+     */
+    public int intentSize(final long[] observations, final long[] buffer) {
+        this.intent(observations, buffer);
+        return BitWords.cardinality(buffer, this.rowLength());
+    }
+}
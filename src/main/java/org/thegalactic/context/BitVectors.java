@@ -0,0 +1,736 @@
+package org.thegalactic.context;
+
+/*
+ * BitVectors.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class stores a list of vectors of bits sharing the same number of bits.
+ *
+ * Each vector is stored either densely, as packed words (see
+ * {@link BitWords}), or, when compression is enabled and the vector is sparse
+ * enough, as a sorted array of the indexes of its bits. The representation of
+ * each vector is chosen according to its density: a compressed vector whose
+ * array would become larger than its dense form is converted to a dense one,
+ * and {@link #compact} converts dense vectors with less than one bit out of
+ * {@link #SPARSE_RATIO} set to compressed ones.
+ *
+ * Operations working on several vectors (see {@link #intersect}) start from
+ * the smallest compressed vector when there is one, so that their cost depends
+ * on its size rather than on the number of bits.
+ *
+ * Dense vectors may also be read from read-only buffers, e.g. mapped from a
+ * file: they are copied into arrays by the first modification.
+ */
+class BitVectors {
+
+    /**
+     * Maximal density of a compressed vector, in bits per set bit.
+     */
+    static final int SPARSE_RATIO = 2 * Integer.SIZE;
+
+    /**
+     * Initial capacity, in bits, of dense vectors and in indexes of compressed
+     * ones.
+     */
+    private static final int INITIAL_CAPACITY = BitWords.WORD_SIZE;
+
+    /**
+     * Number of vectors.
+     */
+    private int count;
+
+    /**
+     * Number of bits of each vector.
+     */
+    private int bits;
+
+    /**
+     * Capacity of dense vectors, in bits.
+     */
+    private int capacity;
+
+    /**
+     * Dense vectors, null for compressed vectors.
+     */
+    private long[][] dense;
+
+    /**
+     * Compressed vectors, null for dense vectors.
+     */
+    private int[][] sparse;
+
+    /**
+     * Number of indexes of compressed vectors.
+     */
+    private int[] sizes;
+
+    /**
+     * Is compression enabled.
+     */
+    private boolean compression;
+
+    /**
+     * Read-only buffers of dense vectors, null when vectors are stored in
+     * arrays.
+     */
+    private LongBuffer[] buffers;
+
+    /**
+     * Number of vectors of each buffer.
+     */
+    private int perBuffer;
+
+    /**
+     * Constructs a list of the specified number of empty vectors.
+     *
+     * @param count       number of vectors
+     * @param bits        number of bits of each vector
+     * @param compression true to enable compression
+     */
+    BitVectors(final int count, final int bits, final boolean compression) {
+        this.count = count;
+        this.bits = bits;
+        this.capacity = Math.max(INITIAL_CAPACITY, BitWords.size(bits) * BitWords.WORD_SIZE);
+        this.dense = new long[count][];
+        this.sparse = new int[count][];
+        this.sizes = new int[count];
+        this.compression = compression;
+        for (int v = 0; v < count; v++) {
+            if (compression) {
+                this.sparse[v] = new int[1];
+            } else {
+                this.dense[v] = BitWords.create(this.capacity);
+            }
+        }
+    }
+
+    /**
+     * Constructs a list of dense vectors from the specified words.
+     *
+     * The arrays are used as is, if they are long enough.
+     *
+     * @param bits  number of bits of each vector
+     * @param words the words of each vector, of at least
+     *              `BitWords.size(bits)` words
+     */
+    BitVectors(final int bits, final long[][] words) {
+        this.count = words.length;
+        this.bits = bits;
+        this.capacity = Math.max(INITIAL_CAPACITY, BitWords.size(bits) * BitWords.WORD_SIZE);
+        this.dense = new long[this.count][];
+        this.sparse = new int[this.count][];
+        this.sizes = new int[this.count];
+        this.compression = false;
+        final int length = BitWords.size(this.capacity);
+        for (int v = 0; v < this.count; v++) {
+            if (words[v].length < length) {
+                this.dense[v] = BitWords.copyOf(words[v], length);
+            } else {
+                this.dense[v] = words[v];
+            }
+        }
+    }
+
+    /**
+     * Constructs a list of dense vectors read from the specified read-only
+     * buffers.
+     *
+     * Each buffer holds consecutive vectors of `BitWords.size(bits)` words.
+     * The buffers are used as is until the first modification.
+     *
+     * @param count     number of vectors
+     * @param bits      number of bits of each vector
+     * @param buffers   the buffers of the vectors
+     * @param perBuffer number of vectors of each buffer, except the last one
+     */
+    BitVectors(final int count, final int bits, final LongBuffer[] buffers, final int perBuffer) {
+        this.count = count;
+        this.bits = bits;
+        this.capacity = Math.max(INITIAL_CAPACITY, BitWords.size(bits) * BitWords.WORD_SIZE);
+        this.dense = new long[count][];
+        this.sparse = new int[count][];
+        this.sizes = new int[count];
+        this.compression = false;
+        this.buffers = buffers.clone();
+        this.perBuffer = perBuffer;
+    }
+
+    /**
+     * Constructs a copy of the specified vectors.
+     *
+     * Read-only buffers are shared.
+     *
+     * @param vectors vectors to be copied
+     */
+    BitVectors(final BitVectors vectors) {
+        this.count = vectors.count;
+        this.bits = vectors.bits;
+        this.capacity = vectors.capacity;
+        this.compression = vectors.compression;
+        this.dense = new long[vectors.dense.length][];
+        this.sparse = new int[vectors.sparse.length][];
+        this.sizes = vectors.sizes.clone();
+        this.buffers = vectors.buffers;
+        this.perBuffer = vectors.perBuffer;
+        if (this.buffers != null) {
+            return;
+        }
+        for (int v = 0; v < this.count; v++) {
+            if (vectors.dense[v] == null) {
+                this.sparse[v] = vectors.sparse[v].clone();
+            } else {
+                this.dense[v] = vectors.dense[v].clone();
+            }
+        }
+    }
+
+    /*
+     * --------------- SIZES ------------
+     */
+    /**
+     * Returns the number of vectors.
+     *
+     * @return the number of vectors
+     */
+    int count() {
+        return this.count;
+    }
+
+    /**
+     * Returns the number of bits of each vector.
+     *
+     * @return the number of bits
+     */
+    int bits() {
+        return this.bits;
+    }
+
+    /**
+     * Returns the number of significant words of a vector.
+     *
+     * @return the number of words
+     */
+    int length() {
+        return BitWords.size(this.bits);
+    }
+
+    /**
+     * Returns the number of bits set in the specified vector.
+     *
+     * @param v a vector
+     *
+     * @return the cardinality of the vector
+     */
+    int cardinality(final int v) {
+        if (this.buffers != null) {
+            final LongBuffer buffer = this.buffer(v);
+            final int start = this.start(v);
+            int result = 0;
+            for (int w = 0; w < this.length(); w++) {
+                result += Long.bitCount(buffer.get(start + w));
+            }
+            return result;
+        }
+        if (this.dense[v] == null) {
+            return this.sizes[v];
+        }
+        return BitWords.cardinality(this.dense[v], this.length());
+    }
+
+    /**
+     * Tests if the specified vector is compressed.
+     *
+     * @param v a vector
+     *
+     * @return true if the vector is compressed
+     */
+    boolean isCompressed(final int v) {
+        return this.buffers == null && this.dense[v] == null;
+    }
+
+    /**
+     * Returns the read-only buffer of the specified vector.
+     *
+     * @param v a vector
+     *
+     * @return the buffer holding the vector
+     */
+    private LongBuffer buffer(final int v) {
+        return this.buffers[v / this.perBuffer];
+    }
+
+    /**
+     * Returns the position of the first word of the specified vector in its
+     * read-only buffer.
+     *
+     * @param v a vector
+     *
+     * @return the position of the vector
+     */
+    private int start(final int v) {
+        return v % this.perBuffer * this.length();
+    }
+
+    /**
+     * Copies the vectors read from read-only buffers into arrays, before a
+     * modification.
+     */
+    private void load() {
+        if (this.buffers == null) {
+            return;
+        }
+        final int length = this.length();
+        for (int v = 0; v < this.count; v++) {
+            final long[] words = BitWords.create(this.capacity);
+            final LongBuffer buffer = this.buffer(v);
+            final int start = this.start(v);
+            for (int w = 0; w < length; w++) {
+                words[w] = buffer.get(start + w);
+            }
+            this.dense[v] = words;
+        }
+        this.buffers = null;
+    }
+
+    /*
+     * --------------- COMPRESSION ------------
+     */
+    /**
+     * Tests if compression is enabled.
+     *
+     * @return true if compression is enabled
+     */
+    boolean isCompression() {
+        return this.compression;
+    }
+
+    /**
+     * Enables or disables compression.
+     *
+     * Enabling compression compresses the sparse vectors, disabling it converts
+     * all vectors to dense ones.
+     *
+     * @param compression true to enable compression
+     */
+    void setCompression(final boolean compression) {
+        this.load();
+        this.compression = compression;
+        if (compression) {
+            this.compact();
+        } else {
+            for (int v = 0; v < this.count; v++) {
+                if (this.dense[v] == null) {
+                    this.densify(v);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compresses the dense vectors that are sparse enough, if compression is
+     * enabled.
+     */
+    void compact() {
+        if (!this.compression) {
+            return;
+        }
+        this.load();
+        final int length = this.length();
+        for (int v = 0; v < this.count; v++) {
+            if (this.dense[v] != null) {
+                final int size = BitWords.cardinality(this.dense[v], length);
+                if ((long) size * SPARSE_RATIO <= this.bits) {
+                    final int[] indexes = new int[Math.max(size, 1)];
+                    int i = 0;
+                    for (int b = BitWords.nextSetBit(this.dense[v], 0, length); b >= 0;
+                            b = BitWords.nextSetBit(this.dense[v], b + 1, length)) {
+                        indexes[i] = b;
+                        i++;
+                    }
+                    this.sparse[v] = indexes;
+                    this.sizes[v] = size;
+                    this.dense[v] = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a compressed vector to a dense one.
+     *
+     * @param v a compressed vector
+     */
+    private void densify(final int v) {
+        final long[] words = BitWords.create(this.capacity);
+        final int[] indexes = this.sparse[v];
+        for (int i = 0; i < this.sizes[v]; i++) {
+            BitWords.set(words, indexes[i]);
+        }
+        this.dense[v] = words;
+        this.sparse[v] = null;
+        this.sizes[v] = 0;
+    }
+
+    /*
+     * --------------- MODIFICATION METHODS ------------
+     */
+    /**
+     * Adds a new empty vector.
+     *
+     * @return the new vector
+     */
+    int add() {
+        this.load();
+        final int v = this.count;
+        if (v == this.dense.length) {
+            final int size = Math.max(INITIAL_CAPACITY, 2 * v);
+            this.dense = Arrays.copyOf(this.dense, size);
+            this.sparse = Arrays.copyOf(this.sparse, size);
+            this.sizes = Arrays.copyOf(this.sizes, size);
+        }
+        if (this.compression) {
+            this.sparse[v] = new int[1];
+            this.sizes[v] = 0;
+        } else {
+            this.dense[v] = BitWords.create(this.capacity);
+        }
+        this.count++;
+        return v;
+    }
+
+    /**
+     * Removes the specified vector.
+     *
+     * Following vectors are shifted down by one.
+     *
+     * @param v a vector
+     */
+    void remove(final int v) {
+        this.load();
+        final int moved = this.count - v - 1;
+        System.arraycopy(this.dense, v + 1, this.dense, v, moved);
+        System.arraycopy(this.sparse, v + 1, this.sparse, v, moved);
+        System.arraycopy(this.sizes, v + 1, this.sizes, v, moved);
+        this.count--;
+        this.dense[this.count] = null;
+        this.sparse[this.count] = null;
+        this.sizes[this.count] = 0;
+    }
+
+    /**
+     * Adds a new unset bit at the end of each vector.
+     */
+    void addBit() {
+        this.load();
+        if (this.bits == this.capacity) {
+            this.capacity *= 2;
+            final int length = BitWords.size(this.capacity);
+            for (int v = 0; v < this.count; v++) {
+                if (this.dense[v] != null) {
+                    this.dense[v] = BitWords.copyOf(this.dense[v], length);
+                }
+            }
+        }
+        this.bits++;
+    }
+
+    /**
+     * Removes the specified bit of each vector.
+     *
+     * Following bits are shifted down by one.
+     *
+     * @param b a bit index
+     */
+    void removeBit(final int b) {
+        this.load();
+        final int length = this.length();
+        for (int v = 0; v < this.count; v++) {
+            if (this.dense[v] == null) {
+                final int[] indexes = this.sparse[v];
+                int i = Arrays.binarySearch(indexes, 0, this.sizes[v], b);
+                if (i >= 0) {
+                    System.arraycopy(indexes, i + 1, indexes, i, this.sizes[v] - i - 1);
+                    this.sizes[v]--;
+                } else {
+                    i = -i - 1;
+                }
+                for (int j = i; j < this.sizes[v]; j++) {
+                    indexes[j]--;
+                }
+            } else {
+                BitWords.remove(this.dense[v], b, length);
+            }
+        }
+        this.bits--;
+    }
+
+    /**
+     * Sets the specified bit of the specified vector.
+     *
+     * @param v a vector
+     * @param b a bit index
+     *
+     * @return true if the bit was not already set
+     */
+    boolean set(final int v, final int b) {
+        this.load();
+        if (this.dense[v] != null) {
+            return BitWords.set(this.dense[v], b);
+        }
+        int[] indexes = this.sparse[v];
+        final int size = this.sizes[v];
+        int i = Arrays.binarySearch(indexes, 0, size, b);
+        if (i >= 0) {
+            return false;
+        }
+        if ((long) (size + 1) * Integer.SIZE > (long) BitWords.size(this.capacity) * BitWords.WORD_SIZE) {
+            this.densify(v);
+            return BitWords.set(this.dense[v], b);
+        }
+        i = -i - 1;
+        if (size == indexes.length) {
+            indexes = Arrays.copyOf(indexes, 2 * size);
+            this.sparse[v] = indexes;
+        }
+        System.arraycopy(indexes, i, indexes, i + 1, size - i);
+        indexes[i] = b;
+        this.sizes[v]++;
+        return true;
+    }
+
+    /**
+     * Clears the specified bit of the specified vector.
+     *
+     * @param v a vector
+     * @param b a bit index
+     *
+     * @return true if the bit was set
+     */
+    boolean clear(final int v, final int b) {
+        this.load();
+        if (this.dense[v] != null) {
+            return BitWords.clear(this.dense[v], b);
+        }
+        final int[] indexes = this.sparse[v];
+        final int i = Arrays.binarySearch(indexes, 0, this.sizes[v], b);
+        if (i < 0) {
+            return false;
+        }
+        System.arraycopy(indexes, i + 1, indexes, i, this.sizes[v] - i - 1);
+        this.sizes[v]--;
+        return true;
+    }
+
+    /*
+     * --------------- ACCESS METHODS ------------
+     */
+    /**
+     * Tests if the specified bit of the specified vector is set.
+     *
+     * @param v a vector
+     * @param b a bit index
+     *
+     * @return true if the bit is set
+     */
+    boolean get(final int v, final int b) {
+        if (this.buffers != null) {
+            return (this.buffer(v).get(this.start(v) + b / BitWords.WORD_SIZE) & 1L << b) != 0;
+        }
+        if (this.dense[v] != null) {
+            return BitWords.get(this.dense[v], b);
+        }
+        return Arrays.binarySearch(this.sparse[v], 0, this.sizes[v], b) >= 0;
+    }
+
+    /**
+     * Copies the specified vector into the specified words.
+     *
+     * @param v      a vector
+     * @param result the result, of at least {@link #length} words
+     */
+    void copy(final int v, final long[] result) {
+        final int length = this.length();
+        if (this.buffers != null) {
+            final LongBuffer buffer = this.buffer(v);
+            final int start = this.start(v);
+            for (int w = 0; w < length; w++) {
+                result[w] = buffer.get(start + w);
+            }
+        } else if (this.dense[v] == null) {
+            BitWords.clearAll(result, length);
+            final int[] indexes = this.sparse[v];
+            for (int i = 0; i < this.sizes[v]; i++) {
+                BitWords.set(result, indexes[i]);
+            }
+        } else {
+            BitWords.copy(result, this.dense[v], length);
+        }
+    }
+
+    /**
+     * Computes the intersection of the specified vector and the specified
+     * words.
+     *
+     * The result may be the specified words themselves.
+     *
+     * @param v      a vector
+     * @param words  a set of bits, of {@link #length} words
+     * @param result the result, of at least {@link #length} words
+     */
+    void and(final int v, final long[] words, final long[] result) {
+        final int length = this.length();
+        if (this.buffers != null) {
+            final LongBuffer buffer = this.buffer(v);
+            final int start = this.start(v);
+            for (int w = 0; w < length; w++) {
+                result[w] = words[w] & buffer.get(start + w);
+            }
+        } else if (this.dense[v] == null) {
+            final int[] indexes = this.sparse[v];
+            final int size = this.sizes[v];
+            int w = 0;
+            for (int i = 0; i < size; i++) {
+                final int b = indexes[i];
+                final int word = b / BitWords.WORD_SIZE;
+                while (w < word) {
+                    result[w] = 0;
+                    w++;
+                }
+                if (w == word) {
+                    result[w] = words[w] & this.maskOf(indexes, i, size, word);
+                    w++;
+                }
+            }
+            while (w < length) {
+                result[w] = 0;
+                w++;
+            }
+        } else {
+            final long[] vector = this.dense[v];
+            for (int w = 0; w < length; w++) {
+                result[w] = words[w] & vector[w];
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bits set in both the specified vector and the
+     * specified words.
+     *
+     * @param v     a vector
+     * @param words a set of bits, of {@link #length} words
+     *
+     * @return the cardinality of the intersection
+     */
+    int andCardinality(final int v, final long[] words) {
+        if (this.buffers != null) {
+            final LongBuffer buffer = this.buffer(v);
+            final int start = this.start(v);
+            int result = 0;
+            for (int w = 0; w < this.length(); w++) {
+                result += Long.bitCount(words[w] & buffer.get(start + w));
+            }
+            return result;
+        }
+        if (this.dense[v] == null) {
+            final int[] indexes = this.sparse[v];
+            int result = 0;
+            for (int i = 0; i < this.sizes[v]; i++) {
+                if (BitWords.get(words, indexes[i])) {
+                    result++;
+                }
+            }
+            return result;
+        }
+        return BitWords.andCardinality(this.dense[v], words, this.length());
+    }
+
+    /**
+     * Computes the intersection of the selected vectors.
+     *
+     * The intersection of an empty selection contains all the bits.
+     *
+     * @param selection a set of vectors, of at least `BitWords.size(count())`
+     *                  words
+     * @param result    the result, of at least {@link #length} words
+     */
+    void intersect(final long[] selection, final long[] result) {
+        final int selectionLength = BitWords.size(this.count);
+        final int length = this.length();
+        int smallest = -1;
+        for (int v = BitWords.nextSetBit(selection, 0, selectionLength); v >= 0;
+                v = BitWords.nextSetBit(selection, v + 1, selectionLength)) {
+            if (this.isCompressed(v) && (smallest < 0 || this.sizes[v] < this.sizes[smallest])) {
+                smallest = v;
+            }
+        }
+        if (smallest < 0) {
+            BitWords.fill(result, this.bits, length);
+            for (int v = BitWords.nextSetBit(selection, 0, selectionLength); v >= 0;
+                    v = BitWords.nextSetBit(selection, v + 1, selectionLength)) {
+                this.and(v, result, result);
+            }
+        } else {
+            BitWords.clearAll(result, length);
+            final int[] indexes = this.sparse[smallest];
+            for (int i = 0; i < this.sizes[smallest]; i++) {
+                final int b = indexes[i];
+                if (this.inAll(selection, selectionLength, smallest, b)) {
+                    BitWords.set(result, b);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests if the specified bit is set in all the selected vectors, except
+     * the specified one.
+     *
+     * @param selection       a set of vectors
+     * @param selectionLength number of words of the selection
+     * @param except          a vector to skip
+     * @param b               a bit index
+     *
+     * @return true if the bit is set in all the vectors
+     */
+    private boolean inAll(final long[] selection, final int selectionLength, final int except, final int b) {
+        for (int v = BitWords.nextSetBit(selection, 0, selectionLength); v >= 0;
+                v = BitWords.nextSetBit(selection, v + 1, selectionLength)) {
+            if (v != except && !this.get(v, b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the mask of the indexes of a compressed vector that belong to the
+     * specified word, starting from the specified position.
+     *
+     * @param indexes the indexes of a compressed vector
+     * @param from    the first position
+     * @param size    the number of indexes
+     * @param word    a word index
+     *
+     * @return the mask of the word
+     */
+    private long maskOf(final int[] indexes, final int from, final int size, final int word) {
+        long mask = 0;
+        for (int i = from; i < size && indexes[i] / BitWords.WORD_SIZE == word; i++) {
+            mask |= 1L << indexes[i];
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,46 @@
+package org.thegalactic.context;
+
+/*
+ * ConceptMiner.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Collection;
+import java.util.List;
+
+import org.thegalactic.lattice.Concept;
+
+/**
+ * This interface defines an algorithm enumerating the concepts of a context.
+ *
+ * Each concept is generated once, with its intent as set A and its extent as
+ * set B.
+ */
+public interface ConceptMiner {
+
+    /**
+     * Adds the concepts to the specified collection.
+     *
+     * @param sink a collection of concepts
+     */
+    void enumerate(Collection<Concept> sink);
+
+    /**
+     * Returns the concepts.
+     *
+     * @return a list of concepts
+     */
+    List<Concept> concepts();
+
+    /**
+     * Returns a closure operator on the attributes of the mined context.
+     *
+     * @return a new closure operator
+     */
+    ContextClosure closureOperator();
+}
@@ -13,9 +13,11 @@ package org.thegalactic.context;
  */
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Random;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -30,8 +32,12 @@ import org.thegalactic.lattice.ClosureSystem;
 import org.thegalactic.lattice.Concept;
 import org.thegalactic.lattice.ConceptLattice;
 import org.thegalactic.lattice.Lattice;
+import org.thegalactic.lattice.NextClosure;
+import org.thegalactic.rule.ImplicationalSystem;
+import org.thegalactic.util.BitWords;
 import org.thegalactic.util.ComparableSet;
 import org.thegalactic.util.Couple;
+import org.thegalactic.util.SymbolTable;
 
 /**
  * This class gives a standard representation for a context.
@@ -42,11 +48,13 @@ import org.thegalactic.util.Couple;
  *
  * - attributes, a treeset of comparable objects;
  * - observations, a treeset of comparable objects;
- * - a Galois connexion (extent,intent) between objects and attributes where
- * `extent` is a TreeMap that associates to each attribute a TreeSet of
- * observations and
- * `intent` is a TreeMap that associates to each observation a TreeSet of
- * attributes.
+ * - a binary relation between observations and attributes, stored in a
+ * {@link BinaryTable} where each observation and each attribute is identified
+ * by a dense integer index.
+ *
+ * Extents, intents and closures are computed by intersections of packed
+ * words of the binary table: methods handling comparable sets translate their
+ * arguments to indexes, and their results back to comparable sets.
  *
  * This class provides methods implementing classical operation on a context:
  * closure, reduction, reverse, ...
@@ -144,7 +152,6 @@ public class Context extends ClosureSystem {
                 attr = r.nextInt(nbAttrPerGrp) + 1;
             }
         }
-        ctx.setBitSets();
         return ctx;
     }
 
@@ -161,38 +168,23 @@ public class Context extends ClosureSystem {
      */
     private TreeSet<Comparable> attributes;
 
-    /**
-     * A map to associate a set of attributes to each observation.
-     */
-    private TreeMap<Comparable, TreeSet<Comparable>> intent;
-
-    /**
-     * A map to associate a set of observations to each attribute.
-     */
-    private TreeMap<Comparable, TreeSet<Comparable>> extent;
-
     /*
-     * ------------- BITSET ADDON ------------------
-     */
-    /**
-     * A bit set for intent.
+     * ------------- BINARY TABLE ------------------
      */
-    private TreeMap<Comparable, BitSet> bitsetIntent;
-
     /**
-     * A bit set for extent.
+     * The binary relation between observations and attributes.
      */
-    private TreeMap<Comparable, BitSet> bitsetExtent;
+    private BinaryTable table;
 
     /**
-     * An array for observations.
+     * The identifiers of observations in the table.
      */
-    private ArrayList<Comparable> arrayObservations;
+    private SymbolTable symbolObservations;
 
     /**
-     * An array for attributes.
+     * The identifiers of attributes in the table.
      */
-    private ArrayList<Comparable> arrayAttributes;
+    private SymbolTable symbolAttributes;
 
     /*
      * ------------- CONSTRUCTORS ------------------
@@ -210,16 +202,11 @@ public class Context extends ClosureSystem {
      * @param context context to be copied
      */
     public Context(Context context) {
-        this();
-        this.attributes.addAll(context.getAttributes());
-        this.observations.addAll(context.getObservations());
-        for (Comparable o : context.getObservations()) {
-            this.intent.put(o, new TreeSet(context.getIntent(o)));
-        }
-        for (Comparable a : context.getAttributes()) {
-            this.extent.put(a, new TreeSet(context.getExtent(a)));
-        }
-        this.setBitSets();
+        this.observations = new TreeSet(context.observations);
+        this.attributes = new TreeSet(context.attributes);
+        this.table = new BinaryTable(context.table);
+        this.symbolObservations = new SymbolTable(context.symbolObservations);
+        this.symbolAttributes = new SymbolTable(context.symbolAttributes);
     }
 
     /**
@@ -262,12 +249,10 @@ public class Context extends ClosureSystem {
     public Context init() {
         this.observations = new TreeSet();
         this.attributes = new TreeSet();
-        this.intent = new TreeMap();
-        this.extent = new TreeMap();
-        this.bitsetIntent = new TreeMap();
-        this.bitsetExtent = new TreeMap();
-        this.arrayObservations = new ArrayList();
-        this.arrayAttributes = new ArrayList();
+        this.table = new BinaryTable();
+        this.symbolObservations = new SymbolTable();
+        this.symbolAttributes = new SymbolTable();
+        this.modified();
         return this;
     }
 
@@ -285,12 +270,11 @@ public class Context extends ClosureSystem {
         ctx.addAllToObservations(obs);
         for (Comparable o : obs) {
             for (Comparable a : attr) {
-                if (this.getIntent(o).contains(a)) {
+                if (this.containAsIntent(o, a)) {
                     ctx.addExtentIntent(o, a);
                 }
             }
         }
-        ctx.setBitSets();
         return ctx;
     }
 
@@ -354,7 +338,7 @@ public class Context extends ClosureSystem {
             boolean cross = false; // If there is a cross, it is not empty.
             for (Comparable o : obsComp) {
                 for (Comparable a : attrComp) {
-                    cross = cross || this.getIntent(o).contains(a);
+                    cross = cross || this.containAsIntent(o, a);
                 }
             }
             if (!cross) {
@@ -434,12 +418,13 @@ public class Context extends ClosureSystem {
      * @return true if the attribute was successfully added
      */
     public boolean addToAttributes(Comparable att) {
-        if (!this.containsAttribute(att)) {
-            this.extent.put(att, new TreeSet<Comparable>());
+        if (this.attributes.add(att)) {
+            this.table.addAttribute();
+            this.symbolAttributes.intern(att);
+            this.modified();
+            return true;
         }
-        boolean ok = this.attributes.add(att);
-        this.setBitSets();
-        return ok;
+        return false;
     }
 
     /**
@@ -457,7 +442,6 @@ public class Context extends ClosureSystem {
                 all = false;
             }
         }
-        this.setBitSets();
         return all;
     }
 
@@ -471,13 +455,12 @@ public class Context extends ClosureSystem {
      * @return true if the attribute was successfully removed
      */
     public boolean removeFromAttributes(Comparable att) {
-        this.extent.remove(att);
-        for (Comparable o : this.getObservations()) {
-            this.intent.get(o).remove(att);
+        if (this.attributes.remove(att)) {
+            this.table.removeAttribute(this.symbolAttributes.remove(att));
+            this.modified();
+            return true;
         }
-        boolean ok = this.attributes.remove(att);
-        this.setBitSets();
-        return ok;
+        return false;
     }
 
     /**
@@ -519,12 +502,13 @@ public class Context extends ClosureSystem {
      * @return true if the observation was successfully added
      */
     public boolean addToObservations(Comparable obs) {
-        if (!this.containsObservation(obs)) {
-            this.intent.put(obs, new TreeSet<Comparable>());
+        if (this.observations.add(obs)) {
+            this.table.addObservation();
+            this.symbolObservations.intern(obs);
+            this.modified();
+            return true;
         }
-        boolean ok = this.observations.add(obs);
-        this.setBitSets();
-        return ok;
+        return false;
     }
 
     /**
@@ -542,7 +526,6 @@ public class Context extends ClosureSystem {
                 all = false;
             }
         }
-        this.setBitSets();
         return all;
     }
 
@@ -556,66 +539,274 @@ public class Context extends ClosureSystem {
      * @return true if the observation was removed
      */
     public boolean removeFromObservations(Comparable obs) {
-        this.intent.remove(obs);
-        for (Comparable att : this.getAttributes()) {
-            this.extent.get(att).remove(obs);
+        if (this.observations.remove(obs)) {
+            this.table.removeObservation(this.symbolObservations.remove(obs));
+            this.modified();
+            return true;
         }
-        boolean ok = this.observations.remove(obs);
-        this.setBitSets();
-        return ok;
+        return false;
+    }
+
+    /**
+     * Replaces the content of this component, building its indexes and its
+     * binary table once.
+     *
+     * Identifiers are given to observations and attributes in their natural
+     * order. Cells whose observation or attribute does not belong to the
+     * specified sets are ignored.
+     *
+     * @param obs              the set of observations
+     * @param attr             the set of attributes
+     * @param cellObservations the observation of each cell
+     * @param cellAttributes   the attribute of each cell
+     */
+    void load(TreeSet<Comparable> obs, TreeSet<Comparable> attr, List<Comparable> cellObservations,
+            List<Comparable> cellAttributes) {
+        this.observations = new TreeSet(obs);
+        this.attributes = new TreeSet(attr);
+        this.symbolObservations = new SymbolTable(this.observations);
+        this.symbolAttributes = new SymbolTable(this.attributes);
+        this.table = new BinaryTable(this.observations.size(), this.attributes.size(), this.table.isCompression());
+        for (int i = 0; i < cellObservations.size(); i++) {
+            int o = this.symbolObservations.indexOf(cellObservations.get(i));
+            int a = this.symbolAttributes.indexOf(cellAttributes.get(i));
+            if (o >= 0 && a >= 0) {
+                this.table.set(o, a);
+            }
+        }
+        this.modified();
+    }
+
+    /**
+     * Replaces the content of this component by the specified binary table.
+     *
+     * The observation (resp. attribute) identified by `i` in the table is the
+     * element at position `i` of the specified list of observations (resp.
+     * attributes).
+     *
+     * @param obs   the list of observations
+     * @param attr  the list of attributes
+     * @param table the binary table
+     *
+     * @throws IllegalArgumentException if the lists do not match the table or
+     *                                  contain duplicates
+     */
+    public void setTable(List<Comparable> obs, List<Comparable> attr, BinaryTable table) {
+        if (obs.size() != table.sizeObservations() || attr.size() != table.sizeAttributes()) {
+            throw new IllegalArgumentException("Observations and attributes do not match the table");
+        }
+        SymbolTable symbolObs = new SymbolTable(obs);
+        if (symbolObs.size() != obs.size()) {
+            throw new IllegalArgumentException("Duplicated observation");
+        }
+        SymbolTable symbolAttr = new SymbolTable(attr);
+        if (symbolAttr.size() != attr.size()) {
+            throw new IllegalArgumentException("Duplicated attribute");
+        }
+        this.observations = new TreeSet(obs);
+        this.attributes = new TreeSet(attr);
+        this.symbolObservations = symbolObs;
+        this.symbolAttributes = symbolAttr;
+        this.table = table;
+        this.modified();
     }
 
     /**
      * Set the needed structures for the bitset optimization.
-     * WARNING: this must be called each time your dataset change
+     *
+     * @deprecated the binary table of this component is now kept up to date by
+     * each modification method, there is no need to call this method anymore.
      */
+    @Deprecated
     public void setBitSets() {
-        this.setMaps();
-        this.setBitSetsIntentExtent();
     }
 
+    /*
+     * --------------- HANDLING METHODS FOR THE BINARY TABLE ------------
+     */
     /**
-     * Set the mapping structure for the bitset optimization.
+     * Returns the binary table of this component.
+     *
+     * Observations and attributes are identified in the table by their index
+     * in {@link #getObservation} and {@link #getAttribute}. The table must not
+     * be directly modified.
+     *
+     * @return the binary table
      */
-    private void setMaps() {
-        this.arrayAttributes = new ArrayList();
-        this.arrayObservations = new ArrayList();
-        Iterator<Comparable> i = this.attributes.iterator();
-        while (i.hasNext()) {
-            this.arrayAttributes.add(i.next());
-        }
-        i = this.observations.iterator();
-        while (i.hasNext()) {
-            this.arrayObservations.add(i.next());
-        }
+    public BinaryTable getTable() {
+        return this.table;
     }
 
     /**
-     * Set the extent and intent structures for the bitset optimization.
+     * Tests if sparse extents and intents of this component are compressed.
+     *
+     * @return true if compression is enabled
      */
-    private void setBitSetsIntentExtent() {
-        this.bitsetIntent = new TreeMap();
-        this.bitsetExtent = new TreeMap();
-        Iterator<Comparable> i = this.attributes.iterator();
-        BitSet b = new BitSet(this.observations.size());
-        while (i.hasNext()) {
-            Comparable att = i.next();
-            for (Comparable c : this.extent.get(att)) {
-                b.set(this.arrayObservations.indexOf(c));
-            }
-            this.bitsetExtent.put(att, (BitSet) b.clone());
-            b.clear();
+    public boolean isCompressed() {
+        return this.table.isCompression();
+    }
+
+    /**
+     * Enables or disables the compression of sparse extents and intents.
+     *
+     * When compression is enabled, the binary table stores each extent and
+     * each intent whose density is low enough as a sorted array of
+     * identifiers instead of packed words. This is well suited to very sparse
+     * contexts, such as transactional data. Dense extents and intents are
+     * still stored as packed words.
+     *
+     * @param compressed true to enable compression
+     */
+    public void setCompressed(boolean compressed) {
+        this.table.setCompression(compressed);
+    }
+
+    /**
+     * Returns the observation identified by the specified index.
+     *
+     * @param index an observation identifier in the binary table
+     *
+     * @return the observation
+     */
+    public Comparable getObservation(int index) {
+        return this.symbolObservations.get(index);
+    }
+
+    /**
+     * Returns the attribute identified by the specified index.
+     *
+     * @param index an attribute identifier in the binary table
+     *
+     * @return the attribute
+     */
+    public Comparable getAttribute(int index) {
+        return this.symbolAttributes.get(index);
+    }
+
+    /**
+     * Returns the identifier of the specified observation in the binary table.
+     *
+     * @param obs an observation
+     *
+     * @return the identifier, or -1 if the observation does not belong to this
+     *         component
+     */
+    public int indexOfObservation(Comparable obs) {
+        return this.symbolObservations.indexOf(obs);
+    }
+
+    /**
+     * Returns the identifier of the specified attribute in the binary table.
+     *
+     * @param att an attribute
+     *
+     * @return the identifier, or -1 if the attribute does not belong to this
+     *         component
+     */
+    public int indexOfAttribute(Comparable att) {
+        return this.symbolAttributes.indexOf(att);
+    }
+
+    /**
+     * Returns the symbol table of observations, giving their identifier in the
+     * binary table.
+     *
+     * The symbol table must not be directly modified.
+     *
+     * @return the symbol table of observations
+     */
+    public SymbolTable getObservationSymbols() {
+        return this.symbolObservations;
+    }
+
+    /**
+     * Returns the symbol table of attributes, giving their identifier in the
+     * binary table.
+     *
+     * The symbol table must not be directly modified.
+     *
+     * @return the symbol table of attributes
+     */
+    public SymbolTable getAttributeSymbols() {
+        return this.symbolAttributes;
+    }
+
+    /**
+     * Translates a set of attributes to a set of identifiers.
+     *
+     * @param set a set of attributes
+     *
+     * @return the words of the identifiers, or null if an attribute does not
+     *         belong to this component
+     */
+    public long[] toAttributeWords(Collection<Comparable> set) {
+        return this.symbolAttributes.toWords(set, this.table.rowLength());
+    }
+
+    /**
+     * Translates a set of observations to a set of identifiers.
+     *
+     * @param set a set of observations
+     *
+     * @return the words of the identifiers, or null if an observation does not
+     *         belong to this component
+     */
+    public long[] toObservationWords(Collection<Comparable> set) {
+        return this.symbolObservations.toWords(set, this.table.columnLength());
+    }
+
+    /**
+     * Translates a set of attribute identifiers to a set of attributes.
+     *
+     * @param words the words of the identifiers
+     *
+     * @return the set of attributes
+     */
+    public TreeSet<Comparable> toAttributes(long[] words) {
+        return this.symbolAttributes.toSet(words);
+    }
+
+    /**
+     * Translates a set of observation identifiers to a set of observations.
+     *
+     * @param words the words of the identifiers
+     *
+     * @return the set of observations
+     */
+    public TreeSet<Comparable> toObservations(long[] words) {
+        return this.symbolObservations.toSet(words);
+    }
+
+    /**
+     * Computes the extent of a set of attributes in the binary table.
+     *
+     * @param set a set of attributes
+     *
+     * @return the words of the extent
+     */
+    private long[] extentWords(Collection<Comparable> set) {
+        long[] words = new long[this.table.columnLength()];
+        long[] attributes = this.toAttributeWords(set);
+        if (attributes != null) {
+            this.table.extent(attributes, words);
         }
-        i = this.observations.iterator();
-        b = new BitSet(this.attributes.size());
-        while (i.hasNext()) {
-            Comparable obs = i.next();
-            for (Comparable c : this.intent.get(obs)) {
-                b.set(this.arrayAttributes.indexOf(c));
-            }
-            this.bitsetIntent.put(obs, (BitSet) b.clone());
-            b.clear();
+        return words;
+    }
+
+    /**
+     * Computes the intent of a set of observations in the binary table.
+     *
+     * @param set a set of observations
+     *
+     * @return the words of the intent
+     */
+    private long[] intentWords(Collection<Comparable> set) {
+        long[] words = new long[this.table.rowLength()];
+        long[] observations = this.toObservationWords(set);
+        if (observations != null) {
+            this.table.intent(observations, words);
         }
+        return words;
     }
 
     /*
@@ -630,11 +821,13 @@ public class Context extends ClosureSystem {
      * @return the set of attributes
      */
     public TreeSet<Comparable> getIntent(Comparable obs) {
-        if (this.containsObservation(obs)) {
-            return this.intent.get(obs);
-        } else {
+        int o = this.symbolObservations.indexOf(obs);
+        if (o < 0) {
             return new TreeSet();
         }
+        long[] words = new long[this.table.rowLength()];
+        this.table.row(o, words);
+        return this.toAttributes(words);
     }
 
     /**
@@ -646,11 +839,7 @@ public class Context extends ClosureSystem {
      * @return the set of observations
      */
     public TreeSet<Comparable> getIntent(TreeSet<Comparable> set) {
-        TreeSet<Comparable> resIntent = new TreeSet(this.getAttributes());
-        for (Comparable obs : set) {
-            resIntent.retainAll(this.getIntent(obs));
-        }
-        return resIntent;
+        return this.toAttributes(this.intentWords(set));
     }
 
     /**
@@ -662,17 +851,11 @@ public class Context extends ClosureSystem {
      * @return the number of attributes
      */
     public int getIntentNb(TreeSet<Comparable> set) {
-        int size = this.getAttributes().size();
-        BitSet obsIntent = new BitSet(size);
-        obsIntent.set(0, size);
-        for (Comparable obs : set) {
-            try {
-                obsIntent.and(this.bitsetIntent.get(obs));
-            } catch (NullPointerException e) {
-                return 0;
-            }
+        long[] observations = this.toObservationWords(set);
+        if (observations == null) {
+            return 0;
         }
-        return obsIntent.cardinality();
+        return this.table.intentSize(observations, new long[this.table.rowLength()]);
     }
 
     /**
@@ -685,11 +868,9 @@ public class Context extends ClosureSystem {
      * @return true if the attribute is an intent of the observation
      */
     public boolean containAsIntent(Comparable obs, Comparable att) {
-        if (this.containsObservation(obs) && this.containsAttribute(att)) {
-            return this.intent.get(obs).contains(att);
-        } else {
-            return false;
-        }
+        int o = this.symbolObservations.indexOf(obs);
+        int a = this.symbolAttributes.indexOf(att);
+        return o >= 0 && a >= 0 && this.table.get(o, a);
     }
 
     /**
@@ -701,11 +882,13 @@ public class Context extends ClosureSystem {
      * @return the set of observations
      */
     public TreeSet<Comparable> getExtent(Comparable att) {
-        if (this.containsAttribute(att)) {
-            return this.extent.get(att);
-        } else {
+        int a = this.symbolAttributes.indexOf(att);
+        if (a < 0) {
             return new TreeSet();
         }
+        long[] words = new long[this.table.columnLength()];
+        this.table.column(a, words);
+        return this.toObservations(words);
     }
 
     /**
@@ -717,11 +900,7 @@ public class Context extends ClosureSystem {
      * @return the set of observations
      */
     public TreeSet<Comparable> getExtent(TreeSet<Comparable> set) {
-        TreeSet<Comparable> attExtent = new TreeSet(this.getObservations());
-        for (Comparable att : set) {
-            attExtent.retainAll(this.getExtent(att));
-        }
-        return attExtent;
+        return this.toObservations(this.extentWords(set));
     }
 
     /**
@@ -733,17 +912,25 @@ public class Context extends ClosureSystem {
      * @return the number of observations
      */
     public int getExtentNb(TreeSet<Comparable> set) {
-        int size = this.getObservations().size();
-        BitSet attExtent = new BitSet(size);
-        attExtent.set(0, size);
-        for (Comparable att : set) {
-            try {
-                attExtent.and(this.bitsetExtent.get(att));
-            } catch (NullPointerException e) {
-                return 0;
-            }
+        long[] attributes = this.toAttributeWords(set);
+        if (attributes == null) {
+            return 0;
         }
-        return attExtent.cardinality();
+        return this.table.extentSize(attributes, new long[this.table.columnLength()]);
+    }
+
+    /**
+     * Returns the number of observations sharing all the attributes of each
+     * specified set, in one call.
+     *
+     * See {@link SupportCounter} for the way the sets are counted.
+     *
+     * @param sets a list of sets of attributes
+     *
+     * @return the number of observations of each set, in the order of the list
+     */
+    public int[] getExtentNb(List<? extends Collection<Comparable>> sets) {
+        return new SupportCounter(this).supports(sets);
     }
 
     /**
@@ -756,11 +943,7 @@ public class Context extends ClosureSystem {
      * @return true if the proposition is true
      */
     public boolean containAsExtent(Comparable att, Comparable obs) {
-        if (this.containsObservation(obs) && this.containsAttribute(att)) {
-            return this.extent.get(att).contains(obs);
-        } else {
-            return false;
-        }
+        return this.containAsIntent(obs, att);
     }
 
     /**
@@ -775,13 +958,13 @@ public class Context extends ClosureSystem {
      * @return true if both were added
      */
     public boolean addExtentIntent(Comparable obs, Comparable att) {
-        if (this.containsObservation(obs) && this.containsAttribute(att)) {
-            boolean ok = this.intent.get(obs).add(att) && this.extent.get(att).add(obs);
-            this.setBitSets();
-            return ok;
-        } else {
-            return false;
+        int o = this.symbolObservations.indexOf(obs);
+        int a = this.symbolAttributes.indexOf(att);
+        if (o >= 0 && a >= 0 && this.table.set(o, a)) {
+            this.modified();
+            return true;
         }
+        return false;
     }
 
     /**
@@ -796,13 +979,13 @@ public class Context extends ClosureSystem {
      * @return true if both were removed
      */
     public boolean removeExtentIntent(Comparable obs, Comparable att) {
-        if (this.containsObservation(obs) && this.containsAttribute(att)) {
-            boolean ok = this.intent.get(obs).remove(att) && this.extent.get(att).remove(obs);
-            this.setBitSets();
-            return ok;
-        } else {
-            return false;
+        int o = this.symbolObservations.indexOf(obs);
+        int a = this.symbolAttributes.indexOf(att);
+        if (o >= 0 && a >= 0 && this.table.clear(o, a)) {
+            this.modified();
+            return true;
         }
+        return false;
     }
 
     /*
@@ -909,23 +1092,90 @@ public class Context extends ClosureSystem {
         return this;
     }
 
+    /**
+     * Removes from this component attributes having the same extent as
+     * another attribute.
+     *
+     * Extents are hashed in one scan of the binary table, in O(|A||O|). The
+     * smallest attribute of each group of duplicates is kept.
+     *
+     * @return the set of removed attributes, with their equivalent attribute
+     */
+    public TreeMap<Comparable, TreeSet<Comparable>> attributesClarification() {
+        TreeMap<Comparable, TreeSet<Comparable>> red = this.reducibleElements(true, false);
+        for (Comparable att : red.keySet()) {
+            this.removeFromAttributes(att);
+        }
+        return red;
+    }
+
+    /**
+     * Removes from this component observations having the same intent as
+     * another observation.
+     *
+     * Intents are hashed in one scan of the binary table, in O(|A||O|). The
+     * smallest observation of each group of duplicates is kept.
+     *
+     * @return the set of removed observations, with their equivalent
+     *         observation
+     */
+    public TreeMap<Comparable, TreeSet<Comparable>> observationsClarification() {
+        TreeMap<Comparable, TreeSet<Comparable>> red = this.reducibleElements(false, false);
+        for (Comparable obs : red.keySet()) {
+            this.removeFromObservations(obs);
+        }
+        return red;
+    }
+
+    /**
+     * Removes from this component duplicated attributes and observations.
+     *
+     * @return the set of removed attributes and observations with their
+     *         equivalent element
+     */
+    public TreeMap<Comparable, TreeSet<Comparable>> clarification() {
+        TreeMap<Comparable, TreeSet<Comparable>> red = this.attributesClarification();
+        red.putAll(this.observationsClarification());
+        return red;
+    }
+
+    /**
+     * Returns the reducible attributes of this component, with their
+     * equivalent attributes.
+     *
+     * This method overrides the generic one of `ClosureSystem` that builds the
+     * precedence graph: reducible attributes are directly computed on the
+     * binary table (see {@link #attributesReduction}).
+     *
+     * @return the map of reducible attributes with their equivalent attributes
+     */
+    @Override
+    public TreeMap<Object, TreeSet> getReducibleElements() {
+        return (TreeMap) this.reducibleElements(true, true);
+    }
+
     /**
      * Removes from this component reducible attributes.
      *
      * Reducible attributes are attributes equivalent by closure to others
+     * attributes, i.e. whose extent is the intersection of the extents of other
      * attributes.
-     * They are computed by `getReducibleElements` od `ClosureSystem` in
-     * O(|A|^3|O|)
+     *
+     * Attributes having the same extent are first merged by hashing their
+     * extents. Then, the attributes whose extent contains the extent of an
+     * attribute `a` are given by the intent of the extent of `a`: `a` is
+     * reducible when the intersection of their extents is the extent of `a`.
+     * This is computed in O(|A||O|(|A|+|O|)/64) with bitset operations.
      *
      * @return the set of reducibles removed attributes, with their equivalent
      *         attributes
      */
     public TreeMap<Comparable, TreeSet<Comparable>> attributesReduction() {
         // compute the reducible elements
-        TreeMap red = this.getReducibleElements();
+        TreeMap<Comparable, TreeSet<Comparable>> red = this.reducibleElements(true, true);
         // remove the reducible elements from the attributes set
-        for (Object att : red.keySet()) {
-            this.removeFromAttributes((Comparable) att);
+        for (Comparable att : red.keySet()) {
+            this.removeFromAttributes(att);
         }
         return red;
     }
@@ -933,22 +1183,19 @@ public class Context extends ClosureSystem {
     /**
      * Removes from this component reducible observations.
      *
-     * Reducible observations are attributes equivalent by closure to others
-     * observations.
-     * They are computed by `getReducibleElements` od `ClosureSystem`
-     * applied on the reverse context in O(|O|^3|A|)
+     * Reducible observations are observations equivalent by closure to others
+     * observations. They are computed as in {@link #attributesReduction},
+     * exchanging intents and extents.
      *
-     * @return the set of reducibles removed attributes, with their equivalent
-     *         attributes
+     * @return the set of reducibles removed observations, with their
+     *         equivalent observations
      */
     public TreeMap<Comparable, TreeSet<Comparable>> observationsReduction() {
-        // compute the reducible elements of the reverse context
-        this.reverse();
-        TreeMap red = this.getReducibleElements();
-        this.reverse();
+        // compute the reducible elements
+        TreeMap<Comparable, TreeSet<Comparable>> red = this.reducibleElements(false, true);
         // remove the reducible elements from the observations set
-        for (Object att : red.keySet()) {
-            this.removeFromObservations((Comparable) att);
+        for (Comparable obs : red.keySet()) {
+            this.removeFromObservations(obs);
         }
         return red;
     }
@@ -957,7 +1204,7 @@ public class Context extends ClosureSystem {
      * Removes from this component reducible attributes and observations.
      *
      * They are computed by `attributesReduction` then
-     * `observationsReduction` in O(|A|^3|O|+|O|^3|A|)
+     * `observationsReduction`.
      *
      * @return the set of reducibles removed attributes and observations with
      *         their equivalent elements
@@ -968,6 +1215,147 @@ public class Context extends ClosureSystem {
         return red;
     }
 
+    /**
+     * Computes the duplicated, and optionally the reducible, attributes or
+     * observations of this component.
+     *
+     * The vector of an attribute is its extent, and the vector of an
+     * observation is its intent. Elements are scanned in their natural order,
+     * and each vector is looked up by its hash among the vectors of the kept
+     * elements. Then, if a single element has a vector contained in no other
+     * vector, it is considered as equivalent to the empty set, as done by the
+     * precedence graph in `ClosureSystem`. Finally, the vector of any other
+     * element is compared to the intersection of the vectors containing it.
+     *
+     * @param attributes true for attributes, false for observations
+     * @param reduce     true to compute reducible elements, false to only
+     *                   compute duplicated elements
+     *
+     * @return the map of removable elements with their equivalent elements
+     */
+    private TreeMap<Comparable, TreeSet<Comparable>> reducibleElements(boolean attributes, boolean reduce) {
+        TreeMap<Comparable, TreeSet<Comparable>> red = new TreeMap<Comparable, TreeSet<Comparable>>();
+        TreeSet<Comparable> elements = this.observations;
+        SymbolTable symbols = this.symbolObservations;
+        int length = this.table.rowLength();
+        int otherLength = this.table.columnLength();
+        if (attributes) {
+            elements = this.attributes;
+            symbols = this.symbolAttributes;
+            length = this.table.columnLength();
+            otherLength = this.table.rowLength();
+        }
+        long[] vector = new long[length];
+        long[] other = new long[length];
+        // merge duplicated vectors
+        HashMap<Integer, List<Integer>> buckets = new HashMap<Integer, List<Integer>>();
+        boolean[] removed = new boolean[symbols.size()];
+        for (Comparable element : elements) {
+            int id = symbols.indexOf(element);
+            this.vector(attributes, id, vector);
+            Integer hash = BitWords.hashCode(vector, length);
+            List<Integer> bucket = buckets.get(hash);
+            if (bucket == null) {
+                bucket = new ArrayList<Integer>(1);
+                buckets.put(hash, bucket);
+            }
+            for (int kept : bucket) {
+                this.vector(attributes, kept, other);
+                if (BitWords.equals(vector, other, length)) {
+                    TreeSet<Comparable> equivalent = new TreeSet<Comparable>();
+                    equivalent.add(symbols.get(kept));
+                    red.put(element, equivalent);
+                    removed[id] = true;
+                    break;
+                }
+            }
+            if (!removed[id]) {
+                bucket.add(id);
+            }
+        }
+        if (!reduce) {
+            return red;
+        }
+        // a single element whose vector is contained in no other vector is equivalent to the empty set
+        long[] containing = new long[otherLength];
+        int sink = -1;
+        int sinks = 0;
+        for (Comparable element : elements) {
+            int id = symbols.indexOf(element);
+            if (!removed[id]) {
+                this.vector(attributes, id, vector);
+                this.dual(attributes, vector, containing);
+                if (BitWords.cardinality(containing, otherLength) == 1) {
+                    sink = id;
+                    sinks++;
+                }
+            }
+        }
+        if (sinks == 1) {
+            red.put(symbols.get(sink), new TreeSet<Comparable>());
+            removed[sink] = true;
+        }
+        // an element is reducible when its vector is the intersection of the vectors containing it
+        long[] intersection = new long[length];
+        for (Comparable element : elements) {
+            int id = symbols.indexOf(element);
+            if (!removed[id]) {
+                this.vector(attributes, id, vector);
+                this.dual(attributes, vector, containing);
+                BitWords.clear(containing, id);
+                TreeSet<Comparable> equivalent = new TreeSet<Comparable>();
+                for (int i = BitWords.nextSetBit(containing, 0, otherLength); i >= 0;
+                        i = BitWords.nextSetBit(containing, i + 1, otherLength)) {
+                    if (removed[i]) {
+                        BitWords.clear(containing, i);
+                    } else {
+                        equivalent.add(symbols.get(i));
+                    }
+                }
+                if (equivalent.size() > 1) {
+                    this.dual(!attributes, containing, intersection);
+                    if (BitWords.equals(vector, intersection, length)) {
+                        red.put(element, equivalent);
+                    }
+                }
+            }
+        }
+        return red;
+    }
+
+    /**
+     * Copies the extent of an attribute or the intent of an observation.
+     *
+     * @param attributes true for the extent of an attribute, false for the
+     *                   intent of an observation
+     * @param id         the identifier of the element
+     * @param result     the vector of the element
+     */
+    private void vector(boolean attributes, int id, long[] result) {
+        if (attributes) {
+            this.table.column(id, result);
+        } else {
+            this.table.row(id, result);
+        }
+    }
+
+    /**
+     * Computes the intent of a set of observations, or the extent of a set of
+     * attributes.
+     *
+     * @param observations true for the intent of a set of observations, false
+     *                     for the extent of a set of attributes
+     * @param set          the words of the set
+     * @param result       the words of its intent or extent
+     */
+    private void dual(boolean observations, long[] set, long[] result) {
+        if (observations) {
+            this.table.intent(set, result);
+        } else {
+            this.table.extent(set, result);
+        }
+    }
+
     /**
      * Reverses this component by replacing attributes by observations and
      * observations by
@@ -977,9 +1365,11 @@ public class Context extends ClosureSystem {
         TreeSet<Comparable> tmp = this.attributes;
         this.attributes = this.observations;
         this.observations = tmp;
-        TreeMap<Comparable, TreeSet<Comparable>> sauv = this.intent;
-        this.intent = this.extent;
-        this.extent = sauv;
+        SymbolTable symbols = this.symbolAttributes;
+        this.symbolAttributes = this.symbolObservations;
+        this.symbolObservations = symbols;
+        this.table.reverse();
+        this.modified();
     }
 
     /**
@@ -990,7 +1380,6 @@ public class Context extends ClosureSystem {
     public Context getReverseContext() {
         Context context = new Context(this);
         context.reverse();
-        context.setBitSets();
         return context;
     }
 
@@ -1159,7 +1548,71 @@ public class Context extends ClosureSystem {
      */
     @Override
     public TreeSet<Comparable> closure(TreeSet<Comparable> set) {
-        return this.getIntent(this.getExtent(set));
+        long[] extent = this.extentWords(set);
+        long[] intent = new long[this.table.rowLength()];
+        this.table.intent(extent, intent);
+        return this.toAttributes(intent);
+    }
+
+    /**
+     * Returns a lazy iterator over the closed sets of attributes of this
+     * component, in the lectic order.
+     *
+     * Closures are computed by a {@link ContextClosure} operator, on reusable
+     * bitset buffers.
+     *
+     * @return an iterator over the closed sets
+     */
+    @Override
+    public Iterator<Concept> closureIterator() {
+        return new NextClosure(new ContextClosure(this));
+    }
+
+    /**
+     * Returns a closure operator on the identifiers of the attributes of this
+     * component.
+     *
+     * @return a new closure operator
+     */
+    @Override
+    public ContextClosure closureOperator() {
+        return new ContextClosure(this);
+    }
+
+    /**
+     * Returns the canonical basis (or Duquenne-Guigues basis) of the
+     * implications of this component.
+     *
+     * Pseudo-intents are enumerated in the lectic order by the algorithm of
+     * Ganter, on bitset buffers, each of them giving the rule P -> P''\P. The
+     * concept lattice is not computed: contrary to
+     * {@link org.thegalactic.lattice.BijectiveComponents#getCanonicalBasis},
+     * the memory used only depends on the size of the basis.
+     *
+     * @return the canonical basis
+     */
+    public ImplicationalSystem canonicalBasis() {
+        return PseudoClosure.canonicalBasis(this);
+    }
+
+    /**
+     * Returns the lecticaly next closed set of the specified one.
+     *
+     * Closures are computed by a {@link ContextClosure} operator, on reusable
+     * bitset buffers.
+     *
+     * @param cl a concept
+     *
+     * @return the lecticaly next closed set, or the empty set if there is none
+     */
+    @Override
+    public Concept nextClosure(Concept cl) {
+        ContextClosure operator = new ContextClosure(this);
+        long[] set = operator.toWords(cl.getSetA());
+        if (set == null || !operator.nextClosure(set)) {
+            return new Concept(new TreeSet(), false);
+        }
+        return new Concept(operator.toSet(set), false);
     }
 
     /**
@@ -1195,7 +1648,10 @@ public class Context extends ClosureSystem {
      * @return the closure of the set for this component
      */
     public ComparableSet inverseClosure(ComparableSet set) {
-        return new ComparableSet(this.getExtent(this.getIntent((TreeSet) set)));
+        long[] intent = this.intentWords(set);
+        long[] extent = new long[this.table.columnLength()];
+        this.table.extent(intent, extent);
+        return new ComparableSet(this.toObservations(extent));
     }
 
     /**
@@ -1381,13 +1837,17 @@ public class Context extends ClosureSystem {
      * reduced)
      * until the support of the closed set is less than the support value.
      *
+     * Frequent closed sets are enumerated by {@link FrequentClosedMiner}, and
+     * each one is given with its extent. The dependency graph of the iceberg
+     * is not computed, see {@link ConceptLattice#diagramIceberg} otherwise.
+     *
      * @param support a threshold, between 0 and 1, for a closed set to be part
      *                of the iceberg.
      *
      * @return The concept iceberg
      */
     public ConceptLattice closedSetIceberg(double support) {
-        return ConceptLattice.diagramIceberg(this, support);
+        return ConceptLattice.frequentIceberg(this, support);
     }
 
     /**
@@ -0,0 +1,168 @@
+package org.thegalactic.context;
+
+/*
+ * ContextBuilder.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class accumulates observations, attributes and cells of a context, and
+ * materializes the indexes and the binary table of the context only once, when
+ * {@link #build} is called.
+ *
+ * It is designed for bulk loading, for example by context readers:
+ *
+ * ~~~Java
+ * ContextBuilder builder = new ContextBuilder(context);
+ * builder.addToObservations("1");
+ * builder.addToAttributes("a");
+ * builder.addExtentIntent("1", "a");
+ * builder.build();
+ * ~~~
+ */
+public class ContextBuilder {
+
+    /**
+     * The context to build.
+     */
+    private final Context context;
+
+    /**
+     * The observations.
+     */
+    private final TreeSet<Comparable> observations;
+
+    /**
+     * The attributes.
+     */
+    private final TreeSet<Comparable> attributes;
+
+    /**
+     * The observation of each cell.
+     */
+    private final ArrayList<Comparable> cellObservations;
+
+    /**
+     * The attribute of each cell.
+     */
+    private final ArrayList<Comparable> cellAttributes;
+
+    /**
+     * Constructs a builder for a new empty context.
+     */
+    public ContextBuilder() {
+        this(new Context());
+    }
+
+    /**
+     * Constructs a builder for the specified context.
+     *
+     * The builder starts with the content of the context, that is replaced by
+     * the content of the builder when {@link #build} is called.
+     *
+     * @param context the context to build
+     */
+    public ContextBuilder(final Context context) {
+        this.context = context;
+        this.observations = new TreeSet<Comparable>(context.getObservations());
+        this.attributes = new TreeSet<Comparable>(context.getAttributes());
+        this.cellObservations = new ArrayList<Comparable>();
+        this.cellAttributes = new ArrayList<Comparable>();
+        final BinaryTable table = context.getTable();
+        final int length = table.rowLength();
+        final long[] row = new long[length];
+        for (int o = 0; o < table.sizeObservations(); o++) {
+            table.row(o, row);
+            for (int a = BitWords.nextSetBit(row, 0, length); a >= 0; a = BitWords.nextSetBit(row, a + 1, length)) {
+                this.cellObservations.add(context.getObservation(o));
+                this.cellAttributes.add(context.getAttribute(a));
+            }
+        }
+    }
+
+    /**
+     * Checks if this builder contains the specified observation.
+     *
+     * @param obs an observation
+     *
+     * @return true if the observation has been added
+     */
+    public boolean containsObservation(final Comparable obs) {
+        return this.observations.contains(obs);
+    }
+
+    /**
+     * Checks if this builder contains the specified attribute.
+     *
+     * @param att an attribute
+     *
+     * @return true if the attribute has been added
+     */
+    public boolean containsAttribute(final Comparable att) {
+        return this.attributes.contains(att);
+    }
+
+    /**
+     * Adds an observation.
+     *
+     * @param obs an observation
+     *
+     * @return true if the observation was not already added
+     */
+    public boolean addToObservations(final Comparable obs) {
+        return this.observations.add(obs);
+    }
+
+    /**
+     * Adds an attribute.
+     *
+     * @param att an attribute
+     *
+     * @return true if the attribute was not already added
+     */
+    public boolean addToAttributes(final Comparable att) {
+        return this.attributes.add(att);
+    }
+
+    /**
+     * Relates the specified observation and attribute.
+     *
+     * Both have to be added before.
+     *
+     * @param obs an observation
+     * @param att an attribute
+     *
+     * @return true if both have been added
+     */
+    public boolean addExtentIntent(final Comparable obs, final Comparable att) {
+        if (this.observations.contains(obs) && this.attributes.contains(att)) {
+            this.cellObservations.add(obs);
+            this.cellAttributes.add(att);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the content of the context by the content of this builder.
+     *
+     * Indexes and binary table of the context are built once, in
+     * O(|O| + |A| + n) where n is the number of cells.
+     *
+     * @return the context
+     */
+    public Context build() {
+        this.context.load(this.observations, this.attributes, this.cellObservations, this.cellAttributes);
+        return this.context;
+    }
+}
@@ -0,0 +1,184 @@
+package org.thegalactic.context;
+
+/*
+ * ContextClosure.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Collection;
+import java.util.TreeSet;
+
+import org.thegalactic.lattice.ClosureOperator;
+import org.thegalactic.lattice.NextClosure;
+
+/**
+ * This class gives an allocation-free closure operator on the attributes of a
+ * context.
+ *
+ * Sets of attributes are handled as packed words indexed by the attribute
+ * identifiers of the binary table of the context (see
+ * {@link Context#getTable}). The closure of a set is computed as the
+ * intersection of the rows of the observations of its extent, the extent
+ * being the intersection of the columns of its attributes. Both are computed
+ * in buffers allocated once by this operator. Closed sets are enumerated in
+ * the lectic order by a {@link NextClosure} engine.
+ *
+ * An operator is bound to the state of its context when it was created: the
+ * context must not be modified while the operator is used. An operator is not
+ * thread-safe; each thread must use its own operator.
+ */
+public class ContextClosure implements ClosureOperator {
+
+    /**
+     * The context.
+     */
+    private final Context context;
+
+    /**
+     * The binary table of the context.
+     */
+    private final BinaryTable table;
+
+    /**
+     * Number of words of a set of attributes.
+     */
+    private final int length;
+
+    /**
+     * Extent of the last computed closure.
+     */
+    private final long[] extent;
+
+    /**
+     * Next Closure engine, created on demand.
+     */
+    private NextClosure engine;
+
+    /**
+     * Constructs a closure operator for the specified context.
+     *
+     * @param context a context
+     */
+    public ContextClosure(final Context context) {
+        this.context = context;
+        this.table = context.getTable();
+        this.length = this.table.rowLength();
+        this.extent = new long[this.table.columnLength()];
+    }
+
+    /**
+     * Returns the number of attributes.
+     *
+     * @return the number of attributes
+     */
+    public int size() {
+        return this.table.sizeAttributes();
+    }
+
+    /**
+     * Returns the number of words of a set of attributes.
+     *
+     * @return the number of words
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Returns a new empty set of attributes.
+     *
+     * @return a new array of words
+     */
+    public long[] create() {
+        return new long[this.length];
+    }
+
+    /**
+     * Computes the closure of a set of attributes.
+     *
+     * The result may be the specified set itself.
+     *
+     * @param set    a set of attributes
+     * @param result the closure of the set
+     */
+    public void closure(final long[] set, final long[] result) {
+        this.table.extent(set, this.extent);
+        this.table.intent(this.extent, result);
+    }
+
+    /**
+     * Returns the extent of the last closure computed by this operator.
+     *
+     * @return the internal words of the extent
+     */
+    public long[] getExtent() {
+        return this.extent;
+    }
+
+    /**
+     * Replaces a closed set of attributes by the lectically next one, using
+     * the natural order of attributes.
+     *
+     * @param set a closed set of attributes
+     *
+     * @return false if the set was the last closed set, in this case the set is
+     *         left unchanged
+     */
+    public boolean nextClosure(final long[] set) {
+        if (this.engine == null) {
+            this.engine = new NextClosure(this);
+        }
+        return this.engine.nextClosure(set);
+    }
+
+    /**
+     * Returns the attribute of the specified identifier.
+     *
+     * @param id an attribute identifier
+     *
+     * @return the attribute
+     */
+    public Comparable getElement(final int id) {
+        return this.context.getAttribute(id);
+    }
+
+    /**
+     * Returns the identifier of the specified attribute.
+     *
+     * @param element an attribute
+     *
+     * @return the identifier, or -1 if the attribute does not belong to the
+     *         context
+     */
+    public int indexOf(final Comparable element) {
+        return this.context.indexOfAttribute(element);
+    }
+
+    /**
+     * Translates a set of attributes to a set of identifiers.
+     *
+     * @param set a set of attributes
+     *
+     * @return the words of the set, or null if an attribute does not belong to
+     *         the context
+     */
+    public long[] toWords(final Collection<Comparable> set) {
+        return this.context.toAttributeWords(set);
+    }
+
+    /**
+     * Translates a set of identifiers to a set of attributes.
+     *
+     * @param words the words of a set
+     *
+     * @return the set of attributes
+     */
+    public TreeSet<Comparable> toSet(final long[] words) {
+        return this.context.toAttributes(words);
+    }
+}
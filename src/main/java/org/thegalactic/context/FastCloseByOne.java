@@ -0,0 +1,437 @@
+package org.thegalactic.context;
+
+/*
+ * FastCloseByOne.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class enumerates the concepts of a context by the Fast Close-by-One
+ * algorithm of Outrata and Vychodil.
+ *
+ * Concepts are generated as a tree: the children of a concept (A, B) are the
+ * concepts (C, D) where C is the intersection of A with the extent of an
+ * attribute j not in B, and D the intent of C, kept only when D and B share
+ * the same attributes lower than j. A failed canonicity test stores D, and the
+ * descendants skip an attribute j without computing any closure as soon as a
+ * stored set for j is not included in their intent below j.
+ *
+ * Extents, intents and tests are computed on the binary table of the context
+ * (see {@link Context#getTable}), in buffers allocated once per recursion
+ * level. Each concept is generated exactly once, with both its intent and its
+ * extent.
+ *
+ * The tree can be explored in parallel: the concepts of the first levels,
+ * down to a split depth, are expanded by fork/join tasks, and each subtree
+ * rooted at the split depth is then explored sequentially by a worker thread,
+ * with its own scratch buffers. Idle workers steal pending tasks. Concepts
+ * are then added to the collection concurrently, in a non deterministic
+ * order; the set of concepts is the same whatever the parallelism.
+ *
+ * An engine is bound to the state of its context when it was created: the
+ * context must not be modified while the engine is used.
+ */
+public class FastCloseByOne implements ConceptMiner {
+
+    /**
+     * Default depth of the concepts whose subtrees are explored sequentially.
+     */
+    public static final int SPLIT_DEPTH = 2;
+
+    /**
+     * The context.
+     */
+    private final Context context;
+
+    /**
+     * The binary table of the context.
+     */
+    private final BinaryTable table;
+
+    /**
+     * Number of attributes.
+     */
+    private final int size;
+
+    /**
+     * Number of threads of the enumeration.
+     */
+    private int parallelism;
+
+    /**
+     * Depth of the concepts whose subtrees are explored sequentially.
+     */
+    private int splitDepth;
+
+    /**
+     * Constructs an enumeration engine for the specified context.
+     *
+     * @param context a context
+     */
+    public FastCloseByOne(final Context context) {
+        this.context = context;
+        this.table = context.getTable();
+        this.size = this.table.sizeAttributes();
+        this.parallelism = 1;
+        this.splitDepth = SPLIT_DEPTH;
+    }
+
+    /**
+     * Returns the number of threads of the enumeration.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Sets the number of threads of the enumeration.
+     *
+     * @param parallelism the parallelism, 1 for a sequential enumeration
+     */
+    public void setParallelism(final int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Returns the depth of the concepts whose subtrees are explored
+     * sequentially by a parallel enumeration.
+     *
+     * @return the split depth
+     */
+    public int getSplitDepth() {
+        return this.splitDepth;
+    }
+
+    /**
+     * Sets the depth of the concepts whose subtrees are explored sequentially
+     * by a parallel enumeration.
+     *
+     * A larger depth gives more and smaller tasks.
+     *
+     * @param splitDepth the split depth, 0 for the top concept
+     */
+    public void setSplitDepth(final int splitDepth) {
+        this.splitDepth = Math.max(0, splitDepth);
+    }
+
+    /**
+     * Adds the concepts of the context to the specified collection.
+     *
+     * Each concept has its intent as set A and its extent as set B. When the
+     * parallelism is greater than 1, the collection must support concurrent
+     * additions.
+     *
+     * @param sink a collection of concepts
+     */
+    public void enumerate(final Collection<Concept> sink) {
+        final long[] extent = new long[this.table.columnLength()];
+        BitWords.fill(extent, this.table.sizeObservations(), extent.length);
+        final long[] intent = new long[this.table.rowLength()];
+        this.table.intent(extent, intent);
+        if (this.parallelism == 1) {
+            this.generate(new ArrayList<Level>(), 0, extent, intent, 0, null, sink);
+            return;
+        }
+        final ThreadLocal<List<Level>> scratch = new ThreadLocal<List<Level>>() {
+            /**
+             * Returns the scratch buffers of a new worker thread.
+             *
+             * @return an empty list of levels
+             */
+            @Override
+            protected List<Level> initialValue() {
+                return new ArrayList<Level>();
+            }
+        };
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            pool.invoke(new Task(0, extent, intent, 0, null, scratch, sink));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Returns the concepts of the context.
+     *
+     * @return a list of concepts
+     */
+    public List<Concept> concepts() {
+        if (this.parallelism == 1) {
+            final List<Concept> concepts = new ArrayList<Concept>();
+            this.enumerate(concepts);
+            return concepts;
+        }
+        final Queue<Concept> concepts = new ConcurrentLinkedQueue<Concept>();
+        this.enumerate(concepts);
+        return new ArrayList<Concept>(concepts);
+    }
+
+    /**
+     * Returns a closure operator on the attributes of the context.
+     *
+     * @return a new closure operator
+     */
+    public ContextClosure closureOperator() {
+        return new ContextClosure(this.context);
+    }
+
+    /**
+     * Outputs a concept and generates its descendants.
+     *
+     * @param levels    the scratch buffers of each recursion level
+     * @param depth     the recursion level of the concept
+     * @param extent    the extent of the concept
+     * @param intent    the intent of the concept
+     * @param from      the first attribute to add
+     * @param inherited the failed intents of the parent, or null
+     * @param sink      a collection of concepts
+     */
+    private void generate(final List<Level> levels, final int depth, final long[] extent, final long[] intent,
+            final int from, final long[][] inherited, final Collection<Concept> sink) {
+        sink.add(this.concept(extent, intent));
+        if (this.isLeaf(intent, from)) {
+            return;
+        }
+        if (levels.size() == depth) {
+            levels.add(new Level(this.size));
+        }
+        final Level level = levels.get(depth);
+        final int count = this.children(level, extent, intent, from, inherited);
+        for (int k = 0; k < count; k++) {
+            this.generate(levels, depth + 1, level.extents.get(k), level.intents.get(k), level.attributes[k] + 1,
+                    level.failed, sink);
+        }
+    }
+
+    /**
+     * Returns a concept from its words.
+     *
+     * @param extent the extent of the concept
+     * @param intent the intent of the concept
+     *
+     * @return the concept
+     */
+    private Concept concept(final long[] extent, final long[] intent) {
+        return new Concept(this.context.toAttributes(intent), this.context.toObservations(extent));
+    }
+
+    /**
+     * Tests if a concept has no descendants.
+     *
+     * @param intent the intent of the concept
+     * @param from   the first attribute to add
+     *
+     * @return true if no attribute can be added
+     */
+    private boolean isLeaf(final long[] intent, final int from) {
+        return from >= this.size || BitWords.cardinality(intent, this.table.rowLength()) == this.size;
+    }
+
+    /**
+     * Computes the children of a concept in the buffers of a level.
+     *
+     * @param level     the buffers of the level of the children
+     * @param extent    the extent of the concept
+     * @param intent    the intent of the concept
+     * @param from      the first attribute to add
+     * @param inherited the failed intents of the parent, or null
+     *
+     * @return the number of children
+     */
+    private int children(final Level level, final long[] extent, final long[] intent, final int from,
+            final long[][] inherited) {
+        int count = 0;
+        for (int j = from; j < this.size; j++) {
+            long[] failed = null;
+            if (inherited != null) {
+                failed = inherited[j];
+            }
+            level.failed[j] = failed;
+            if (!BitWords.get(intent, j) && (failed == null || BitWords.isSubsetBelow(failed, intent, j))) {
+                final long[] childExtent = level.buffer(level.extents, count, this.table.columnLength());
+                final long[] childIntent = level.buffer(level.intents, count, this.table.rowLength());
+                this.table.extent(extent, j, childExtent);
+                this.table.intent(childExtent, childIntent);
+                if (BitWords.equalsBelow(intent, childIntent, j)) {
+                    level.attributes[count] = j;
+                    count++;
+                } else {
+                    // the intent is kept for the descendants, its buffer is given up
+                    level.failed[j] = childIntent;
+                    level.intents.set(count, new long[this.table.rowLength()]);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * This class gives a fork/join task exploring the subtree of a concept.
+     *
+     * A task above the split depth computes the children of its concept in
+     * buffers of its own, and forks a task for each child. A task at the split
+     * depth explores its subtree sequentially, in the scratch buffers of its
+     * worker thread.
+     */
+    private final class Task extends RecursiveAction {
+
+        /**
+         * Serial version UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The recursion level of the concept.
+         */
+        private final int depth;
+
+        /**
+         * The extent of the concept.
+         */
+        private final long[] extent;
+
+        /**
+         * The intent of the concept.
+         */
+        private final long[] intent;
+
+        /**
+         * The first attribute to add.
+         */
+        private final int from;
+
+        /**
+         * The failed intents of the parent, or null.
+         */
+        private final long[][] inherited;
+
+        /**
+         * The scratch buffers of each worker thread.
+         */
+        private final ThreadLocal<List<Level>> scratch;
+
+        /**
+         * The collection of concepts.
+         */
+        private final Collection<Concept> sink;
+
+        /**
+         * Constructs a task exploring the subtree of a concept.
+         *
+         * @param depth     the recursion level of the concept
+         * @param extent    the extent of the concept
+         * @param intent    the intent of the concept
+         * @param from      the first attribute to add
+         * @param inherited the failed intents of the parent, or null
+         * @param scratch   the scratch buffers of each worker thread
+         * @param sink      a concurrent collection of concepts
+         */
+        private Task(final int depth, final long[] extent, final long[] intent, final int from,
+                final long[][] inherited, final ThreadLocal<List<Level>> scratch, final Collection<Concept> sink) {
+            this.depth = depth;
+            this.extent = extent;
+            this.intent = intent;
+            this.from = from;
+            this.inherited = inherited;
+            this.scratch = scratch;
+            this.sink = sink;
+        }
+
+        /**
+         * Explores the subtree of the concept.
+         */
+        @Override
+        protected void compute() {
+            final FastCloseByOne engine = FastCloseByOne.this;
+            if (this.depth >= engine.splitDepth) {
+                engine.generate(this.scratch.get(), 0, this.extent, this.intent, this.from, this.inherited, this.sink);
+                return;
+            }
+            this.sink.add(engine.concept(this.extent, this.intent));
+            if (engine.isLeaf(this.intent, this.from)) {
+                return;
+            }
+            final Level level = new Level(engine.size);
+            final int count = engine.children(level, this.extent, this.intent, this.from, this.inherited);
+            final List<Task> tasks = new ArrayList<Task>(count);
+            for (int k = 0; k < count; k++) {
+                tasks.add(new Task(this.depth + 1, level.extents.get(k), level.intents.get(k), level.attributes[k] + 1,
+                        level.failed, this.scratch, this.sink));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * This class gives the scratch buffers of a recursion level.
+     */
+    private static final class Level {
+
+        /**
+         * The intent of the failed canonicity test of each attribute, or null.
+         */
+        private final long[][] failed;
+
+        /**
+         * Extents of the children.
+         */
+        private final List<long[]> extents;
+
+        /**
+         * Intents of the children.
+         */
+        private final List<long[]> intents;
+
+        /**
+         * Added attribute of each child.
+         */
+        private final int[] attributes;
+
+        /**
+         * Constructs the buffers of a recursion level.
+         *
+         * @param size the number of attributes
+         */
+        private Level(final int size) {
+            this.failed = new long[size][];
+            this.extents = new ArrayList<long[]>();
+            this.intents = new ArrayList<long[]>();
+            this.attributes = new int[size];
+        }
+
+        /**
+         * Returns the specified buffer of a pool, allocating it if needed.
+         *
+         * @param pool   a pool of buffers
+         * @param index  the index of the buffer
+         * @param length the number of words of the buffer
+         *
+         * @return the buffer
+         */
+        private long[] buffer(final List<long[]> pool, final int index, final int length) {
+            if (pool.size() == index) {
+                pool.add(new long[length]);
+            }
+            return pool.get(index);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.thegalactic.context;
+
+/*
+ * FrequentClosedMiner.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class enumerates the frequent closed sets of attributes of a context,
+ * i.e. the concepts whose extent has at least a minimal support, by the LCM
+ * algorithm of Uno et al.
+ *
+ * Closed sets are generated by prefix-preserving closure extension: a closed
+ * set P is extended by an attribute e greater than the attribute that
+ * generated P, and the closure Q of P + e is kept when P and Q share the same
+ * attributes lower than e. The extent of Q is the extent of P intersected
+ * with the column of e.
+ *
+ * The database is reduced along the recursion: the extent of P stands for the
+ * transactions containing P, and only the attributes that are frequent in
+ * this extent are kept as candidate extensions of P and of all its
+ * descendants. Infrequent closed sets are thus never closed.
+ *
+ * Extents, intents and candidates are computed on the binary table of the
+ * context (see {@link Context#getTable}), in buffers allocated once per
+ * recursion level. The closure of the empty set is always enumerated, as the
+ * bottom of the iceberg, whatever its support.
+ *
+ * An engine is bound to the state of its context when it was created: the
+ * context must not be modified while the engine is used.
+ */
+public class FrequentClosedMiner implements ConceptMiner {
+
+    /**
+     * The context.
+     */
+    private final Context context;
+
+    /**
+     * The binary table of the context.
+     */
+    private final BinaryTable table;
+
+    /**
+     * The minimal number of observations of a frequent closed set.
+     */
+    private final int minSupport;
+
+    /**
+     * Constructs an enumeration engine for the specified context and minimal
+     * support.
+     *
+     * @param context    a context
+     * @param minSupport the minimal number of observations of a closed set
+     */
+    public FrequentClosedMiner(final Context context, final int minSupport) {
+        this.context = context;
+        this.table = context.getTable();
+        this.minSupport = minSupport;
+    }
+
+    /**
+     * Returns the minimal number of observations of a frequent closed set.
+     *
+     * @return the minimal support
+     */
+    public int getMinSupport() {
+        return this.minSupport;
+    }
+
+    /**
+     * Adds the frequent concepts of the context to the specified collection.
+     *
+     * Each concept has its intent as set A and its extent as set B.
+     *
+     * @param sink a collection of concepts
+     */
+    public void enumerate(final Collection<Concept> sink) {
+        final List<Level> levels = new ArrayList<Level>();
+        final Level root = this.level(levels, 0);
+        BitWords.fill(root.extent, this.table.sizeObservations(), root.extent.length);
+        this.table.intent(root.extent, root.intent);
+        this.output(root, sink);
+        BitWords.clearAll(root.candidates, root.candidates.length);
+        for (int e = 0; e < this.table.sizeAttributes(); e++) {
+            if (!BitWords.get(root.intent, e) && this.table.columnSize(e) >= this.minSupport) {
+                BitWords.set(root.candidates, e);
+            }
+        }
+        this.expand(levels, 0, sink);
+    }
+
+    /**
+     * Returns the frequent concepts of the context.
+     *
+     * @return a list of concepts
+     */
+    public List<Concept> concepts() {
+        final List<Concept> concepts = new ArrayList<Concept>();
+        this.enumerate(concepts);
+        return concepts;
+    }
+
+    /**
+     * Returns a closure operator on the attributes of the context.
+     *
+     * @return a new closure operator
+     */
+    public ContextClosure closureOperator() {
+        return new ContextClosure(this.context);
+    }
+
+    /**
+     * Outputs the prefix-preserving closure extensions of a closed set and
+     * their descendants.
+     *
+     * @param levels the scratch buffers of each recursion level
+     * @param depth  the recursion level of the closed set
+     * @param sink   a collection of concepts
+     */
+    private void expand(final List<Level> levels, final int depth, final Collection<Concept> sink) {
+        final Level parent = levels.get(depth);
+        final Level child = this.level(levels, depth + 1);
+        final int rowLength = this.table.rowLength();
+        for (int e = BitWords.nextSetBit(parent.candidates, 0, rowLength); e >= 0;
+                e = BitWords.nextSetBit(parent.candidates, e + 1, rowLength)) {
+            this.table.extent(parent.extent, e, child.extent);
+            this.table.intent(child.extent, child.intent);
+            if (BitWords.equalsBelow(parent.intent, child.intent, e)) {
+                this.output(child, sink);
+                // database reduction: keep the greater attributes frequent in the new extent
+                boolean more = false;
+                BitWords.clearAll(child.candidates, rowLength);
+                for (int f = BitWords.nextSetBit(parent.candidates, e + 1, rowLength); f >= 0;
+                        f = BitWords.nextSetBit(parent.candidates, f + 1, rowLength)) {
+                    if (!BitWords.get(child.intent, f) && this.table.extentSize(child.extent, f) >= this.minSupport) {
+                        BitWords.set(child.candidates, f);
+                        more = true;
+                    }
+                }
+                if (more) {
+                    this.expand(levels, depth + 1, sink);
+                }
+            }
+        }
+    }
+
+    /**
+     * Outputs the concept of a level.
+     *
+     * @param level the buffers of a level
+     * @param sink  a collection of concepts
+     */
+    private void output(final Level level, final Collection<Concept> sink) {
+        sink.add(new Concept(this.context.toAttributes(level.intent), this.context.toObservations(level.extent)));
+    }
+
+    /**
+     * Returns the buffers of the specified recursion level, allocating them if
+     * needed.
+     *
+     * @param levels the scratch buffers of each recursion level
+     * @param depth  a recursion level
+     *
+     * @return the buffers of the level
+     */
+    private Level level(final List<Level> levels, final int depth) {
+        if (levels.size() == depth) {
+            levels.add(new Level(this.table.columnLength(), this.table.rowLength()));
+        }
+        return levels.get(depth);
+    }
+
+    /**
+     * This class gives the scratch buffers of a recursion level.
+     */
+    private static final class Level {
+
+        /**
+         * Extent of the closed set of the level.
+         */
+        private final long[] extent;
+
+        /**
+         * Closed set of the level.
+         */
+        private final long[] intent;
+
+        /**
+         * Candidate extensions of the closed set of the level.
+         */
+        private final long[] candidates;
+
+        /**
+         * Constructs the buffers of a recursion level.
+         *
+         * @param columnLength the number of words of an extent
+         * @param rowLength    the number of words of an intent
+         */
+        private Level(final int columnLength, final int rowLength) {
+            this.extent = new long[columnLength];
+            this.intent = new long[rowLength];
+            this.candidates = new long[rowLength];
+        }
+    }
+}
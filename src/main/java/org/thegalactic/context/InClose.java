@@ -0,0 +1,242 @@
+package org.thegalactic.context;
+
+/*
+ * InClose.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class enumerates the concepts of a context by the In-Close2 algorithm
+ * of Andrews.
+ *
+ * Concepts are generated as a tree, as by the Close-by-One algorithm, but no
+ * intent is computed from its extent. The extent of a child is the extent of
+ * its parent intersected with the column of the added attribute j. When both
+ * extents are equal, j is added to the intent of the parent instead; this way
+ * intents are completed incrementally while the attributes are scanned.
+ * Otherwise the child is canonical when its extent is not included in the
+ * column of an attribute lower than j that does not belong to the partial
+ * intent of the parent, which is complete below j.
+ *
+ * Only columns are read, and a rejected candidate only costs one column
+ * intersection: this suits wide contexts, with many attributes and few
+ * concepts per attribute. Extents and intents are computed on the binary
+ * table of the context (see {@link Context#getTable}), in buffers allocated
+ * once per recursion level.
+ *
+ * An engine is bound to the state of its context when it was created: the
+ * context must not be modified while the engine is used.
+ */
+public class InClose implements ConceptMiner {
+
+    /**
+     * The context.
+     */
+    private final Context context;
+
+    /**
+     * The binary table of the context.
+     */
+    private final BinaryTable table;
+
+    /**
+     * Number of attributes.
+     */
+    private final int size;
+
+    /**
+     * Constructs an enumeration engine for the specified context.
+     *
+     * @param context a context
+     */
+    public InClose(final Context context) {
+        this.context = context;
+        this.table = context.getTable();
+        this.size = this.table.sizeAttributes();
+    }
+
+    /**
+     * Adds the concepts of the context to the specified collection.
+     *
+     * Each concept has its intent as set A and its extent as set B.
+     *
+     * @param sink a collection of concepts
+     */
+    public void enumerate(final Collection<Concept> sink) {
+        final List<Level> levels = new ArrayList<Level>();
+        final Level root = this.level(levels, 0);
+        final long[] extent = new long[this.table.columnLength()];
+        BitWords.fill(extent, this.table.sizeObservations(), extent.length);
+        BitWords.clearAll(root.intent, root.intent.length);
+        this.generate(levels, 0, extent, 0, sink);
+    }
+
+    /**
+     * Returns the concepts of the context.
+     *
+     * @return a list of concepts
+     */
+    public List<Concept> concepts() {
+        final List<Concept> concepts = new ArrayList<Concept>();
+        this.enumerate(concepts);
+        return concepts;
+    }
+
+    /**
+     * Returns a closure operator on the attributes of the context.
+     *
+     * @return a new closure operator
+     */
+    public ContextClosure closureOperator() {
+        return new ContextClosure(this.context);
+    }
+
+    /**
+     * Completes the intent of a concept, outputs it and generates its
+     * descendants.
+     *
+     * The intent of the concept is given by the buffer of its level, complete
+     * for the attributes lower than the first attribute to add.
+     *
+     * @param levels the scratch buffers of each recursion level
+     * @param depth  the recursion level of the concept
+     * @param extent the extent of the concept
+     * @param from   the first attribute to add
+     * @param sink   a collection of concepts
+     */
+    private void generate(final List<Level> levels, final int depth, final long[] extent, final int from,
+            final Collection<Concept> sink) {
+        final Level level = levels.get(depth);
+        final long[] intent = level.intent;
+        final int extentSize = BitWords.cardinality(extent, this.table.columnLength());
+        int count = 0;
+        for (int j = from; j < this.size; j++) {
+            if (!BitWords.get(intent, j)) {
+                final long[] child = level.buffer(count, this.table.columnLength());
+                this.table.extent(extent, j, child);
+                final int childSize = BitWords.cardinality(child, this.table.columnLength());
+                if (childSize == extentSize) {
+                    BitWords.set(intent, j);
+                } else if (this.isCanonical(child, childSize, intent, j)) {
+                    level.attributes[count] = j;
+                    count++;
+                }
+            }
+        }
+        sink.add(new Concept(this.context.toAttributes(intent), this.context.toObservations(extent)));
+        if (count > 0) {
+            final long[] childIntent = this.level(levels, depth + 1).intent;
+            for (int k = 0; k < count; k++) {
+                BitWords.copy(childIntent, intent, childIntent.length);
+                BitWords.set(childIntent, level.attributes[k]);
+                this.generate(levels, depth + 1, level.extents.get(k), level.attributes[k] + 1, sink);
+            }
+        }
+    }
+
+    /**
+     * Tests if the extent of a child is not included in the column of an
+     * attribute lower than the added one and outside of the partial intent of
+     * its parent.
+     *
+     * @param extent the extent of the child
+     * @param size   the size of the extent
+     * @param intent the partial intent of the parent, complete below j
+     * @param j      the added attribute
+     *
+     * @return true if the child is canonical
+     */
+    private boolean isCanonical(final long[] extent, final int size, final long[] intent, final int j) {
+        final int last = j / BitWords.WORD_SIZE;
+        for (int w = 0; w <= last; w++) {
+            long outside = ~intent[w];
+            if (w == last) {
+                outside &= (1L << (j % BitWords.WORD_SIZE)) - 1;
+            }
+            while (outside != 0) {
+                final int k = w * BitWords.WORD_SIZE + Long.numberOfTrailingZeros(outside);
+                if (this.table.extentSize(extent, k) == size) {
+                    return false;
+                }
+                outside &= outside - 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the buffers of the specified recursion level, allocating them if
+     * needed.
+     *
+     * @param levels the scratch buffers of each recursion level
+     * @param depth  a recursion level
+     *
+     * @return the buffers of the level
+     */
+    private Level level(final List<Level> levels, final int depth) {
+        if (levels.size() == depth) {
+            levels.add(new Level(this.size, this.table.rowLength()));
+        }
+        return levels.get(depth);
+    }
+
+    /**
+     * This class gives the scratch buffers of a recursion level.
+     */
+    private static final class Level {
+
+        /**
+         * Intent of the concept of the level, completed while it is expanded.
+         */
+        private final long[] intent;
+
+        /**
+         * Extents of the children.
+         */
+        private final List<long[]> extents;
+
+        /**
+         * Added attribute of each child.
+         */
+        private final int[] attributes;
+
+        /**
+         * Constructs the buffers of a recursion level.
+         *
+         * @param size   the number of attributes
+         * @param length the number of words of an intent
+         */
+        private Level(final int size, final int length) {
+            this.intent = new long[length];
+            this.extents = new ArrayList<long[]>();
+            this.attributes = new int[size];
+        }
+
+        /**
+         * Returns the specified extent buffer, allocating it if needed.
+         *
+         * @param index  the index of the buffer
+         * @param length the number of words of the buffer
+         *
+         * @return the buffer
+         */
+        private long[] buffer(final int index, final int length) {
+            if (this.extents.size() == index) {
+                this.extents.add(new long[length]);
+            }
+            return this.extents.get(index);
+        }
+    }
+}
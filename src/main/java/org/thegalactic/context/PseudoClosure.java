@@ -0,0 +1,214 @@
+package org.thegalactic.context;
+
+/*
+ * PseudoClosure.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.thegalactic.lattice.ClosureOperator;
+import org.thegalactic.lattice.NextClosure;
+import org.thegalactic.rule.ImplicationalSystem;
+import org.thegalactic.rule.Rule;
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class computes the canonical basis of a context by the algorithm of
+ * Ganter, enumerating its pseudo-intents.
+ *
+ * This class is also the closure operator used by this enumeration: the
+ * closure of a set X of attributes is the smallest superset of X containing
+ * the conclusion of each implication of the basis found so far whose premise
+ * is a proper subset of it. Once every pseudo-intent lectically smaller than
+ * a set has been found, this set is closed by this operator if and only if it
+ * is an intent or a pseudo-intent of the context.
+ *
+ * Closed sets are enumerated in the lectic order by a {@link NextClosure}
+ * engine. Each closed set P that is not an intent is a pseudo-intent, and the
+ * implication P -> P'' is added to the operator before computing the next
+ * closed set. The lattice of the context is never built: only the current set,
+ * the premises and the conclusions of the basis are kept.
+ *
+ * An operator is bound to the state of its context when it was created, and
+ * is not thread-safe.
+ */
+final class PseudoClosure implements ClosureOperator {
+
+    /**
+     * The closure operator of the context.
+     */
+    private final ContextClosure context;
+
+    /**
+     * Number of words of a set of attributes.
+     */
+    private final int length;
+
+    /**
+     * The premises of the implications found so far.
+     */
+    private final List<long[]> premises;
+
+    /**
+     * The closures of the premises of the implications found so far.
+     */
+    private final List<long[]> conclusions;
+
+    /**
+     * Constructs the closure operator of the pseudo-intents of the specified
+     * context, without implication.
+     *
+     * @param context a context
+     */
+    PseudoClosure(final Context context) {
+        this.context = new ContextClosure(context);
+        this.length = this.context.length();
+        this.premises = new ArrayList<long[]>();
+        this.conclusions = new ArrayList<long[]>();
+    }
+
+    /**
+     * Returns the canonical basis of the specified context.
+     *
+     * The conclusion of each implication is the closure of its premise minus
+     * the premise.
+     *
+     * @param context a context
+     *
+     * @return the canonical basis
+     */
+    static ImplicationalSystem canonicalBasis(final Context context) {
+        final PseudoClosure operator = new PseudoClosure(context);
+        final ImplicationalSystem basis = new ImplicationalSystem();
+        basis.addAllElements(context.getAttributes());
+        final NextClosure engine = new NextClosure(operator);
+        final long[] set = operator.create();
+        operator.closure(set, set);
+        do {
+            final long[] closed = operator.create();
+            operator.context.closure(set, closed);
+            if (!BitWords.equals(set, closed, operator.length)) {
+                final long[] premise = BitWords.copyOf(set, operator.length);
+                operator.premises.add(premise);
+                operator.conclusions.add(closed);
+                final long[] conclusion = BitWords.copyOf(closed, operator.length);
+                BitWords.andNot(conclusion, premise, operator.length);
+                basis.addRule(new Rule(operator.toSet(premise), operator.toSet(conclusion)));
+            }
+        } while (engine.nextClosure(set));
+        return basis;
+    }
+
+    /**
+     * Returns the number of attributes.
+     *
+     * @return the number of attributes
+     */
+    public int size() {
+        return this.context.size();
+    }
+
+    /**
+     * Returns the number of words of a set of attributes.
+     *
+     * @return the number of words
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Returns a new empty set of attributes.
+     *
+     * @return a new array of words
+     */
+    public long[] create() {
+        return new long[this.length];
+    }
+
+    /**
+     * Computes the smallest superset of a set of attributes containing the
+     * conclusion of each implication whose premise is a proper subset of it.
+     *
+     * The result may be the specified set itself.
+     *
+     * @param set    a set of attributes
+     * @param result the closure of the set
+     */
+    public void closure(final long[] set, final long[] result) {
+        BitWords.copy(result, set, this.length);
+        final int size = this.premises.size();
+        final boolean[] fired = new boolean[size];
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int r = 0; r < size; r++) {
+                final long[] premise = this.premises.get(r);
+                if (!fired[r] && BitWords.isSubset(premise, result, this.length)
+                        && !BitWords.equals(premise, result, this.length)) {
+                    fired[r] = true;
+                    final long[] conclusion = this.conclusions.get(r);
+                    if (!BitWords.isSubset(conclusion, result, this.length)) {
+                        BitWords.or(result, conclusion, this.length);
+                        changed = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the attribute of the specified identifier.
+     *
+     * @param id an attribute identifier
+     *
+     * @return the attribute
+     */
+    public Comparable getElement(final int id) {
+        return this.context.getElement(id);
+    }
+
+    /**
+     * Returns the identifier of the specified attribute.
+     *
+     * @param element an attribute
+     *
+     * @return the identifier, or -1 if the attribute does not belong to the
+     *         context
+     */
+    public int indexOf(final Comparable element) {
+        return this.context.indexOf(element);
+    }
+
+    /**
+     * Translates a set of attributes to a set of identifiers.
+     *
+     * @param set a set of attributes
+     *
+     * @return the words of the set, or null if an attribute does not belong to
+     *         the context
+     */
+    public long[] toWords(final Collection<Comparable> set) {
+        return this.context.toWords(set);
+    }
+
+    /**
+     * Translates a set of identifiers to a set of attributes.
+     *
+     * @param words the words of a set
+     *
+     * @return the set of attributes
+     */
+    public TreeSet<Comparable> toSet(final long[] words) {
+        return this.context.toSet(words);
+    }
+}
@@ -0,0 +1,362 @@
+package org.thegalactic.context;
+
+/*
+ * SupportCounter.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class counts the supports of many sets of attributes of a context in
+ * one call.
+ *
+ * The support of a set of attributes is the size of its extent, as given by
+ * {@link Context#getExtentNb}. Attributes of each set are sorted by decreasing
+ * support, and sets are sorted lexicographically: consecutive sets then share
+ * a prefix whose extent is computed only once, and the extent of each set is
+ * obtained by intersecting the extent of its longest already computed prefix
+ * with the remaining columns. The last column is not intersected but counted,
+ * word by word.
+ *
+ * Large batches are split into contiguous slices of sorted sets that are
+ * counted in parallel by a fork/join pool.
+ *
+ * A counter is bound to the state of its context when it was created: the
+ * context must not be modified while the counter is used.
+ */
+public class SupportCounter {
+
+    /**
+     * Default minimal number of sets of a batch counted in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * Minimal number of sets of a slice counted by a task.
+     */
+    private static final int SLICE_SIZE = 1024;
+
+    /**
+     * The context.
+     */
+    private final Context context;
+
+    /**
+     * The binary table of the context.
+     */
+    private final BinaryTable table;
+
+    /**
+     * Rank of each attribute identifier, by decreasing support.
+     */
+    private final int[] rank;
+
+    /**
+     * Attribute identifier of each rank.
+     */
+    private final int[] attributes;
+
+    /**
+     * Minimal number of sets of a batch counted in parallel.
+     */
+    private int threshold;
+
+    /**
+     * Number of threads used for large batches.
+     */
+    private int parallelism;
+
+    /**
+     * Constructs a support counter for the specified context.
+     *
+     * @param context a context
+     */
+    public SupportCounter(final Context context) {
+        this.context = context;
+        this.table = context.getTable();
+        this.threshold = PARALLEL_THRESHOLD;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        final int size = this.table.sizeAttributes();
+        final Integer[] order = new Integer[size];
+        for (int a = 0; a < size; a++) {
+            order[a] = a;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            /**
+             * Compares two attributes by decreasing support.
+             *
+             * @param a1 an attribute identifier
+             * @param a2 an attribute identifier
+             *
+             * @return a negative integer if the first attribute comes first
+             */
+            public int compare(final Integer a1, final Integer a2) {
+                final int cmp = SupportCounter.this.table.columnSize(a2) - SupportCounter.this.table.columnSize(a1);
+                if (cmp != 0) {
+                    return cmp;
+                }
+                return a1 - a2;
+            }
+        });
+        this.rank = new int[size];
+        this.attributes = new int[size];
+        for (int r = 0; r < size; r++) {
+            this.rank[order[r]] = r;
+            this.attributes[r] = order[r];
+        }
+    }
+
+    /**
+     * Returns the minimal number of sets of a batch counted in parallel.
+     *
+     * @return the threshold
+     */
+    public int getThreshold() {
+        return this.threshold;
+    }
+
+    /**
+     * Sets the minimal number of sets of a batch counted in parallel.
+     *
+     * @param threshold the threshold
+     */
+    public void setThreshold(final int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the number of threads used for large batches.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Sets the number of threads used for large batches.
+     *
+     * @param parallelism the parallelism, 1 to disable parallel counting
+     */
+    public void setParallelism(final int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Returns the support of each specified set of attributes.
+     *
+     * The support of a set containing an attribute that does not belong to the
+     * context is 0.
+     *
+     * @param sets a list of sets of attributes
+     *
+     * @return the supports, in the order of the list
+     */
+    public int[] supports(final List<? extends Collection<Comparable>> sets) {
+        final int[][] ranks = new int[sets.size()][];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = this.toRanks(sets.get(i));
+        }
+        return this.count(ranks);
+    }
+
+    /**
+     * Returns the support of each specified set of attribute identifiers.
+     *
+     * @param sets an array of sets of attribute identifiers, as words
+     *
+     * @return the supports, in the order of the array
+     */
+    public int[] supports(final long[][] sets) {
+        final int length = this.table.rowLength();
+        final int[][] ranks = new int[sets.length][];
+        for (int i = 0; i < ranks.length; i++) {
+            final int[] set = new int[BitWords.cardinality(sets[i], length)];
+            int k = 0;
+            for (int a = BitWords.nextSetBit(sets[i], 0, length); a >= 0; a = BitWords.nextSetBit(sets[i], a + 1, length)) {
+                set[k] = this.rank[a];
+                k++;
+            }
+            Arrays.sort(set);
+            ranks[i] = set;
+        }
+        return this.count(ranks);
+    }
+
+    /**
+     * Translates a set of attributes to its sorted array of ranks.
+     *
+     * @param set a set of attributes
+     *
+     * @return the sorted ranks, or null if an attribute does not belong to the
+     *         context
+     */
+    private int[] toRanks(final Collection<Comparable> set) {
+        final int[] ranks = new int[set.size()];
+        int k = 0;
+        for (final Comparable attribute : set) {
+            final int a = this.context.indexOfAttribute(attribute);
+            if (a < 0) {
+                return null;
+            }
+            ranks[k] = this.rank[a];
+            k++;
+        }
+        Arrays.sort(ranks);
+        return ranks;
+    }
+
+    /**
+     * Counts the supports of sets of ranks.
+     *
+     * @param ranks the sorted ranks of each set, or null for an unknown set
+     *
+     * @return the supports
+     */
+    private int[] count(final int[][] ranks) {
+        final int[] supports = new int[ranks.length];
+        final Integer[] order = new Integer[ranks.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            /**
+             * Compares two sets lexicographically, unknown sets first.
+             *
+             * @param i1 the index of a set
+             * @param i2 the index of a set
+             *
+             * @return a negative integer if the first set comes first
+             */
+            public int compare(final Integer i1, final Integer i2) {
+                return compareRanks(ranks[i1], ranks[i2]);
+            }
+        });
+        if (this.parallelism > 1 && ranks.length >= this.threshold) {
+            this.countParallel(ranks, order, supports);
+        } else {
+            this.countSlice(ranks, order, 0, order.length, supports);
+        }
+        return supports;
+    }
+
+    /**
+     * Counts the supports of sets in parallel, by slices of sorted sets.
+     *
+     * @param ranks    the sorted ranks of each set
+     * @param order    the indexes of the sets in lexicographic order
+     * @param supports the supports to compute
+     */
+    private void countParallel(final int[][] ranks, final Integer[] order, final int[] supports) {
+        final int slices = Math.max(1, Math.min(4 * this.parallelism, order.length / SLICE_SIZE));
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            final List<Future<?>> futures = new ArrayList<Future<?>>(slices);
+            for (int s = 0; s < slices; s++) {
+                final int from = (int) ((long) order.length * s / slices);
+                final int to = (int) ((long) order.length * (s + 1) / slices);
+                futures.add(pool.submit(new Runnable() {
+                    /**
+                     * Counts the supports of a slice.
+                     */
+                    public void run() {
+                        SupportCounter.this.countSlice(ranks, order, from, to, supports);
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Counts the supports of a slice of sorted sets, sharing the extents of
+     * common prefixes.
+     *
+     * @param ranks    the sorted ranks of each set
+     * @param order    the indexes of the sets in lexicographic order
+     * @param from     the first position of the slice in the order
+     * @param to       the position following the slice in the order
+     * @param supports the supports to compute
+     */
+    private void countSlice(final int[][] ranks, final Integer[] order, final int from, final int to,
+            final int[] supports) {
+        final int length = this.table.columnLength();
+        // prefixes[k] is the extent of the first k attributes of the previous set
+        final List<long[]> prefixes = new ArrayList<long[]>();
+        final long[] all = new long[length];
+        BitWords.fill(all, this.table.sizeObservations(), length);
+        prefixes.add(all);
+        int[] previous = new int[0];
+        for (int i = from; i < to; i++) {
+            final int[] set = ranks[order[i]];
+            if (set == null) {
+                supports[order[i]] = 0;
+                continue;
+            }
+            if (set.length == 0) {
+                supports[order[i]] = this.table.sizeObservations();
+                continue;
+            }
+            // longest common prefix with the previous set, excluding its last attribute
+            int common = 0;
+            final int max = Math.min(set.length, previous.length) - 1;
+            while (common < max && set[common] == previous[common]) {
+                common++;
+            }
+            for (int k = common; k < set.length - 1; k++) {
+                if (prefixes.size() <= k + 1) {
+                    prefixes.add(new long[length]);
+                }
+                this.table.extent(prefixes.get(k), this.attributes[set[k]], prefixes.get(k + 1));
+            }
+            supports[order[i]] = this.table.extentSize(prefixes.get(set.length - 1), this.attributes[set[set.length - 1]]);
+            previous = set;
+        }
+    }
+
+    /**
+     * Compares two sorted arrays of ranks lexicographically, null first.
+     *
+     * @param ranks1 a sorted array of ranks
+     * @param ranks2 a sorted array of ranks
+     *
+     * @return a negative integer, zero, or a positive integer as the first
+     *         array is less than, equal to, or greater than the second one
+     */
+    private static int compareRanks(final int[] ranks1, final int[] ranks2) {
+        if (ranks1 == null || ranks2 == null) {
+            return Boolean.compare(ranks1 != null, ranks2 != null);
+        }
+        final int min = Math.min(ranks1.length, ranks2.length);
+        for (int k = 0; k < min; k++) {
+            if (ranks1[k] != ranks2[k]) {
+                return ranks1[k] - ranks2[k];
+            }
+        }
+        return ranks1.length - ranks2.length;
+    }
+}
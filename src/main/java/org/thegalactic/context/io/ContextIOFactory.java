@@ -58,6 +58,7 @@ public final class ContextIOFactory extends org.thegalactic.io.IOFactory<Context
         ContextSerializerFIMI.register();
         ContextSerializerCsv.register();
         ContextSerializerSLF.register();
+        ContextSerializerBinary.register();
     }
 
     /**
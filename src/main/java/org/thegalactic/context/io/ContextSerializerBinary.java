@@ -0,0 +1,372 @@
+package org.thegalactic.context.io;
+
+/*
+ * ContextSerializerBinary.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.thegalactic.context.BinaryTable;
+import org.thegalactic.context.Context;
+import org.thegalactic.io.ChannelReader;
+import org.thegalactic.io.ChannelWriter;
+import org.thegalactic.io.Reader;
+import org.thegalactic.io.Writer;
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class defines the way for reading and writing a context in a binary
+ * file.
+ *
+ * The file is made of:
+ *
+ * - a header: a magic number, a version, the number of observations, the
+ * number of attributes (as 4-byte integers) and the size in bytes of the
+ * dictionaries (as an 8-byte integer);
+ * - the dictionaries of observations and attributes, each element being
+ * written in the order of its identifier, as a type byte followed either by a
+ * 4-byte integer, or by the length of a UTF-8 string and its bytes;
+ * - a padding up to a multiple of 8 bytes;
+ * - the intent of each observation, as packed words indexed by attribute
+ * identifiers.
+ *
+ * All values are big-endian. Only integer and string elements are supported:
+ * writing a context with elements of another type fails before anything is
+ * written to the file.
+ *
+ * The file is read through memory mapping: the binary table of the context
+ * (see {@link BinaryTable}) reads the packed words of the intents directly
+ * from the mapped file until its first modification, and derives the extents
+ * of the attributes when they are first needed. The file must not be modified
+ * while the context is in use.
+ */
+public final class ContextSerializerBinary implements Reader<Context>, Writer<Context>, ChannelReader<Context>,
+        ChannelWriter<Context> {
+
+    /**
+     * String extension.
+     */
+    private static final String EXTENSION = "ctxb";
+
+    /**
+     * Magic number.
+     */
+    private static final int MAGIC = 0x4c415454;
+
+    /**
+     * Version of the format.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Size of the header, in bytes.
+     */
+    private static final int HEADER_SIZE = 24;
+
+    /**
+     * Size of a word, in bytes.
+     */
+    private static final long WORD_BYTES = Long.SIZE / Byte.SIZE;
+
+    /**
+     * Type of string elements.
+     */
+    private static final byte STRING = 0;
+
+    /**
+     * Type of integer elements.
+     */
+    private static final byte INTEGER = 1;
+
+    /**
+     * Maximal size of a mapped segment, in bytes.
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    /**
+     * Size of the write buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The singleton instance.
+     */
+    private static final ContextSerializerBinary INSTANCE = new ContextSerializerBinary();
+
+    /**
+     * Return the singleton instance of this class.
+     *
+     * @return the singleton instance
+     */
+    public static ContextSerializerBinary getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register this class for reading and writing .ctxb files.
+     */
+    public static void register() {
+        ContextIOFactory.getInstance().registerReader(ContextSerializerBinary.getInstance(), EXTENSION);
+        ContextIOFactory.getInstance().registerWriter(ContextSerializerBinary.getInstance(), EXTENSION);
+    }
+
+    /**
+     * This class is not designed to be publicly instantiated.
+     */
+    private ContextSerializerBinary() {
+        super();
+    }
+
+    /**
+     * The binary format cannot be read from a character stream.
+     *
+     * @param context a context to read
+     * @param file    a file
+     *
+     * @throws IOException always
+     */
+    public void read(final Context context, final BufferedReader file) throws IOException {
+        throw new IOException("Binary contexts can only be read from a file channel");
+    }
+
+    /**
+     * The binary format cannot be written to a character stream.
+     *
+     * @param context a context to write
+     * @param file    a file
+     *
+     * @throws IOException always
+     */
+    public void write(final Context context, final BufferedWriter file) throws IOException {
+        throw new IOException("Binary contexts can only be written to a file channel");
+    }
+
+    /**
+     * Read a context from a binary file.
+     *
+     * @param context a context to read
+     * @param channel a file channel
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public void read(final Context context, final FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("Binary context header not found");
+        }
+        final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Binary context magic number not found");
+        }
+        if (header.getInt() != VERSION) {
+            throw new IOException("Unsupported binary context version");
+        }
+        final int countObservations = header.getInt();
+        final int countAttributes = header.getInt();
+        final long dictionarySize = header.getLong();
+        if (countObservations < 0 || countAttributes < 0 || dictionarySize < 0 || dictionarySize > Integer.MAX_VALUE) {
+            throw new IOException("Invalid binary context header");
+        }
+        final int rowLength = BitWords.size(countAttributes);
+        final long offset = align(HEADER_SIZE + dictionarySize);
+        final long size = offset + WORD_BYTES * countObservations * rowLength;
+        if (channel.size() < size) {
+            throw new IOException("Truncated binary context");
+        }
+        final MappedByteBuffer dictionaries = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, dictionarySize);
+        final List<Comparable> observations = readDictionary(dictionaries, countObservations);
+        final List<Comparable> attributes = readDictionary(dictionaries, countAttributes);
+        final int perBuffer = (int) Math.max(1, Math.min(countObservations, SEGMENT_SIZE / Math.max(1, WORD_BYTES * rowLength)));
+        final LongBuffer[] rows = mapVectors(channel, offset, countObservations, rowLength, perBuffer);
+        try {
+            context.setTable(observations, attributes, new BinaryTable(countObservations, countAttributes, rows, perBuffer));
+        } catch (IllegalArgumentException ex) {
+            throw new IOException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Write a context to a binary file.
+     *
+     * @param context a context to write
+     * @param channel a file channel
+     *
+     * @throws IOException When an IOException occurs, or when an element is
+     *                     neither an integer nor a string
+     */
+    public void write(final Context context, final FileChannel channel) throws IOException {
+        final BinaryTable table = context.getTable();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream dictionaries = new DataOutputStream(bytes);
+        for (int o = 0; o < table.sizeObservations(); o++) {
+            writeElement(dictionaries, context.getObservation(o));
+        }
+        for (int a = 0; a < table.sizeAttributes(); a++) {
+            writeElement(dictionaries, context.getAttribute(a));
+        }
+        dictionaries.close();
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(table.sizeObservations());
+        buffer.putInt(table.sizeAttributes());
+        buffer.putLong(bytes.size());
+        buffer.flip();
+        writeFully(channel, buffer);
+        writeFully(channel, ByteBuffer.wrap(bytes.toByteArray()));
+        buffer.clear();
+        for (long i = HEADER_SIZE + bytes.size(); i < align(HEADER_SIZE + bytes.size()); i++) {
+            buffer.put((byte) 0);
+        }
+        final long[] row = new long[table.rowLength()];
+        for (int o = 0; o < table.sizeObservations(); o++) {
+            table.row(o, row);
+            writeWords(channel, buffer, row);
+        }
+        buffer.flip();
+        writeFully(channel, buffer);
+    }
+
+    /**
+     * Returns the smallest multiple of 8 greater or equal to the specified
+     * position.
+     *
+     * @param position a position
+     *
+     * @return the aligned position
+     */
+    private static long align(final long position) {
+        return (position + WORD_BYTES - 1) / WORD_BYTES * WORD_BYTES;
+    }
+
+    /**
+     * Read elements from a dictionary.
+     *
+     * @param buffer a buffer positioned on the dictionary
+     * @param count  the number of elements
+     *
+     * @return the list of elements
+     *
+     * @throws IOException When the dictionary is misformed
+     */
+    private static List<Comparable> readDictionary(final ByteBuffer buffer, final int count) throws IOException {
+        final List<Comparable> elements = new ArrayList<Comparable>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                final byte type = buffer.get();
+                if (type == INTEGER) {
+                    elements.add(buffer.getInt());
+                } else if (type == STRING) {
+                    final byte[] utf = new byte[buffer.getInt()];
+                    buffer.get(utf);
+                    elements.add(new String(utf, StandardCharsets.UTF_8));
+                } else {
+                    throw new IOException("Invalid element type in binary context");
+                }
+            }
+        } catch (RuntimeException ex) {
+            throw new IOException("Misformed binary context dictionary");
+        }
+        return elements;
+    }
+
+    /**
+     * Map packed vectors of a file channel by segments.
+     *
+     * @param channel   a file channel
+     * @param offset    the position of the first vector
+     * @param count     the number of vectors
+     * @param length    the number of words of each vector
+     * @param perBuffer the number of vectors of each segment
+     *
+     * @return the read-only buffers of the segments
+     *
+     * @throws IOException When an IOException occurs
+     */
+    private static LongBuffer[] mapVectors(final FileChannel channel, final long offset, final int count, final int length,
+            final int perBuffer) throws IOException {
+        final LongBuffer[] buffers = new LongBuffer[(count + perBuffer - 1) / perBuffer];
+        final long vectorSize = WORD_BYTES * length;
+        for (int s = 0; s < buffers.length; s++) {
+            final long first = (long) s * perBuffer;
+            final long number = Math.min(perBuffer, count - first);
+            buffers[s] = channel.map(FileChannel.MapMode.READ_ONLY, offset + first * vectorSize, number * vectorSize)
+                    .asLongBuffer();
+        }
+        return buffers;
+    }
+
+    /**
+     * Write an element to a dictionary.
+     *
+     * @param stream  a dictionary stream
+     * @param element an element
+     *
+     * @throws IOException When an IOException occurs, or when the element is
+     *                     neither an integer nor a string
+     */
+    private static void writeElement(final DataOutputStream stream, final Comparable element) throws IOException {
+        if (element instanceof Integer) {
+            stream.writeByte(INTEGER);
+            stream.writeInt((Integer) element);
+        } else if (element instanceof String) {
+            final byte[] utf = ((String) element).getBytes(StandardCharsets.UTF_8);
+            stream.writeByte(STRING);
+            stream.writeInt(utf.length);
+            stream.write(utf);
+        } else {
+            throw new IOException("Unsupported element type in binary context: " + element.getClass().getName());
+        }
+    }
+
+    /**
+     * Write words through a buffer, flushing it when it is full.
+     *
+     * @param channel a file channel
+     * @param buffer  a buffer
+     * @param words   the words
+     *
+     * @throws IOException When an IOException occurs
+     */
+    private static void writeWords(final FileChannel channel, final ByteBuffer buffer, final long[] words)
+            throws IOException {
+        for (final long word : words) {
+            if (buffer.remaining() < WORD_BYTES) {
+                buffer.flip();
+                writeFully(channel, buffer);
+                buffer.clear();
+            }
+            buffer.putLong(word);
+        }
+    }
+
+    /**
+     * Write all the remaining bytes of a buffer.
+     *
+     * @param channel a file channel
+     * @param buffer  a buffer
+     *
+     * @throws IOException When an IOException occurs
+     */
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
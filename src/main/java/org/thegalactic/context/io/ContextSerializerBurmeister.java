@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.util.TreeSet;
 
 import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextBuilder;
 import org.thegalactic.io.Reader;
 import org.thegalactic.io.Writer;
 
@@ -112,6 +113,7 @@ public final class ContextSerializerBurmeister implements Reader<Context>, Write
      * @throws IOException When an IOException occurs
      */
     public void read(final Context context, final BufferedReader file) throws IOException {
+        final ContextBuilder builder = new ContextBuilder(context);
         // str corresponds to the string "B". First line (Unused).
         String str = file.readLine();
 
@@ -135,7 +137,7 @@ public final class ContextSerializerBurmeister implements Reader<Context>, Write
             String[] obsNames = new String[nbObs];
             for (int i = 0; i < nbObs; i++) {
                 obsNames[i] = this.readNextLine(file);
-                context.addToObservations(obsNames[i]);
+                builder.addToObservations(obsNames[i]);
             }
 
             // Now reading attributes
@@ -143,7 +145,7 @@ public final class ContextSerializerBurmeister implements Reader<Context>, Write
             String[] attNames = new String[nbAtt];
             for (int i = 0; i < nbAtt; i++) {
                 attNames[i] = this.readNextLine(file);
-                context.addToAttributes(attNames[i]);
+                builder.addToAttributes(attNames[i]);
             }
 
             // Now reading context
@@ -151,11 +153,11 @@ public final class ContextSerializerBurmeister implements Reader<Context>, Write
                 str = this.readNextLine(file);
                 for (int j = 0; j < nbAtt; j++) {
                     if (str.charAt(j) == 'X') {
-                        context.addExtentIntent(obsNames[i], attNames[j]);
+                        builder.addExtentIntent(obsNames[i], attNames[j]);
                     }
                 }
             }
-            context.setBitSets();
+            builder.build();
         } catch (NumberFormatException ex) {
             throw new IOException(ex.getMessage());
         } catch (IndexOutOfBoundsException ex) {
@@ -14,7 +14,12 @@ package org.thegalactic.context.io;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.TreeSet;
 
 import org.apache.commons.csv.CSVFormat;
@@ -22,7 +27,9 @@ import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
 
+import org.thegalactic.context.BinaryTable;
 import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextBuilder;
 import org.thegalactic.io.Reader;
 import org.thegalactic.io.Writer;
 
@@ -105,82 +112,196 @@ public final class ContextSerializerCsv implements Reader<Context>, Writer<Conte
      * @throws IOException When an IOException occurs
      */
     public void read(Context context, BufferedReader file) throws IOException {
+        this.read(context, file, null);
+    }
+
+    /**
+     * Read a context from a csv file, keeping only some attributes.
+     *
+     * The file follows the format described in
+     * {@link #read(Context, BufferedReader)}. The header is validated before
+     * any record is read, then records are parsed one at a time and their cells
+     * are stored directly in the binary table of the context: the memory used
+     * does not depend on the size of the file, only on the size of the context.
+     *
+     * @param context    a context to read
+     * @param file       a file
+     * @param projection the attributes to keep, or null to keep all attributes
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public void read(Context context, BufferedReader file, Collection<String> projection) throws IOException {
         // Parse the file
-        CSVParser parser = CSVFormat.RFC4180.parse(file);
+        final CSVParser parser = CSVFormat.RFC4180.parse(file);
+        try {
+            final Iterator<CSVRecord> records = parser.iterator();
 
-        // Get the records and record size
-        List<CSVRecord> records = parser.getRecords();
-        int length = records.size();
+            // Verify length
+            if (!records.hasNext()) {
+                throw new IOException("CSV cannot be empty");
+            }
 
-        // Verify length
-        if (length == 0) {
-            throw new IOException("CSV cannot be empty");
-        }
+            // Get the attributes and the attribute size
+            final CSVRecord header = records.next();
+            final int size = header.size();
 
-        // Get the attributes and the attribute size
-        CSVRecord attributes = records.get(0);
-        int size = attributes.size();
+            // Detect invalid attribute size
+            if (size == 1 && header.get(0).equals("")) {
+                throw new IOException("Attribute size cannot be 0");
+            }
 
-        // Detect invalid attribute size
-        if (size == 1 && attributes.get(0).equals("")) {
-            throw new IOException("Attribute size cannot be 0");
-        }
+            // Index of the first attribute
+            int first = 0;
+            if (header.get(0).equals("")) {
+                first = 1;
+            }
 
-        // Index of the first attribute
-        int first = 0;
-        if (attributes.get(0).equals("")) {
-            first = 1;
-        }
+            // Get the attributes and the columns to keep
+            final List<Comparable> attributes = new ArrayList<Comparable>();
+            final List<Integer> columns = new ArrayList<Integer>();
+            final Set<String> names = new HashSet<String>();
+            for (int i = first; i < size; i++) {
+                final String attribute = header.get(i);
 
-        // Get the attributes
-        for (int i = first; i < size; i++) {
-            String attribute = attributes.get(i);
+                // Detect duplicated attribute
+                if (!names.add(attribute)) {
+                    throw new IOException("Duplicated attribute");
+                }
 
-            // Detect duplicated attribute
-            if (!context.addToAttributes(attribute)) {
-                throw new IOException("Duplicated attribute");
+                // Detect empty attribute
+                if ("".equals(attribute)) {
+                    throw new IOException("Empty attribute");
+                }
+
+                if (projection == null || projection.contains(attribute)) {
+                    attributes.add(attribute);
+                    columns.add(i);
+                }
             }
 
-            // Detect empty attribute
-            if ("".equals(attribute)) {
-                throw new IOException("Empty attribute");
+            // Detect unknown projected attribute
+            if (projection != null && !names.containsAll(projection)) {
+                throw new IOException("Projected attribute not found");
             }
+
+            if (context.getObservations().isEmpty() && context.getAttributes().isEmpty()) {
+                readTable(context, records, first, size, attributes, columns);
+            } else {
+                readBuilder(context, records, first, size, attributes, columns);
+            }
+        } finally {
+            // Close the parser
+            parser.close();
         }
+    }
+
+    /**
+     * Read the records of a csv file into the binary table of an empty
+     * context.
+     *
+     * @param context    an empty context
+     * @param records    the records following the header
+     * @param first      index of the first attribute column
+     * @param size       size of the records
+     * @param attributes the attributes to keep
+     * @param columns    the column of each attribute to keep
+     *
+     * @throws IOException When a record is misformed
+     */
+    private static void readTable(Context context, Iterator<CSVRecord> records, int first, int size,
+            List<Comparable> attributes, List<Integer> columns) throws IOException {
+        final BinaryTable table = new BinaryTable(0, attributes.size());
+        final List<Comparable> observations = new ArrayList<Comparable>();
+        final Set<Comparable> identifiers = new HashSet<Comparable>();
+        int line = 0;
+        while (records.hasNext()) {
+            line++;
+            final CSVRecord record = records.next();
+            final String identifier = identifier(record, line, first, size);
 
-        // Get the data
-        for (int j = 1; j < length; j++) {
-            // Get the current record
-            CSVRecord record = records.get(j);
+            // Detect duplicated identifier
+            if (!identifiers.add(identifier)) {
+                throw new IOException("Duplicated identifier");
+            }
 
-            // Detect incorrect size
-            if (record.size() != size) {
-                throw new IOException("Line does not have the correct number of attributes");
+            // Add the extent/intent for the current identifier and the kept attributes
+            final int o = table.addObservation();
+            observations.add(identifier);
+            for (int a = 0; a < columns.size(); a++) {
+                if (record.get(columns.get(a)).equals("1")) {
+                    table.set(o, a);
+                }
             }
+        }
+        context.setTable(observations, attributes, table);
+    }
 
-            // Get the observation identifier
-            String identifier;
-            if (first == 1) {
-                identifier = record.get(0);
-            } else {
-                identifier = String.valueOf(j);
+    /**
+     * Read the records of a csv file into a non-empty context.
+     *
+     * @param context    a context
+     * @param records    the records following the header
+     * @param first      index of the first attribute column
+     * @param size       size of the records
+     * @param attributes the attributes to keep
+     * @param columns    the column of each attribute to keep
+     *
+     * @throws IOException When a record is misformed
+     */
+    private static void readBuilder(Context context, Iterator<CSVRecord> records, int first, int size,
+            List<Comparable> attributes, List<Integer> columns) throws IOException {
+        final ContextBuilder builder = new ContextBuilder(context);
+        for (final Comparable attribute : attributes) {
+            // Detect duplicated attribute
+            if (!builder.addToAttributes(attribute)) {
+                throw new IOException("Duplicated attribute");
             }
+        }
+        int line = 0;
+        while (records.hasNext()) {
+            line++;
+            final CSVRecord record = records.next();
+            final String identifier = identifier(record, line, first, size);
 
             // Detect duplicated identifier
-            if (!context.addToObservations(identifier)) {
+            if (!builder.addToObservations(identifier)) {
                 throw new IOException("Duplicated identifier");
             }
 
-            // Add the extent/intent for the current identifier and current attribute
-            for (int i = first; i < size; i++) {
-                if (record.get(i).equals("1")) {
-                    context.addExtentIntent(identifier, attributes.get(i));
+            // Add the extent/intent for the current identifier and the kept attributes
+            for (int a = 0; a < columns.size(); a++) {
+                if (record.get(columns.get(a)).equals("1")) {
+                    builder.addExtentIntent(identifier, attributes.get(a));
                 }
             }
         }
+        builder.build();
+    }
 
-        // Close the parser
-        parser.close();
-        context.setBitSets();
+    /**
+     * Returns the observation identifier of a record, after having checked its
+     * size.
+     *
+     * @param record a record
+     * @param line   the number of the record, starting from 1
+     * @param first  index of the first attribute column
+     * @param size   expected size of the record
+     *
+     * @return the observation identifier
+     *
+     * @throws IOException When the record does not have the correct size
+     */
+    private static String identifier(CSVRecord record, int line, int first, int size) throws IOException {
+        // Detect incorrect size
+        if (record.size() != size) {
+            throw new IOException("Line does not have the correct number of attributes");
+        }
+
+        // Get the observation identifier
+        if (first == 1) {
+            return record.get(0);
+        }
+        return String.valueOf(line);
     }
 
     /**
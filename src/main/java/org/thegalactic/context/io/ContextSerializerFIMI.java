@@ -14,9 +14,22 @@ package org.thegalactic.context.io;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import org.thegalactic.context.BinaryTable;
 import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextBuilder;
+import org.thegalactic.io.ChannelReader;
 import org.thegalactic.io.Reader;
 import org.thegalactic.io.Writer;
 
@@ -35,13 +48,33 @@ import org.thegalactic.io.Writer;
  * class ContextSerializerFIMI #LightCyan
  * title ContextSerializerFIMI UML graph
  */
-public final class ContextSerializerFIMI implements Reader<Context>, Writer<Context> {
+public final class ContextSerializerFIMI implements Reader<Context>, Writer<Context>, ChannelReader<Context> {
 
     /**
      * String extension.
      */
     private static final String EXTENSION = "dat";
 
+    /**
+     * Minimal size of a chunk, in bytes.
+     */
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Number of chunks per available processor.
+     */
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    /**
+     * Maximal size of a chunk, in bytes.
+     */
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    /**
+     * Size of the buffer used to align chunks on lines, in bytes.
+     */
+    private static final int ALIGN_SIZE = 1 << 12;
+
     /**
      * The singleton instance.
      */
@@ -98,6 +131,7 @@ public final class ContextSerializerFIMI implements Reader<Context>, Writer<Cont
      * @throws IOException When an IOException occurs
      */
     public void read(final Context context, final BufferedReader file) throws IOException {
+        final ContextBuilder builder = new ContextBuilder(context);
         // Initialize the line number
         int lineNumber = 0;
 
@@ -108,7 +142,7 @@ public final class ContextSerializerFIMI implements Reader<Context>, Writer<Cont
 
             // Get the next identifier
             final String identifier = "O" + lineNumber;
-            context.addToObservations(identifier);
+            builder.addToObservations(identifier);
 
             // Get the current line
             final String str = file.readLine();
@@ -116,15 +150,402 @@ public final class ContextSerializerFIMI implements Reader<Context>, Writer<Cont
             // Tokenize the line
             for (final String token : str.split(" +")) {
                 final Integer attribute = Integer.parseInt(token);
-                if (!context.containsAttribute(attribute)) {
-                    context.addToAttributes(attribute);
+                if (!builder.containsAttribute(attribute)) {
+                    builder.addToAttributes(attribute);
                 }
 
                 // Add the extent/intent for the current identifier and current attribute
-                context.addExtentIntent(identifier, attribute);
+                builder.addExtentIntent(identifier, attribute);
+            }
+        }
+        builder.build();
+    }
+
+    /**
+     * Returns the number of chunks of a file.
+     *
+     * There are a few chunks per processor, each one of at least 1 MiB, and
+     * enough chunks for each one to be at most 1 GiB, since a mapped buffer
+     * cannot exceed 2 GiB.
+     *
+     * @param size       the size of the file, in bytes
+     * @param processors the number of available processors
+     *
+     * @return the number of chunks
+     */
+    static int chunkCount(final long size, final int processors) {
+        final long count = Math.max(1, Math.min(size / CHUNK_SIZE, (long) CHUNKS_PER_PROCESSOR * processors));
+        return (int) Math.max(count, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * Read a context from a file channel.
+     *
+     * The file follows the format described in
+     * {@link #read(Context, BufferedReader)}. Items may be separated by any
+     * blank character and empty lines give observations with no attributes.
+     *
+     * The file is mapped in memory and split into chunks made of whole lines.
+     * Chunks are parsed in parallel into arrays of integers, each one with its
+     * sorted distinct items, then merged into the binary table of the context
+     * in one step. A chunk is never larger
+     * than 1 GiB, unless it is made of a single longer line.
+     *
+     * @param context a context to read
+     * @param channel a file channel
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public void read(final Context context, final FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int count = chunkCount(size, processors);
+        final long[] bounds = new long[count + 1];
+        for (int i = 1; i < count; i++) {
+            bounds[i] = nextLine(channel, Math.max(bounds[i - 1], size / count * i), size);
+        }
+        bounds[count] = size;
+        final List<Chunk> chunks = new ArrayList<Chunk>(count);
+        final ForkJoinPool pool = new ForkJoinPool(processors);
+        try {
+            final List<Future<Chunk>> futures = new ArrayList<Future<Chunk>>(count);
+            for (int i = 0; i < count; i++) {
+                if (bounds[i + 1] - bounds[i] > Integer.MAX_VALUE) {
+                    throw new IOException("Line too long at byte " + bounds[i]);
+                }
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+                futures.add(pool.submit(new Callable<Chunk>() {
+                    /**
+                     * Parse a chunk.
+                     *
+                     * @return the parsed chunk
+                     *
+                     * @throws IOException When the chunk is misformed
+                     */
+                    public Chunk call() throws IOException {
+                        return new Chunk(buffer);
+                    }
+                }));
+            }
+            for (final Future<Chunk> future : futures) {
+                chunks.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (ExecutionException ex) {
+            throw new IOException(ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        merge(context, chunks);
+    }
+
+    /**
+     * Returns a number of cells, checking that it fits in an integer.
+     *
+     * @param cells a number of cells
+     *
+     * @return the number of cells
+     *
+     * @throws IOException When the number of cells exceeds the range of an
+     *                     integer
+     */
+    static int cellCount(final long cells) throws IOException {
+        if (cells > Integer.MAX_VALUE) {
+            throw new IOException("Too many cells in FIMI file: " + cells);
+        }
+        return (int) cells;
+    }
+
+    /**
+     * Merge parsed chunks into a context.
+     *
+     * Only the sorted distinct items of the chunks are merged: the items of a
+     * chunk are then translated into attributes through the positions of its
+     * distinct items among all the distinct items.
+     *
+     * @param context a context
+     * @param chunks  the parsed chunks, in file order
+     *
+     * @throws IOException When the chunks hold too many cells
+     */
+    private static void merge(final Context context, final List<Chunk> chunks) throws IOException {
+        long lines = 0;
+        long cells = 0;
+        for (final Chunk chunk : chunks) {
+            lines += chunk.lines;
+            cells += chunk.size;
+        }
+        cellCount(Math.max(lines, cells));
+        int candidates = 0;
+        for (final Chunk chunk : chunks) {
+            candidates += chunk.distinct.length;
+        }
+        final int[] items = new int[candidates];
+        int position = 0;
+        for (final Chunk chunk : chunks) {
+            System.arraycopy(chunk.distinct, 0, items, position, chunk.distinct.length);
+            position += chunk.distinct.length;
+        }
+        Arrays.sort(items);
+        int distinct = 0;
+        for (int i = 0; i < items.length; i++) {
+            if (i == 0 || items[i] != items[i - 1]) {
+                items[distinct] = items[i];
+                distinct++;
+            }
+        }
+        final List<int[]> ids = new ArrayList<int[]>(chunks.size());
+        for (final Chunk chunk : chunks) {
+            final int[] chunkIds = new int[chunk.distinct.length];
+            for (int i = 0; i < chunkIds.length; i++) {
+                chunkIds[i] = Arrays.binarySearch(items, 0, distinct, chunk.distinct[i]);
+            }
+            ids.add(chunkIds);
+        }
+        if (!context.getObservations().isEmpty() || !context.getAttributes().isEmpty()) {
+            mergeInto(context, chunks, ids, items, distinct);
+            return;
+        }
+        final List<Comparable> observations = new ArrayList<Comparable>((int) lines);
+        for (int o = 1; o <= lines; o++) {
+            observations.add("O" + o);
+        }
+        final List<Comparable> attributes = new ArrayList<Comparable>(distinct);
+        for (int a = 0; a < distinct; a++) {
+            attributes.add(items[a]);
+        }
+        final BinaryTable table = new BinaryTable((int) lines, distinct, BinaryTable.isSparse(cells, (int) lines, distinct));
+        int o = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            final Chunk chunk = chunks.get(c);
+            final int[] chunkIds = ids.get(c);
+            int start = 0;
+            for (int line = 0; line < chunk.lines; line++) {
+                for (int i = start; i < chunk.ends[line]; i++) {
+                    table.set(o, chunkIds[chunk.items[i]]);
+                }
+                start = chunk.ends[line];
+                o++;
+            }
+        }
+        context.setTable(observations, attributes, table);
+    }
+
+    /**
+     * Merge parsed chunks into a non-empty context.
+     *
+     * @param context  a context
+     * @param chunks   the parsed chunks, in file order
+     * @param ids      the positions of the distinct items of each chunk among
+     *                 the sorted distinct items
+     * @param items    the sorted distinct items
+     * @param distinct the number of distinct items
+     */
+    private static void mergeInto(final Context context, final List<Chunk> chunks, final List<int[]> ids, final int[] items,
+            final int distinct) {
+        final ContextBuilder builder = new ContextBuilder(context);
+        final Integer[] attributes = new Integer[distinct];
+        for (int a = 0; a < distinct; a++) {
+            attributes[a] = items[a];
+            builder.addToAttributes(attributes[a]);
+        }
+        int lineNumber = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            final Chunk chunk = chunks.get(c);
+            final int[] chunkIds = ids.get(c);
+            int start = 0;
+            for (int line = 0; line < chunk.lines; line++) {
+                lineNumber++;
+                final String identifier = "O" + lineNumber;
+                builder.addToObservations(identifier);
+                for (int i = start; i < chunk.ends[line]; i++) {
+                    builder.addExtentIntent(identifier, attributes[chunkIds[chunk.items[i]]]);
+                }
+                start = chunk.ends[line];
+            }
+        }
+        builder.build();
+    }
+
+    /**
+     * Returns the position following the end of the line containing the
+     * specified position.
+     *
+     * @param channel  a file channel
+     * @param position a position
+     * @param size     the size of the file
+     *
+     * @return the position of the beginning of the next line, or the size of
+     *         the file
+     *
+     * @throws IOException When an IOException occurs
+     */
+    private static long nextLine(final FileChannel channel, final long position, final long size) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(ALIGN_SIZE);
+        long current = position - 1;
+        while (current < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, current);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return current + i + 1;
+                }
+            }
+            current += Math.max(read, 1);
+        }
+        return size;
+    }
+
+    /**
+     * This class holds the items of a chunk of lines.
+     */
+    private static final class Chunk {
+
+        /**
+         * Initial capacity of arrays.
+         */
+        private static final int INITIAL_CAPACITY = 16;
+
+        /**
+         * Radix of items.
+         */
+        private static final int RADIX = 10;
+
+        /**
+         * Number of lines.
+         */
+        private int lines;
+
+        /**
+         * Position in items of the end of each line.
+         */
+        private int[] ends;
+
+        /**
+         * Number of items.
+         */
+        private int size;
+
+        /**
+         * The items of all lines, replaced by their positions in the distinct
+         * items once the chunk is parsed.
+         */
+        private int[] items;
+
+        /**
+         * The sorted distinct items.
+         */
+        private int[] distinct;
+
+        /**
+         * Parse a chunk of lines.
+         *
+         * @param buffer a buffer containing whole lines
+         *
+         * @throws IOException When an item is not an integer
+         */
+        Chunk(final ByteBuffer buffer) throws IOException {
+            this.ends = new int[INITIAL_CAPACITY];
+            this.items = new int[INITIAL_CAPACITY];
+            final int limit = buffer.limit();
+            boolean inItem = false;
+            boolean negative = false;
+            long value = 0;
+            for (int i = 0; i < limit; i++) {
+                final byte b = buffer.get(i);
+                if (b >= '0' && b <= '9') {
+                    value = value * RADIX + b - '0';
+                    if (value > Integer.MAX_VALUE + 1L) {
+                        throw new IOException("Item out of range");
+                    }
+                    inItem = true;
+                } else if (b == '-' && !inItem && !negative) {
+                    negative = true;
+                } else if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                    if (inItem) {
+                        this.add(negative, value);
+                    } else if (negative) {
+                        throw new IOException("Invalid item");
+                    }
+                    inItem = false;
+                    negative = false;
+                    value = 0;
+                    if (b == '\n') {
+                        this.endLine();
+                    }
+                } else {
+                    throw new IOException("Invalid character in FIMI file: " + (char) b);
+                }
+            }
+            if (inItem) {
+                this.add(negative, value);
+            } else if (negative) {
+                throw new IOException("Invalid item");
+            }
+            if (limit > 0 && buffer.get(limit - 1) != '\n') {
+                this.endLine();
+            }
+            this.index();
+        }
+
+        /**
+         * Computes the sorted distinct items, and replaces the items by their
+         * positions in them.
+         */
+        private void index() {
+            final int[] sorted = Arrays.copyOf(this.items, this.size);
+            Arrays.sort(sorted);
+            int count = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[count] = sorted[i];
+                    count++;
+                }
+            }
+            this.distinct = Arrays.copyOf(sorted, count);
+            for (int i = 0; i < this.size; i++) {
+                this.items[i] = Arrays.binarySearch(this.distinct, this.items[i]);
+            }
+        }
+
+        /**
+         * Add an item to the current line.
+         *
+         * @param negative is the item negative
+         * @param value    the absolute value of the item
+         *
+         * @throws IOException When the item is out of range
+         */
+        private void add(final boolean negative, final long value) throws IOException {
+            long item = value;
+            if (negative) {
+                item = -value;
+            }
+            if (item > Integer.MAX_VALUE) {
+                throw new IOException("Item out of range");
+            }
+            if (this.size == this.items.length) {
+                this.items = Arrays.copyOf(this.items, 2 * this.size);
+            }
+            this.items[this.size] = (int) item;
+            this.size++;
+        }
+
+        /**
+         * End the current line.
+         */
+        private void endLine() {
+            if (this.lines == this.ends.length) {
+                this.ends = Arrays.copyOf(this.ends, 2 * this.lines);
             }
+            this.ends[this.lines] = this.size;
+            this.lines++;
         }
-        context.setBitSets();
     }
 
     /**
@@ -22,6 +22,7 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextBuilder;
 import org.thegalactic.io.Reader;
 import org.thegalactic.io.Writer;
 
@@ -121,6 +122,7 @@ public final class ContextSerializerSLF implements Reader<Context>, Writer<Conte
      * @todo use StreamTokenizer
      */
     public void read(final Context context, final BufferedReader file) throws IOException {
+        final ContextBuilder builder = new ContextBuilder(context);
 
         if (!file.readLine().equals(HEADER)) {
             throw new IOException(MISFORMED);
@@ -151,8 +153,12 @@ public final class ContextSerializerSLF implements Reader<Context>, Writer<Conte
             line = file.readLine();
         }
 
-        context.addAllToAttributes(new TreeSet(attributes));
-        context.addAllToObservations(new TreeSet(observations));
+        for (final Comparable attribute : attributes) {
+            builder.addToAttributes(attribute);
+        }
+        for (final Comparable observation : observations) {
+            builder.addToObservations(observation);
+        }
 
         for (int i = 0; i < countObservations; i++) {
             line = file.readLine();
@@ -161,7 +167,7 @@ public final class ContextSerializerSLF implements Reader<Context>, Writer<Conte
             while (tokenizer.hasMoreTokens()) {
                 final String next = tokenizer.nextToken();
                 if ("1".equals(next)) {
-                    context.addExtentIntent(observations.get(i), attributes.get(count));
+                    builder.addExtentIntent(observations.get(i), attributes.get(count));
                 }
                 count++;
             }
@@ -169,7 +175,7 @@ public final class ContextSerializerSLF implements Reader<Context>, Writer<Conte
                 throw new IOException(MISFORMED);
             }
         }
-        context.setBitSets();
+        builder.build();
     }
 
     /**
@@ -353,6 +353,7 @@ public class ConcreteDGraph<N, E> extends AbstractDGraph<N, E> implements Clonea
             this.nodes.add(node);
             this.successors.put(node, new TreeSet<Edge<N, E>>());
             this.predecessors.put(node, new TreeSet<Edge<N, E>>());
+            this.nodeAdded(node);
             return true;
         }
         return false;
@@ -370,32 +371,49 @@ public class ConcreteDGraph<N, E> extends AbstractDGraph<N, E> implements Clonea
             // Remove the edges (node,target) with key node in successors, and key target in predecessors
             for (final Edge<N, E> successor : this.successors.get(node)) {
                 if (successor.getTarget().compareTo(node) != 0) {
-                    for (final Edge<N, E> predecessor : this.predecessors.get(successor.getTarget())) {
-                        if (predecessor.getSource().compareTo(node) == 0) {
-                            this.predecessors.get(successor.getTarget()).remove(predecessor);
-                        }
-                    }
+                    this.predecessors.get(successor.getTarget()).remove(successor);
                 }
-                this.successors.remove(node);
             }
+            this.successors.remove(node);
             // Remove the edges (source,node) with key node in predecessors, and key source in successors
             for (final Edge<N, E> predecessor : this.predecessors.get(node)) {
                 if (predecessor.getSource().compareTo(node) != 0) {
-                    for (final Edge<N, E> successor : this.successors.get(predecessor.getSource())) {
-                        if (successor.getTarget().compareTo(node) == 0) {
-                            this.successors.get(predecessor.getSource()).remove(successor);
-                        }
-                    }
+                    this.successors.get(predecessor.getSource()).remove(predecessor);
                 }
-                this.predecessors.remove(node);
             }
+            this.predecessors.remove(node);
             // Remove node
             this.nodes.remove(node);
+            this.nodeRemoved(node);
             return true;
         }
         return false;
     }
 
+    /**
+     * Invoked when a node has been added by {@link #addNode}.
+     *
+     * This method does nothing. It can be overridden by subclasses that
+     * maintain an index of their nodes.
+     *
+     * @param node the added node
+     */
+    protected void nodeAdded(final Node<N> node) {
+        // nothing to do
+    }
+
+    /**
+     * Invoked when a node has been removed by {@link #removeNode}.
+     *
+     * This method does nothing. It can be overridden by subclasses that
+     * maintain an index of their nodes.
+     *
+     * @param node the removed node
+     */
+    protected void nodeRemoved(final Node<N> node) {
+        // nothing to do
+    }
+
     /**
      * Removes the specified set of nodes from this component.
      *
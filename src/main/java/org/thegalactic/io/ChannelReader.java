@@ -0,0 +1,37 @@
+package org.thegalactic.io;
+
+/*
+ * ChannelReader.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * This interface defines a standard way for reading an element from a binary
+ * file.
+ *
+ * A {@link Reader} registered in an {@link IOFactory} that also implements
+ * this interface is given a file channel instead of a character stream by
+ * {@link Filer#parse}.
+ *
+ * @param <E> The class of elements to read.
+ */
+public interface ChannelReader<E> {
+
+    /**
+     * Read an element from a file channel.
+     *
+     * @param e       an element to read
+     * @param channel a file channel opened for reading
+     *
+     * @throws IOException When an IOException occurs
+     */
+    void read(E e, FileChannel channel) throws IOException;
+}
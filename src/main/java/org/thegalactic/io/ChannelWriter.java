@@ -0,0 +1,37 @@
+package org.thegalactic.io;
+
+/*
+ * ChannelWriter.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * This interface defines a standard way for writing an element to a binary
+ * file.
+ *
+ * A {@link Writer} registered in an {@link IOFactory} that also implements
+ * this interface is given a file channel instead of a character stream by
+ * {@link Filer#save}.
+ *
+ * @param <E> The class of elements to write.
+ */
+public interface ChannelWriter<E> {
+
+    /**
+     * Write an element to a file channel.
+     *
+     * @param e       an element to write
+     * @param channel a file channel opened for writing
+     *
+     * @throws IOException When an IOException occurs
+     */
+    void write(E e, FileChannel channel) throws IOException;
+}
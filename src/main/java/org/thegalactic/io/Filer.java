@@ -13,9 +13,12 @@ package org.thegalactic.io;
  */
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 
 /**
  * This class is used to provide a generic way for saving and parsing objects
@@ -71,9 +74,19 @@ public final class Filer<E> {
      * @throws IOException When an IOException occurs
      */
     public void save(final E e, final IOFactory factory, final String filename) throws IOException {
-        final BufferedWriter file = new BufferedWriter(new FileWriter(filename));
-        factory.getWriter(Filer.getExtension(filename)).write(e, file);
-        file.close();
+        final Writer writer = factory.getWriter(Filer.getExtension(filename));
+        if (writer instanceof ChannelWriter) {
+            final FileOutputStream stream = new FileOutputStream(filename);
+            try {
+                ((ChannelWriter) writer).write(e, stream.getChannel());
+            } finally {
+                stream.close();
+            }
+        } else {
+            final BufferedWriter file = new BufferedWriter(new FileWriter(filename));
+            writer.write(e, file);
+            file.close();
+        }
     }
 
     /**
@@ -87,8 +100,19 @@ public final class Filer<E> {
      * @throws IOException When an IOException occurs
      */
     public void parse(final E e, final IOFactory factory, final String filename) throws IOException {
-        final BufferedReader file = new BufferedReader(new FileReader(filename));
-        factory.getReader(Filer.getExtension(filename)).read(e, file);
-        file.close();
+        final Reader reader = factory.getReader(Filer.getExtension(filename));
+        if (reader instanceof ChannelReader) {
+            final RandomAccessFile file = new RandomAccessFile(filename, "r");
+            try {
+                final FileChannel channel = file.getChannel();
+                ((ChannelReader) reader).read(e, channel);
+            } finally {
+                file.close();
+            }
+        } else {
+            final BufferedReader file = new BufferedReader(new FileReader(filename));
+            reader.read(e, file);
+            file.close();
+        }
     }
 }
@@ -0,0 +1,298 @@
+package org.thegalactic.lattice;
+
+/*
+ * CachedClosureSystem.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.thegalactic.util.BitKey;
+import org.thegalactic.util.SymbolTable;
+
+/**
+ * This class gives a closure system memoizing the closures of another one.
+ *
+ * Algorithms such as the computation of the immediate successors of a concept,
+ * of the reducible elements or of the precedence graph compute many times the
+ * closure of the same sets. Wrapping a closure system in this class computes
+ * each closure once, as long as it is kept in the cache.
+ *
+ * Sets are identified in the cache by the packed words of the identifiers of
+ * their elements (see {@link BitKey}). Sets containing an element that does not
+ * belong to the closure system are not cached. The cache is bounded by a
+ * maximal number of closures and by a maximal weight, the weight of a closure
+ * being its number of elements: the least recently used closures are evicted
+ * when a bound is exceeded.
+ *
+ * The cache is cleared as soon as a modification of the wrapped closure system
+ * is detected (see {@link ClosureSystem#getModifications}).
+ *
+ * ![CachedClosureSystem](CachedClosureSystem.png)
+ *
+ * @uml CachedClosureSystem.png
+ * !include resources/org/thegalactic/lattice/CachedClosureSystem.iuml
+ * !include resources/org/thegalactic/lattice/ClosureSystem.iuml
+ *
+ * hide members
+ * show CachedClosureSystem members
+ * ClosureSystem <|-- CachedClosureSystem
+ * class CachedClosureSystem #LightCyan
+ * title CachedClosureSystem UML graph
+ */
+public class CachedClosureSystem extends ClosureSystem {
+
+    /**
+     * Default maximal number of cached closures.
+     */
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    /**
+     * The wrapped closure system.
+     */
+    private final ClosureSystem system;
+
+    /**
+     * The maximal number of cached closures.
+     */
+    private final int capacity;
+
+    /**
+     * The maximal weight of the cached closures.
+     */
+    private final long maxWeight;
+
+    /**
+     * The cached closures, from the least recently used one.
+     */
+    private final LinkedHashMap<BitKey, TreeSet<Comparable>> cache;
+
+    /**
+     * The identifiers of the elements of the wrapped closure system.
+     */
+    private SymbolTable symbols;
+
+    /**
+     * The number of modifications of the wrapped closure system when the cache
+     * was cleared.
+     */
+    private int modifications;
+
+    /**
+     * The weight of the cached closures.
+     */
+    private long weight;
+
+    /**
+     * The number of closures found in the cache.
+     */
+    private long hits;
+
+    /**
+     * The number of closures computed by the wrapped closure system.
+     */
+    private long misses;
+
+    /**
+     * The number of evicted closures.
+     */
+    private long evictions;
+
+    /**
+     * Constructs a cache of {@link #DEFAULT_CAPACITY} closures of the specified
+     * closure system.
+     *
+     * @param system a closure system
+     */
+    public CachedClosureSystem(ClosureSystem system) {
+        this(system, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a cache of at most the specified number of closures of the
+     * specified closure system.
+     *
+     * @param system   a closure system
+     * @param capacity the maximal number of cached closures
+     */
+    public CachedClosureSystem(ClosureSystem system, int capacity) {
+        this(system, capacity, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a cache of at most the specified number of closures of the
+     * specified closure system, whose total number of elements does not exceed
+     * the specified weight.
+     *
+     * @param system    a closure system
+     * @param capacity  the maximal number of cached closures
+     * @param maxWeight the maximal total number of elements of the cached
+     *                  closures
+     *
+     * @throws IllegalArgumentException if a bound is negative
+     */
+    public CachedClosureSystem(ClosureSystem system, int capacity, long maxWeight) {
+        if (capacity < 0 || maxWeight < 0) {
+            throw new IllegalArgumentException("Negative bound of the cache");
+        }
+        this.system = system;
+        this.capacity = capacity;
+        this.maxWeight = maxWeight;
+        this.cache = new LinkedHashMap<BitKey, TreeSet<Comparable>>(16, 0.75f, true);
+        this.clear();
+    }
+
+    /**
+     * Returns the wrapped closure system.
+     *
+     * @return the closure system
+     */
+    public ClosureSystem getSystem() {
+        return this.system;
+    }
+
+    /**
+     * Returns the set of elements of the wrapped closure system.
+     *
+     * @return the set of elements
+     */
+    public SortedSet<Comparable> getSet() {
+        return this.system.getSet();
+    }
+
+    /**
+     * Returns the closure of the specified set, from the cache if possible.
+     *
+     * @param set a set
+     *
+     * @return a new set equal to the closure
+     */
+    public synchronized TreeSet<Comparable> closure(TreeSet<Comparable> set) {
+        if (this.modifications != this.system.getModifications()) {
+            this.clear();
+        }
+        long[] words = this.symbols.toWords(set);
+        if (words == null) {
+            this.misses++;
+            return this.system.closure(set);
+        }
+        BitKey key = new BitKey(words, words.length);
+        TreeSet<Comparable> closure = this.cache.get(key);
+        if (closure != null) {
+            this.hits++;
+        } else {
+            this.misses++;
+            closure = this.system.closure(new TreeSet<Comparable>(set));
+            this.put(key, new TreeSet<Comparable>(closure));
+        }
+        return new TreeSet<Comparable>(closure);
+    }
+
+    /**
+     * Returns the number of modifications of the wrapped closure system.
+     *
+     * @return the number of modifications
+     */
+    @Override
+    public int getModifications() {
+        return this.system.getModifications();
+    }
+
+    /**
+     * Saves the wrapped closure system in the specified file.
+     *
+     * @param file name of file
+     *
+     * @throws IOException When an IOException occurs
+     */
+    public void save(String file) throws IOException {
+        this.system.save(file);
+    }
+
+    /**
+     * Removes all the cached closures, and binds the cache to the current
+     * state of the wrapped closure system.
+     *
+     * Counters are not reset.
+     */
+    public synchronized void clear() {
+        this.cache.clear();
+        this.weight = 0;
+        this.symbols = new SymbolTable(this.system.getSet());
+        this.modifications = this.system.getModifications();
+    }
+
+    /**
+     * Returns the number of cached closures.
+     *
+     * @return the number of cached closures
+     */
+    public synchronized int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Returns the total number of elements of the cached closures.
+     *
+     * @return the weight of the cache
+     */
+    public synchronized long getWeight() {
+        return this.weight;
+    }
+
+    /**
+     * Returns the number of closures found in the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of closures computed by the wrapped closure system.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of closures evicted from the cache to respect its
+     * bounds.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Caches a closure, and evicts the least recently used closures while a
+     * bound is exceeded.
+     *
+     * @param key     the key of a set
+     * @param closure the closure of the set
+     */
+    private void put(BitKey key, TreeSet<Comparable> closure) {
+        this.cache.put(key, closure);
+        this.weight += closure.size();
+        Iterator<Map.Entry<BitKey, TreeSet<Comparable>>> eldest = this.cache.entrySet().iterator();
+        while (this.cache.size() > this.capacity || this.weight > this.maxWeight) {
+            this.weight -= eldest.next().getValue().size();
+            eldest.remove();
+            this.evictions++;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.thegalactic.lattice;
+
+/*
+ * ClosureIterator.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * This class gives a lazy iterator over the closed sets of a closure system,
+ * in the lectic order.
+ *
+ * Closed sets are generated one at a time by the Next Closure algorithm of
+ * Ganter, starting from the closure of the empty set. Only the current closed
+ * set is kept: the iteration runs in constant memory, whatever the number of
+ * closed sets. The iteration stops after the last closed set, i.e. when no
+ * lectically next closed set exists.
+ *
+ * Each closed set is returned as a new concept without extent.
+ *
+ * The closure system must not be modified during the iteration.
+ */
+public class ClosureIterator implements Iterator<Concept> {
+
+    /**
+     * The closure system.
+     */
+    private final ClosureSystem system;
+
+    /**
+     * The elements of the closure system, in decreasing order.
+     */
+    private final Comparable[] elements;
+
+    /**
+     * The next closed set, or null if the iteration is over.
+     */
+    private TreeSet<Comparable> next;
+
+    /**
+     * Constructs an iterator over the closed sets of the specified closure
+     * system.
+     *
+     * @param system a closure system
+     */
+    public ClosureIterator(ClosureSystem system) {
+        this.system = system;
+        SortedSet<Comparable> set = system.getSet();
+        this.elements = new Comparable[set.size()];
+        int i = set.size();
+        for (Comparable element : set) {
+            i--;
+            this.elements[i] = element;
+        }
+        this.next = system.closure(new TreeSet<Comparable>());
+    }
+
+    /**
+     * Tests if there is a next closed set.
+     *
+     * @return true if there is a next closed set
+     */
+    public boolean hasNext() {
+        return this.next != null;
+    }
+
+    /**
+     * Returns the next closed set and computes the following one.
+     *
+     * @return the next closed set
+     */
+    public Concept next() {
+        if (this.next == null) {
+            throw new NoSuchElementException();
+        }
+        Concept concept = new Concept(this.next, false);
+        this.next = this.nextClosure(new TreeSet<Comparable>(this.next));
+        return concept;
+    }
+
+    /**
+     * Closed sets cannot be removed.
+     */
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Computes the lectically next closed set of the specified one.
+     *
+     * @param set a closed set, that is modified by this method
+     *
+     * @return the next closed set, or null if the specified one is the last
+     *         one
+     */
+    private TreeSet<Comparable> nextClosure(TreeSet<Comparable> set) {
+        for (Comparable element : this.elements) {
+            if (!set.remove(element)) {
+                set.add(element);
+                TreeSet<Comparable> closed = this.system.closure(set);
+                set.remove(element);
+                if (this.isCanonical(closed, set, element)) {
+                    return closed;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tests if a closure does not add to a prefix any element smaller than the
+     * specified one.
+     *
+     * @param closed  the closure
+     * @param prefix  the prefix
+     * @param element the added element
+     *
+     * @return true if the closure is the lectically next closed set
+     */
+    private boolean isCanonical(TreeSet<Comparable> closed, TreeSet<Comparable> prefix, Comparable element) {
+        for (Comparable e : closed.headSet(element, false)) {
+            if (!prefix.contains(e)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,97 @@
+package org.thegalactic.lattice;
+
+/*
+ * ClosureOperator.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * This interface defines a closure operator on sets of integer identifiers.
+ *
+ * Each element of a closure system is identified by an integer between 0 and
+ * {@link #size} - 1, and sets of elements are handled as packed words (see
+ * {@link org.thegalactic.util.BitWords}) of {@link #length} words. Such
+ * operators are given by closure systems that can compute closures without
+ * handling sets of comparable objects, and are used by {@link NextClosure} to
+ * enumerate closed sets.
+ *
+ * An operator is bound to the state of its closure system when it was
+ * created. An operator may use internal buffers, and then is not thread-safe.
+ */
+public interface ClosureOperator {
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    int size();
+
+    /**
+     * Returns the number of words of a set of elements.
+     *
+     * @return the number of words
+     */
+    int length();
+
+    /**
+     * Returns a new empty set of elements.
+     *
+     * @return a new array of words
+     */
+    long[] create();
+
+    /**
+     * Computes the closure of a set of elements.
+     *
+     * The result may be the specified set itself.
+     *
+     * @param set    a set of elements
+     * @param result the closure of the set
+     */
+    void closure(long[] set, long[] result);
+
+    /**
+     * Returns the element of the specified identifier.
+     *
+     * @param id an identifier
+     *
+     * @return the element
+     */
+    Comparable getElement(int id);
+
+    /**
+     * Returns the identifier of the specified element.
+     *
+     * @param element an element
+     *
+     * @return the identifier, or -1 if the element is unknown
+     */
+    int indexOf(Comparable element);
+
+    /**
+     * Translates a set of elements to a set of identifiers.
+     *
+     * @param set a set of elements
+     *
+     * @return the words of the set, or null if an element is unknown
+     */
+    long[] toWords(Collection<Comparable> set);
+
+    /**
+     * Translates a set of identifiers to a set of elements.
+     *
+     * @param words the words of a set
+     *
+     * @return the set of elements
+     */
+    TreeSet<Comparable> toSet(long[] words);
+}
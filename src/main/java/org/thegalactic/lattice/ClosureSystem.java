@@ -12,6 +12,7 @@ package org.thegalactic.lattice;
  * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
  */
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
@@ -58,6 +59,11 @@ import org.thegalactic.util.ComparableSet;
  */
 public abstract class ClosureSystem {
 
+    /**
+     * The number of modifications of this component.
+     */
+    private int modifications;
+
     /*
      * ------------- ABSTRACT METHODS ------------------
      */
@@ -139,27 +145,73 @@ public abstract class ClosureSystem {
      * elements, c is the number of closed sets that could be exponential in the
      * worst case, and Cl is the closure computation complexity.
      *
+     * Closed sets are enumerated by {@link #closureIterator}.
+     *
      * @return all the closeds set in the lectically order.
      */
     public Vector<Concept> allClosures() {
         Vector<Concept> allclosure = new Vector<Concept>();
-        // first closure: closure of the empty set
-        allclosure.add(new Concept(this.closure(new ComparableSet()), false));
-        Concept cl = allclosure.firstElement();
-        // next closures in lectically order
-        boolean continu = true;
-        do {
-            cl = this.nextClosure(cl);
-            if (allclosure.contains(cl)) {
-                continu = false;
-            } else {
-                allclosure.add(cl);
-            }
-        } while (continu);
-
+        Iterator<Concept> closures = this.closureIterator();
+        while (closures.hasNext()) {
+            allclosure.add(closures.next());
+        }
         return allclosure;
     }
 
+    /**
+     * Returns a lazy iterator over the closed sets of this component, in the
+     * lectic order.
+     *
+     * Closed sets are generated one at a time by the Next Closure algorithm,
+     * with the emptyset's closure as first closed set, and the iteration stops
+     * after the last closed set. Contrary to {@link #allClosures}, closed sets
+     * are not kept in memory.
+     *
+     * @return an iterator over the closed sets
+     */
+    public Iterator<Concept> closureIterator() {
+        return new ClosureIterator(this);
+    }
+
+    /**
+     * Returns a closure operator on the identifiers of the elements of this
+     * component, or null when closures can only be computed by
+     * {@link #closure}.
+     *
+     * Each call returns a new operator, that can be used by one thread while
+     * other threads use their own operator, as long as this component is not
+     * modified.
+     *
+     * @return a new closure operator, or null
+     */
+    public ClosureOperator closureOperator() {
+        return null;
+    }
+
+    /**
+     * Returns the number of modifications of this component since its
+     * creation.
+     *
+     * Two calls returning the same number ensure that closures have not changed
+     * between them. This allows closures to be cached, see
+     * {@link CachedClosureSystem}.
+     *
+     * @return the number of modifications
+     */
+    public int getModifications() {
+        return this.modifications;
+    }
+
+    /**
+     * Records a modification of this component.
+     *
+     * Each method of an extended class modifying the closures of this
+     * component has to call this method.
+     */
+    protected void modified() {
+        this.modifications++;
+    }
+
     /**
      * Returns the lecticaly next closed set of the specified one.
      *
@@ -19,6 +19,7 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 
 import org.thegalactic.context.Context;
+import org.thegalactic.context.SupportCounter;
 import org.thegalactic.dgraph.DAGraph;
 import org.thegalactic.dgraph.ConcreteDGraph;
 import org.thegalactic.dgraph.Edge;
@@ -509,21 +510,32 @@ public class Concept extends Node {
         TreeSet<Comparable> attributes = (TreeSet<Comparable>) init.getSet().clone();
         attributes.removeAll(this.getSetA());
 
+        SupportCounter counter = new SupportCounter(init);
         boolean add;
         for (Comparable x : attributes) {
             add = true;
-            Iterator it = succB.iterator();
-            while (it.hasNext()) {
-                TreeSet tX = (TreeSet) it.next();
-                TreeSet<Comparable> bx = (TreeSet<Comparable>) this.getSetA().clone();
-                bx.add(x);
+            // count the supports needed for x in one batch
+            ArrayList<TreeSet<Comparable>> batch = new ArrayList<TreeSet<Comparable>>(1 + 2 * succB.size());
+            TreeSet<Comparable> bx = (TreeSet<Comparable>) this.getSetA().clone();
+            bx.add(x);
+            batch.add(bx);
+            for (TreeSet<Comparable> tX : succB) {
                 TreeSet<Comparable> bX = (TreeSet<Comparable>) this.getSetA().clone();
                 bX.addAll(tX);
                 TreeSet<Comparable> bXx = (TreeSet<Comparable>) bX.clone();
                 bXx.add(x);
-                int cBx = count(init, bx);
-                int cBX = count(init, bX);
-                int cBXx = count(init, bXx);
+                batch.add(bX);
+                batch.add(bXx);
+            }
+            int[] supports = counter.supports(batch);
+            int cBx = supports[0];
+            int i = 1;
+            Iterator it = succB.iterator();
+            while (it.hasNext()) {
+                TreeSet tX = (TreeSet) it.next();
+                int cBX = supports[i];
+                int cBXx = supports[i + 1];
+                i += 2;
                 if (cBx == cBX) { // Try to group tests by pairs.
                     if (cBXx == cBx) {
                         it.remove(); // Update present potential successor.
@@ -559,20 +571,6 @@ public class Concept extends Node {
         return succB;
     }
 
-    /**
-     * Returns the number of observations corresponding to the set of attributes
-     * in the init context.
-     *
-     * @param init       initial context from which attributes are count.
-     * @param attributes attributes from which observations are counted.
-     *
-     * @return number of observations corresponding to the set of attributes in
-     *         init context.
-     */
-    private int count(Context init, TreeSet<Comparable> attributes) {
-        return init.getExtentNb(attributes);
-    }
-
     /**
      * Returns the list of immediate successors of a given node of the lattice.
      *
@@ -0,0 +1,218 @@
+package org.thegalactic.lattice;
+
+/*
+ * ConceptIndex.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.HashMap;
+import java.util.Set;
+
+import org.thegalactic.util.BitKey;
+import org.thegalactic.util.SymbolTable;
+
+/**
+ * This class gives a hash index of concepts by their set A and by their set B.
+ *
+ * Keys are the sets of the concepts when they were added, as packed words of
+ * the identifiers of their elements (see {@link BitKey}): elements are interned
+ * in a symbol table of the sets A and a symbol table of the sets B when a
+ * concept is added, so that searching a set only hashes integers. A concept
+ * whose sets are modified in place has to be removed before and added again
+ * after the modification.
+ *
+ * Sets A and sets B are unique in a concept lattice, but not in the reduced
+ * representations of a lattice. When several concepts share a set, only the
+ * first one is indexed by this set, and the number of other ones is counted:
+ * a concept can then only be searched by both its sets when no set is shared.
+ */
+final class ConceptIndex {
+
+    /**
+     * The concepts indexed by their set A.
+     */
+    private final HashMap<BitKey, Concept> intents;
+
+    /**
+     * The concepts indexed by their set B.
+     */
+    private final HashMap<BitKey, Concept> extents;
+
+    /**
+     * The identifiers of the elements of the sets A.
+     */
+    private final SymbolTable intentSymbols;
+
+    /**
+     * The identifiers of the elements of the sets B.
+     */
+    private final SymbolTable extentSymbols;
+
+    /**
+     * The number of added concepts whose set A was already indexed.
+     */
+    private int sharedIntents;
+
+    /**
+     * The number of added concepts whose set B was already indexed.
+     */
+    private int sharedExtents;
+
+    /**
+     * Constructs an empty index.
+     */
+    ConceptIndex() {
+        this.intents = new HashMap<BitKey, Concept>();
+        this.extents = new HashMap<BitKey, Concept>();
+        this.intentSymbols = new SymbolTable();
+        this.extentSymbols = new SymbolTable();
+    }
+
+    /**
+     * Adds a concept to this index.
+     *
+     * @param concept a concept
+     */
+    void add(Concept concept) {
+        if (concept.hasSetA() && !add(this.intents, this.intentSymbols, concept.getSetA(), concept)) {
+            this.sharedIntents++;
+        }
+        if (concept.hasSetB() && !add(this.extents, this.extentSymbols, concept.getSetB(), concept)) {
+            this.sharedExtents++;
+        }
+    }
+
+    /**
+     * Removes a concept from this index, its sets being the ones it had when
+     * it was added.
+     *
+     * @param concept a concept
+     *
+     * @return false if a concept sharing a set with the removed one should now
+     *         be indexed, or if the concept is not indexed by its current sets
+     *         because they have been modified since it was added, i.e. if this
+     *         index has to be rebuilt
+     */
+    boolean remove(Concept concept) {
+        boolean valid = true;
+        if (concept.hasSetA()) {
+            final BitKey key = key(this.intentSymbols, concept.getSetA());
+            if (key != null && this.intents.get(key) == concept) {
+                this.intents.remove(key);
+                valid = this.sharedIntents == 0;
+            } else if (this.sharedIntents > 0) {
+                this.sharedIntents--;
+            } else {
+                valid = false;
+            }
+        }
+        if (concept.hasSetB()) {
+            final BitKey key = key(this.extentSymbols, concept.getSetB());
+            if (key != null && this.extents.get(key) == concept) {
+                this.extents.remove(key);
+                valid = valid && this.sharedExtents == 0;
+            } else if (this.sharedExtents > 0) {
+                this.sharedExtents--;
+            } else {
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Returns the indexed concept of the specified set A.
+     *
+     * @param setA a set A
+     *
+     * @return the concept, or null if no concept of this set A is indexed
+     */
+    Concept getByIntent(Set<Comparable> setA) {
+        return get(this.intents, this.intentSymbols, setA);
+    }
+
+    /**
+     * Returns the indexed concept of the specified set B.
+     *
+     * @param setB a set B
+     *
+     * @return the concept, or null if no concept of this set B is indexed
+     */
+    Concept getByExtent(Set<Comparable> setB) {
+        return get(this.extents, this.extentSymbols, setB);
+    }
+
+    /**
+     * Tests if every concept of this index is indexed by its set A and by its
+     * set B, i.e. if no set is shared by several concepts.
+     *
+     * @return true if no set is shared
+     */
+    boolean isUnique() {
+        return this.sharedIntents == 0 && this.sharedExtents == 0;
+    }
+
+    /**
+     * Returns the key of the specified set.
+     *
+     * @param symbols the identifiers of the elements
+     * @param set     a set
+     *
+     * @return the key of the set, or null if an element of the set has no
+     *         identifier, i.e. if no concept is indexed by this set
+     */
+    private static BitKey key(SymbolTable symbols, Set<Comparable> set) {
+        final long[] words = symbols.toWords(set);
+        if (words == null) {
+            return null;
+        }
+        return new BitKey(words, words.length);
+    }
+
+    /**
+     * Returns the concept indexed by the specified set.
+     *
+     * @param map     a map of concepts
+     * @param symbols the identifiers of the elements
+     * @param set     a set
+     *
+     * @return the concept, or null if no concept is indexed by this set
+     */
+    private static Concept get(HashMap<BitKey, Concept> map, SymbolTable symbols, Set<Comparable> set) {
+        final BitKey key = key(symbols, set);
+        if (key == null) {
+            return null;
+        }
+        return map.get(key);
+    }
+
+    /**
+     * Indexes a concept by the specified set, if the set is not already
+     * indexed.
+     *
+     * The elements of the set are interned first.
+     *
+     * @param map     a map of concepts
+     * @param symbols the identifiers of the elements
+     * @param set     a set of the concept
+     * @param concept a concept
+     *
+     * @return false if the set is already indexed
+     */
+    private static boolean add(HashMap<BitKey, Concept> map, SymbolTable symbols, Set<Comparable> set, Concept concept) {
+        for (Comparable element : set) {
+            symbols.intern(element);
+        }
+        final BitKey key = key(symbols, set);
+        if (map.containsKey(key)) {
+            return false;
+        }
+        map.put(key, concept);
+        return true;
+    }
+}
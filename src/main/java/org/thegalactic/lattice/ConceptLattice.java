@@ -11,15 +11,35 @@ package org.thegalactic.lattice;
  * This file is part of java-lattices.
  * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
  */
+import org.thegalactic.context.ConceptMiner;
 import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextClosure;
+import org.thegalactic.context.FastCloseByOne;
+import org.thegalactic.context.FrequentClosedMiner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Vector;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import org.thegalactic.util.BitKey;
+import org.thegalactic.util.BitWords;
 import org.thegalactic.util.ComparableSet;
+import org.thegalactic.util.SymbolTable;
 import org.thegalactic.dgraph.DAGraph;
 import org.thegalactic.dgraph.ConcreteDGraph;
 import org.thegalactic.dgraph.Edge;
@@ -44,7 +64,9 @@ import org.thegalactic.lattice.io.ConceptLatticeIOFactory;
  * of the lattice are encoded. The second static method computes the
  * transitively closure of the lattice as the inclusion relation defined on all
  * the closures generated by method {@link ClosureSystem#allClosures} that
- * implements the well-known Wille algorithm.
+ * implements the well-known Wille algorithm. The concept lattice of a context
+ * can also be generated by method {@link #closeByOneLattice}, that enumerates
+ * the concepts with the Fast Close-by-One algorithm.
  *
  * ![ConceptLattice](ConceptLattice.png)
  *
@@ -64,6 +86,12 @@ import org.thegalactic.lattice.io.ConceptLatticeIOFactory;
  */
 public class ConceptLattice extends Lattice {
 
+    /**
+     * The index of the concepts of this component by their set A and their
+     * set B, or null when it has to be built.
+     */
+    private ConceptIndex index;
+
     /**
      * Generate the lattice composed of all the antichains of this component
      * ordered with the inclusion relation.
@@ -126,31 +154,129 @@ public class ConceptLattice extends Lattice {
      * system (ImplicationalSystem) or a context.
      *
      * The lattice is generated using the well-known Next Closure algorithm. All
-     * closures are first generated using the method:
-     * {@link ClosureSystem#allClosures} that implements the well-known Next
-     * Closure algorithm. Then, all concepts are ordered by inclusion.
+     * closures are first enumerated using the method:
+     * {@link ClosureSystem#closureIterator} that implements the well-known Next
+     * Closure algorithm. Then, all concepts are ordered by inclusion (see
+     * {@link #completeLattice(ClosureSystem, boolean)}).
      *
      * @param init a closure system (an ImplicationalSystem or a Context)
      *
      * @return a concept lattice
      */
     public static ConceptLattice completeLattice(ClosureSystem init) {
+        return completeLattice(init, false);
+    }
+
+    /**
+     * Generates and returns the closed set lattice of the specified closure
+     * system, either complete (i.e. reflexively and transitively closed) or
+     * reduced to its Hasse diagram.
+     *
+     * All closures are first enumerated using the method:
+     * {@link ClosureSystem#closureIterator}. When the closure system provides
+     * a closure operator (see {@link ClosureSystem#closureOperator}), the Hasse
+     * diagram is computed by the neighbours algorithm of Lindig on bitset
+     * intents (see {@link UpperCovers}): the upper covers of each closed set
+     * are obtained by at most |S| closures, and are searched in a hash map of
+     * the closed sets. The complete lattice is then obtained by linking each
+     * closed set to each closed set reachable from it in the diagram.
+     * Otherwise, all closed sets are ordered by inclusion, and the diagram is
+     * obtained by a transitive reduction.
+     *
+     * @param init    a closure system (an ImplicationalSystem or a Context)
+     * @param diagram true to skip the transitive edges
+     *
+     * @return a concept lattice
+     */
+    public static ConceptLattice completeLattice(ClosureSystem init, boolean diagram) {
         ConceptLattice lattice = new ConceptLattice();
-        // compute all the closed set with allClosures
-        Vector<Concept> allclosure = init.allClosures();
-        for (Concept cl : allclosure) {
-            lattice.addNode(cl);
+        // enumerate all the closed sets in the lectic order
+        Iterator<Concept> closures = init.closureIterator();
+        while (closures.hasNext()) {
+            lattice.addNode(closures.next());
         }
+        lattice.order(init.closureOperator(), diagram);
+        return lattice;
+    }
 
-        // an edge corresponds to an inclusion between two closed sets
-        for (Object source : lattice.getNodes()) {
-            for (Object target : lattice.getNodes()) {
-                if (((Concept) target).containsAllInA(((Concept) source).getSetA())) {
-                    lattice.addEdge((Node) source, (Node) target);
-                }
-            }
+    /**
+     * Generates and returns the complete (i.e. transitively closed) concept
+     * lattice of the specified context.
+     *
+     * All concepts are first enumerated, with both their intent and their
+     * extent, using the Fast Close-by-One algorithm implemented by
+     * {@link FastCloseByOne}: each concept is computed once, and failed
+     * canonicity tests are inherited to avoid redundant closures. Then, the
+     * Hasse diagram is computed from the upper covers of each concept, and
+     * transitively closed (see {@link #completeLattice(ClosureSystem, boolean)}).
+     *
+     * @param init a context
+     *
+     * @return a concept lattice
+     */
+    public static ConceptLattice closeByOneLattice(Context init) {
+        return closeByOneLattice(init, 1);
+    }
+
+    /**
+     * Generates and returns the complete (i.e. transitively closed) concept
+     * lattice of the specified context, enumerating the concepts in parallel.
+     *
+     * The search tree of the Fast Close-by-One algorithm is split into
+     * fork/join tasks (see {@link FastCloseByOne#setParallelism}). The
+     * concepts do not depend on the parallelism, only the order in which
+     * they are added to the lattice does.
+     *
+     * @param init        a context
+     * @param parallelism the number of threads
+     *
+     * @return a concept lattice
+     */
+    public static ConceptLattice closeByOneLattice(Context init, int parallelism) {
+        FastCloseByOne engine = new FastCloseByOne(init);
+        engine.setParallelism(parallelism);
+        ConceptLattice lattice = new ConceptLattice();
+        for (Concept concept : engine.concepts()) {
+            lattice.addNode(concept);
         }
-        // Hasse diagram is computed
+        lattice.order(new ContextClosure(init), false);
+        return lattice;
+    }
+
+    /**
+     * Generates and returns the complete (i.e. transitively closed) concept
+     * lattice of the concepts enumerated by the specified miner.
+     *
+     * @param miner a concept miner
+     *
+     * @return a concept lattice
+     */
+    public static ConceptLattice completeLattice(ConceptMiner miner) {
+        return completeLattice(miner, false);
+    }
+
+    /**
+     * Generates and returns the concept lattice of the concepts enumerated by
+     * the specified miner, or its Hasse diagram.
+     *
+     * All concepts are first enumerated, with both their intent and their
+     * extent, by the miner, e.g. {@link FastCloseByOne} or
+     * {@link org.thegalactic.context.InClose}. Then, the Hasse diagram is
+     * computed from the upper covers of each concept, given by the closure
+     * operator of the miner, and transitively closed unless only the diagram
+     * is required (see {@link #completeLattice(ClosureSystem, boolean)}).
+     *
+     * @param miner   a concept miner
+     * @param diagram true to skip the transitive edges
+     *
+     * @return a concept lattice
+     */
+    public static ConceptLattice completeLattice(ConceptMiner miner, boolean diagram) {
+        ConceptLattice lattice = new ConceptLattice();
+        for (Concept concept : miner.concepts()) {
+            lattice.addNode(concept);
+        }
+        lattice.order(miner.closureOperator(), diagram);
         return lattice;
     }
 
@@ -177,29 +303,30 @@ public class ConceptLattice extends Lattice {
      * @return a concept lattice
      */
     public static ConceptLattice diagramLattice(ClosureSystem init) {
+        return diagramLattice(init, 1);
+    }
+
+    /**
+     * Generates and returns the Hasse diagram of the closed set lattice of the
+     * specified closure system, expanding the immediate successors of pending
+     * closed sets with the specified number of threads.
+     *
+     * Closed sets are generated from an explicit worklist instead of a
+     * recursion (see {@link #recursiveDiagramLattice}), and the dependance
+     * graph of the lattice is computed as by {@link #diagramLattice}.
+     *
+     * @param init        a closure system (an ImplicationalSystem or a Context)
+     * @param parallelism the number of threads, 1 for a sequential generation
+     *
+     * @return a concept lattice
+     */
+    public static ConceptLattice diagramLattice(ClosureSystem init, int parallelism) {
         ConceptLattice lattice = new ConceptLattice();
-        //if (Diagram) {
-        // computes the dependance graph of the closure system
-        // addition of nodes in the precedence graph
-        ConcreteDGraph graph = new ConcreteDGraph();
-        for (Comparable c : init.getSet()) {
-            graph.addNode(new Node(c));
-        }
-        lattice.setDependencyGraph(graph);
         // intialize the close set lattice with botom element
         Concept bot = new Concept(init.closure(new ComparableSet()), false);
         lattice.addNode(bot);
-        // recursive genaration from the botom element with diagramLattice
-        lattice.recursiveDiagramLattice(bot, init);
-        // minimalisation of edge's content to get only inclusion-minimal valuation for each edge
-        /**
-         * for (Edge ed : lattice.dependanceGraph.getEdges()) {
-         * TreeSet<ComparableSet> valEd = new
-         * TreeSet<ComparableSet>(((TreeSet<ComparableSet>)ed.getContent()));
-         * for (ComparableSet X1 : valEd) for (ComparableSet X2 : valEd) if
-         * (X1.containsAll(X2) && !X2.containsAll(X1))
-         * ((TreeSet<ComparableSet>)ed.getContent()).remove(X1); }*
-         */
+        // generation from the botom element, the dependance graph being computed at the same time
+        lattice.diagram(bot, init, null, 0, parallelism);
         return lattice;
     }
 
@@ -228,23 +355,150 @@ public class ConceptLattice extends Lattice {
      * @return a concept iceberg
      */
     public static ConceptLattice diagramIceberg(Context init, double support) {
+        return diagramIceberg(init, support, 1);
+    }
+
+    /**
+     * Generates and returns the Hasse diagram of the closed set iceberg of the
+     * specified context, expanding the immediate successors of pending closed
+     * sets with the specified number of threads.
+     *
+     * @param init        a context
+     * @param support     a support value, between 0 and 1.
+     * @param parallelism the number of threads, 1 for a sequential generation
+     *
+     * @return a concept iceberg
+     */
+    public static ConceptLattice diagramIceberg(Context init, double support, int parallelism) {
         ConceptLattice lattice = new ConceptLattice();
-        // computes the dependance graph of the closure system
-        // addition of nodes in the precedence graph
-        ConcreteDGraph graph = new ConcreteDGraph();
-        for (Comparable c : init.getSet()) {
-            graph.addNode(new Node(c));
-        }
-        lattice.setDependencyGraph(graph);
         // intialize the close set lattice with bottom element
         Concept bot = new Concept(init.closure(new ComparableSet()), false);
         lattice.addNode(bot);
         int threshold = (int) (support * init.getExtent(bot.getSetA()).size());
-        // recursive genaration from the botom element with diagramLattice
-        lattice.recursiveDiagramIceberg(bot, init, threshold);
+        // generation from the botom element, keeping closed sets whose support reaches the threshold
+        lattice.diagram(bot, init, init, threshold, parallelism);
+        return lattice;
+    }
+
+    /**
+     * Generates and returns the Hasse diagram of the closed set iceberg of the
+     * specified context.
+     *
+     * The frequent closed sets are enumerated with their extent by the LCM
+     * algorithm implemented by {@link FrequentClosedMiner}, that never closes
+     * an infrequent set. The Hasse diagram is then computed by the neighbours
+     * algorithm of Lindig (see {@link UpperCovers}): the upper covers of a
+     * frequent closed set in the lattice are frequent when they belong to the
+     * iceberg. The bottom closed set is part of the iceberg, whatever its
+     * support, as in {@link #diagramIceberg}.
+     *
+     * Unlike {@link #diagramIceberg}, the dependency graph is not computed.
+     *
+     * @param init    a context
+     * @param support a support value, between 0 and 1.
+     *
+     * @return a concept iceberg
+     */
+    public static ConceptLattice frequentIceberg(Context init, double support) {
+        int threshold = (int) (support * init.getObservations().size());
+        ConceptLattice lattice = new ConceptLattice();
+        for (Concept concept : new FrequentClosedMiner(init, threshold).concepts()) {
+            lattice.addNode(concept);
+        }
+        lattice.addCoverEdges(new ContextClosure(init));
         return lattice;
     }
 
+    /**
+     * Orders the concepts of this component, that has no edges, by inclusion
+     * of their sets A.
+     *
+     * @param operator the closure operator on the sets A of the concepts, or
+     *                 null to compare every pair of concepts
+     * @param diagram  true to add only the edges of the Hasse diagram, false to
+     *                 add an edge between each pair of ordered concepts
+     */
+    private void order(ClosureOperator operator, boolean diagram) {
+        if (operator == null) {
+            this.addInclusionEdges();
+            if (diagram) {
+                this.reflexiveReduction();
+                this.transitiveReduction();
+            }
+        } else {
+            this.addCoverEdges(operator);
+            if (!diagram) {
+                this.addTransitiveEdges();
+            }
+        }
+    }
+
+    /**
+     * Adds an edge from each concept to itself and to each concept reachable
+     * from it, this component being the Hasse diagram of a lattice.
+     */
+    private void addTransitiveEdges() {
+        HashMap<Node, List<Node>> reachable = new HashMap<Node, List<Node>>();
+        for (Object node : this.getNodes()) {
+            List<Node> reached = new ArrayList<Node>();
+            HashSet<Node> visited = new HashSet<Node>();
+            LinkedList<Node> pending = new LinkedList<Node>();
+            pending.add((Node) node);
+            visited.add((Node) node);
+            while (!pending.isEmpty()) {
+                Node current = pending.poll();
+                reached.add(current);
+                for (Object successor : this.getSuccessorNodes(current)) {
+                    if (visited.add((Node) successor)) {
+                        pending.add((Node) successor);
+                    }
+                }
+            }
+            reachable.put((Node) node, reached);
+        }
+        for (Map.Entry<Node, List<Node>> entry : reachable.entrySet()) {
+            for (Node target : entry.getValue()) {
+                this.addEdge(entry.getKey(), target);
+            }
+        }
+    }
+
+    /**
+     * Adds an edge between each pair of concepts whose sets A are included one
+     * in the other.
+     */
+    private void addInclusionEdges() {
+        for (Object source : this.getNodes()) {
+            for (Object target : this.getNodes()) {
+                if (((Concept) target).containsAllInA(((Concept) source).getSetA())) {
+                    this.addEdge((Node) source, (Node) target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an edge between each concept and its upper covers that belong to
+     * this component.
+     *
+     * @param operator the closure operator on the sets A of the concepts
+     */
+    private void addCoverEdges(ClosureOperator operator) {
+        HashMap<BitKey, Node> nodes = new HashMap<BitKey, Node>();
+        for (Object node : this.getNodes()) {
+            nodes.put(new BitKey(operator.toWords(((Concept) node).getSetA()), operator.length()), (Node) node);
+        }
+        UpperCovers covers = new UpperCovers(operator);
+        for (Map.Entry<BitKey, Node> entry : nodes.entrySet()) {
+            for (long[] cover : covers.covers(entry.getKey().getWords())) {
+                Node target = nodes.get(new BitKey(cover, operator.length()));
+                if (target != null) {
+                    this.addEdge(entry.getValue(), target);
+                }
+            }
+        }
+    }
+
     /*
      * ------------- CONSTRUCTORS ------------------
      */
@@ -384,15 +638,30 @@ public class ConceptLattice extends Lattice {
     /**
      * Returns concept defined by setA and setB; null if not found.
      *
+     * Concepts are searched in a hash index, see {@link #getConceptByIntent}.
+     * Concepts are only scanned when several concepts share a set A or a set
+     * B, as in the reduced representations of a lattice.
+     *
      * @param setA intent of the concept to find
      * @param setB extent of the concept to find
      *
      * @return concept defined by setA and setB; null if not found.
      */
     public Concept getConcept(ComparableSet setA, ComparableSet setB) {
-        SortedSet<Node> setNodes = this.getNodes();
-        Concept cpt = null;
-        for (Node node : setNodes) {
+        Concept cpt = this.indexedByIntent(setA);
+        if (cpt != null && setB.equals(cpt.getSetB())) {
+            return cpt;
+        }
+        cpt = this.indexedByExtent(setB);
+        if (cpt != null && setA.equals(cpt.getSetA())) {
+            return cpt;
+        }
+        if (this.index().isUnique()) {
+            return null;
+        }
+        // several concepts share a set A or a set B
+        cpt = null;
+        for (Object node : this.getNodes()) {
             if ((setA.equals(((Concept) node).getSetA())) && (setB.equals(((Concept) node).getSetB()))) {
                 cpt = (Concept) node;
             }
@@ -400,6 +669,133 @@ public class ConceptLattice extends Lattice {
         return cpt;
     }
 
+    /**
+     * Returns a concept of this component whose set A is the specified one.
+     *
+     * Concepts are searched in a hash index, maintained when concepts are
+     * added or removed, and when their sets are modified by the methods of
+     * this component. When the sets of a concept of this component are
+     * modified by the methods of the concept, {@link #reindex} has to be
+     * called before the concept can be searched by its new sets.
+     *
+     * @param setA a set A
+     *
+     * @return a concept of this set A; null if not found
+     */
+    public Concept getConceptByIntent(SortedSet<Comparable> setA) {
+        return this.indexedByIntent(setA);
+    }
+
+    /**
+     * Returns a concept of this component whose set B is the specified one.
+     *
+     * Concepts are searched in a hash index, see {@link #getConceptByIntent}.
+     *
+     * @param setB a set B
+     *
+     * @return a concept of this set B; null if not found
+     */
+    public Concept getConceptByExtent(SortedSet<Comparable> setB) {
+        return this.indexedByExtent(setB);
+    }
+
+    /**
+     * Rebuilds the index of the concepts of this component by their sets.
+     *
+     * This method has to be called after the sets of concepts of this
+     * component have been modified by the methods of the concepts, e.g.
+     * {@link Concept#putSetA} or {@link Concept#addToB}. Modifications made by
+     * the methods of this component keep the index up to date.
+     */
+    public void reindex() {
+        this.index = null;
+    }
+
+    /**
+     * Returns the concept of the specified set A in the index of the concepts.
+     *
+     * A concept found in the index is checked against its current set A: the
+     * index is rebuilt when the concept has been modified or removed outside
+     * this component.
+     *
+     * @param setA a set A
+     *
+     * @return the indexed concept of this set A; null if not indexed
+     */
+    private Concept indexedByIntent(SortedSet<Comparable> setA) {
+        Concept cpt = this.index().getByIntent(setA);
+        if (cpt != null && !(setA.equals(cpt.getSetA()) && this.containsNode(cpt))) {
+            this.index = null;
+            cpt = this.index().getByIntent(setA);
+        }
+        return cpt;
+    }
+
+    /**
+     * Returns the concept of the specified set B in the index of the concepts.
+     *
+     * A concept found in the index is checked against its current set B: the
+     * index is rebuilt when the concept has been modified or removed outside
+     * this component.
+     *
+     * @param setB a set B
+     *
+     * @return the indexed concept of this set B; null if not indexed
+     */
+    private Concept indexedByExtent(SortedSet<Comparable> setB) {
+        Concept cpt = this.index().getByExtent(setB);
+        if (cpt != null && !(setB.equals(cpt.getSetB()) && this.containsNode(cpt))) {
+            this.index = null;
+            cpt = this.index().getByExtent(setB);
+        }
+        return cpt;
+    }
+
+    /**
+     * Returns the index of the concepts of this component, building it if
+     * needed.
+     *
+     * @return the index of the concepts
+     */
+    private ConceptIndex index() {
+        if (this.index == null) {
+            ConceptIndex conceptIndex = new ConceptIndex();
+            for (Object node : this.getNodes()) {
+                conceptIndex.add((Concept) node);
+            }
+            this.index = conceptIndex;
+        }
+        return this.index;
+    }
+
+    /**
+     * Adds an added concept to the index of the concepts, when it is built.
+     *
+     * @param node the added concept
+     */
+    @Override
+    protected void nodeAdded(Node node) {
+        if (this.index != null) {
+            this.index.add((Concept) node);
+        }
+    }
+
+    /**
+     * Removes a removed concept from the index of the concepts, when it is
+     * built.
+     *
+     * This method must also be invoked before the sets of a concept are
+     * modified in place, {@link #nodeAdded} being invoked after.
+     *
+     * @param node the removed concept
+     */
+    @Override
+    protected void nodeRemoved(Node node) {
+        if (this.index != null && !this.index.remove((Concept) node)) {
+            this.index = null;
+        }
+    }
+
     /**
      * Replace set A in each concept of the lattice with the null value.
      *
@@ -408,6 +804,7 @@ public class ConceptLattice extends Lattice {
      * @todo Comment the return
      */
     public boolean removeAllSetA() {
+        this.index = null;
         if (!this.containsConcepts()) {
             return false;
         }
@@ -426,6 +823,7 @@ public class ConceptLattice extends Lattice {
      * @todo Comment the return
      */
     public boolean removeAllSetB() {
+        this.index = null;
         if (!this.containsConcepts()) {
             return false;
         }
@@ -445,6 +843,7 @@ public class ConceptLattice extends Lattice {
      * @todo Comment the return
      */
     public boolean initialiseSetAForJoin() {
+        this.index = null;
         if (!this.containsConcepts()) {
             return false;
         }
@@ -469,6 +868,7 @@ public class ConceptLattice extends Lattice {
      * @todo Comment the return
      */
     public boolean initialiseSetBForMeet() {
+        this.index = null;
         if (!this.containsConcepts()) {
             return false;
         }
@@ -498,6 +898,7 @@ public class ConceptLattice extends Lattice {
      * @todo Comment the return
      */
     public boolean makeInclusionReduction() {
+        this.index = null;
         if (!this.containsConcepts()) {
             return false;
         }
@@ -548,6 +949,7 @@ public class ConceptLattice extends Lattice {
      * @todo Comment the return
      */
     public boolean makeIrreduciblesReduction() {
+        this.index = null;
         // make inclusion reduction
         if (this.makeInclusionReduction()) {
             // check if not set A reduced concepts are join irreducibles
@@ -593,6 +995,285 @@ public class ConceptLattice extends Lattice {
         return true;
     }
 
+    /*
+     * --------------- INCREMENTAL UPDATE METHODS ------------
+     */
+    /**
+     * Inserts a new observation with its intent into this component, that must
+     * be the Hasse diagram of a concept lattice.
+     *
+     * Concepts and edges are updated in place by the AddIntent algorithm of
+     * van der Merwe, Obiedkov and Kourie. The concept of the intent is searched
+     * from the greatest set A, going down while the set A of a predecessor
+     * still contains the intent. When it does not exist, it is created, after
+     * the intersections of the intent with the sets A of the predecessors have
+     * been recursively added; its predecessors are the maximal ones among these
+     * intersection concepts. Finally, the observation is added to the set B of
+     * the concept of its intent and of all its predecessors.
+     *
+     * Only the concepts whose set A is included in the intent are visited and
+     * updated. When the intent contains elements that do not belong to the
+     * greatest set A, this set is extended if its set B is empty, otherwise a
+     * new greatest concept is added.
+     *
+     * @param observation a new observation
+     * @param intent      the intent of the observation
+     *
+     * @return the concept of the intent of the observation
+     */
+    public Concept addObservation(Comparable observation, SortedSet<Comparable> intent) {
+        ComparableSet setA = new ComparableSet(intent);
+        Concept greatest = (Concept) this.top();
+        if (greatest == null) {
+            greatest = new Concept(setA, new ComparableSet());
+            this.addNode(greatest);
+        } else if (!greatest.containsAllInA(setA)) {
+            if (greatest.hasSetB() && greatest.getSetB().isEmpty()) {
+                this.nodeRemoved(greatest);
+                greatest.addAllToA(setA);
+                this.nodeAdded(greatest);
+            } else {
+                Concept concept = new Concept(new ComparableSet(greatest.getSetA()), new ComparableSet());
+                concept.addAllToA(setA);
+                this.addNode(concept);
+                this.addEdge(greatest, concept);
+                greatest = concept;
+            }
+        }
+        Concept concept = this.addIntent(setA, greatest);
+        // the observation belongs to the extent of the concept and of its predecessors
+        LinkedList<Node> pending = new LinkedList<Node>();
+        HashSet<Node> visited = new HashSet<Node>();
+        pending.add(concept);
+        visited.add(concept);
+        while (!pending.isEmpty()) {
+            Concept current = (Concept) pending.poll();
+            if (current.hasSetB()) {
+                this.nodeRemoved(current);
+                current.addToB(observation);
+                this.nodeAdded(current);
+            }
+            for (Object predecessor : this.getPredecessorNodes(current)) {
+                if (visited.add((Node) predecessor)) {
+                    pending.add((Node) predecessor);
+                }
+            }
+        }
+        return concept;
+    }
+
+    /**
+     * Removes an observation with its intent from this component, that must be
+     * the Hasse diagram of a concept lattice.
+     *
+     * The observation is removed from the set B of the concept of its intent
+     * and of all its predecessors. Among these concepts, those whose set B
+     * becomes the set B of one of their successors are no longer closed: they
+     * are merged into this successor by removing them, their predecessors
+     * being linked to their successors when no other concept lies in between.
+     *
+     * Only the concepts whose set A is included in the intent are visited and
+     * updated.
+     *
+     * @param observation an observation of this component
+     * @param intent      the intent of the observation
+     *
+     * @return true if the observation has been removed
+     */
+    public boolean removeObservation(Comparable observation, SortedSet<Comparable> intent) {
+        ComparableSet setA = new ComparableSet(intent);
+        Concept greatest = (Concept) this.top();
+        if (greatest == null || !greatest.containsAllInA(setA)) {
+            return false;
+        }
+        Concept concept = this.maximalConcept(setA, greatest);
+        if (!concept.hasSetB() || !concept.containsInB(observation)) {
+            return false;
+        }
+        List<Concept> updated = new ArrayList<Concept>();
+        LinkedList<Node> pending = new LinkedList<Node>();
+        HashSet<Node> visited = new HashSet<Node>();
+        pending.add(concept);
+        visited.add(concept);
+        while (!pending.isEmpty()) {
+            Concept current = (Concept) pending.poll();
+            this.nodeRemoved(current);
+            current.removeFromB(observation);
+            this.nodeAdded(current);
+            updated.add(current);
+            for (Object predecessor : this.getPredecessorNodes(current)) {
+                if (visited.add((Node) predecessor)) {
+                    pending.add((Node) predecessor);
+                }
+            }
+        }
+        // a concept with the same set B as a successor is no longer closed
+        List<Concept> merged = new ArrayList<Concept>();
+        for (Concept current : updated) {
+            for (Object successor : this.getSuccessorNodes(current)) {
+                if (((Concept) successor).getSetB().size() == current.getSetB().size()) {
+                    merged.add(current);
+                    break;
+                }
+            }
+        }
+        for (Concept current : merged) {
+            this.removeConcept(current);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the intent of an observation of this component, that must be
+     * the Hasse diagram of a concept lattice.
+     *
+     * This treatment reflects the addition or the removal of cells of the
+     * context in the row of the observation: the observation is removed with
+     * its former intent (see {@link #removeObservation}), and added back with
+     * its new intent (see {@link #addObservation}).
+     *
+     * @param observation an observation of this component
+     * @param former      the former intent of the observation
+     * @param intent      the new intent of the observation
+     *
+     * @return the concept of the new intent of the observation, or null if the
+     *         observation has not been found
+     */
+    public Concept updateObservation(Comparable observation, SortedSet<Comparable> former,
+            SortedSet<Comparable> intent) {
+        if (!this.removeObservation(observation, former)) {
+            return null;
+        }
+        return this.addObservation(observation, intent);
+    }
+
+    /**
+     * Removes a concept from the Hasse diagram, and links each of its
+     * predecessors to each of its successors that is not above another
+     * successor of the predecessor.
+     *
+     * @param concept a concept of this component
+     */
+    private void removeConcept(Concept concept) {
+        List<Concept> predecessors = new ArrayList<Concept>();
+        for (Object predecessor : this.getPredecessorNodes(concept)) {
+            predecessors.add((Concept) predecessor);
+        }
+        List<Concept> successors = new ArrayList<Concept>();
+        for (Object successor : this.getSuccessorNodes(concept)) {
+            successors.add((Concept) successor);
+        }
+        // smaller successors first, so that they prevent edges to greater ones
+        Collections.sort(successors, new Comparator<Concept>() {
+            /**
+             * Compares two concepts by the size of their set A.
+             *
+             * @param concept1 a concept
+             * @param concept2 a concept
+             *
+             * @return a negative integer if the first set A is smaller
+             */
+            public int compare(Concept concept1, Concept concept2) {
+                return concept1.getSetA().size() - concept2.getSetA().size();
+            }
+        });
+        this.removeNode(concept);
+        for (Concept predecessor : predecessors) {
+            for (Concept successor : successors) {
+                boolean cover = true;
+                for (Object other : this.getSuccessorNodes(predecessor)) {
+                    if (other != successor && successor.containsAllInA(((Concept) other).getSetA())) {
+                        cover = false;
+                        break;
+                    }
+                }
+                if (cover) {
+                    this.addEdge(predecessor, successor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the concept of the specified intent, adding it if needed with
+     * the concepts of its intersections with the sets A of the predecessors
+     * of the generator.
+     *
+     * @param intent    an intent
+     * @param generator a concept whose set A contains the intent
+     *
+     * @return the concept of the intent
+     */
+    private Concept addIntent(ComparableSet intent, Concept generator) {
+        Concept existing = this.getConceptByIntent(intent);
+        if (existing != null) {
+            return existing;
+        }
+        Concept maximal = this.maximalConcept(intent, generator);
+        if (maximal.getSetA().size() == intent.size()) {
+            return maximal;
+        }
+        List<Concept> parents = new ArrayList<Concept>();
+        for (Object predecessor : new ArrayList<Object>(this.getPredecessorNodes(maximal))) {
+            Concept candidate = (Concept) predecessor;
+            if (!intent.containsAll(candidate.getSetA())) {
+                ComparableSet meet = new ComparableSet(candidate.getSetA());
+                meet.retainAll(intent);
+                candidate = this.addIntent(meet, candidate);
+            }
+            boolean add = true;
+            Iterator<Concept> iterator = parents.iterator();
+            while (iterator.hasNext()) {
+                Concept parent = iterator.next();
+                if (parent.containsAllInA(candidate.getSetA())) {
+                    add = false;
+                    break;
+                } else if (candidate.containsAllInA(parent.getSetA())) {
+                    iterator.remove();
+                }
+            }
+            if (add) {
+                parents.add(candidate);
+            }
+        }
+        Concept concept = new Concept(intent, false);
+        if (maximal.hasSetB()) {
+            concept.putSetB(new ComparableSet(maximal.getSetB()));
+        }
+        this.addNode(concept);
+        for (Concept parent : parents) {
+            this.removeEdge(parent, maximal);
+            this.addEdge(parent, concept);
+        }
+        this.addEdge(concept, maximal);
+        return concept;
+    }
+
+    /**
+     * Returns the concept with the smallest set A containing the specified
+     * intent, searched from the generator through its predecessors.
+     *
+     * @param intent    an intent
+     * @param generator a concept whose set A contains the intent
+     *
+     * @return the concept with the smallest set A containing the intent
+     */
+    private Concept maximalConcept(ComparableSet intent, Concept generator) {
+        Concept concept = generator;
+        boolean found = true;
+        while (found) {
+            found = false;
+            for (Object predecessor : this.getPredecessorNodes(concept)) {
+                if (((Concept) predecessor).containsAllInA(intent)) {
+                    concept = (Concept) predecessor;
+                    found = true;
+                    break;
+                }
+            }
+        }
+        return concept;
+    }
+
     /*
      * --------------- LATTICE GENERATION METHODS ------------
      */
@@ -799,59 +1480,171 @@ public class ConceptLattice extends Lattice {
      * in the worst case, Cl is the closure computation complexity and g is the
      * number of minimal generators of the lattice.
      *
+     * Despite its name, this treatment is not recursive: closed sets are
+     * generated from an explicit worklist.
+     *
      * @param n    a concept
      * @param init a closure system
      */
     public void recursiveDiagramLattice(Concept n, ClosureSystem init) {
-        Vector<TreeSet<Comparable>> immSucc = this.immediateSuccessors(n, init);
-        for (TreeSet<Comparable> setX : immSucc) {
-            Concept c = new Concept(new TreeSet(setX), false);
-            Concept ns = (Concept) this.getNode(c);
-            if (ns != null) {
-                // when ns already exists, addition of a new edge
-                this.addEdge(n, ns);
-            } else { // when ns don't already exists, addition of a new node and recursive treatment
-                this.addNode(c);
-                this.addEdge(n, c);
-                this.recursiveDiagramLattice(c, init);
+        this.diagram(n, init, null, 0, 1);
+    }
+
+    /**
+     * Generates the Hasse diagram of the closed set lattice, or of the closed
+     * set iceberg, issued from the specified concept of this component.
+     *
+     * Closed sets are generated level by level from an explicit worklist of
+     * pending concepts. The immediate successors of the pending concepts are
+     * computed concurrently when more than one thread is given, and are
+     * deduplicated through a concurrent map keyed by their intent, initialised
+     * with the concepts of this component. Intents are keyed by the packed
+     * words of the identifiers of their elements (see {@link IntentMap}). New concepts, cover edges and
+     * dependencies are then added to this component by the calling thread, in
+     * the order of the worklist: the generation never recurses, and this
+     * component is never modified concurrently.
+     *
+     * Closure systems that do not provide a closure operator (see
+     * {@link ClosureSystem#closureOperator}) are always expanded sequentially,
+     * their closure being not assumed thread-safe.
+     *
+     * @param n           a concept of this component
+     * @param init        a closure system
+     * @param context     the context giving the support of closed sets, or null
+     *                    for the whole lattice
+     * @param threshold   a support threshold, as a number of observations
+     * @param parallelism the number of threads
+     */
+    private void diagram(Concept n, ClosureSystem init, Context context, int threshold, int parallelism) {
+        this.initDependencyGraph(init);
+        // the components of the precedence graph are computed once for all the closed sets
+        PrecedenceComponents components = new PrecedenceComponents(init);
+        IntentMap concepts = new IntentMap(init);
+        for (Object node : this.getNodes()) {
+            concepts.putIfAbsent(((Concept) node).getSetA(), (Concept) node);
+        }
+        ForkJoinPool pool = null;
+        if (parallelism > 1 && init.closureOperator() != null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        try {
+            List<Concept> pending = new ArrayList<Concept>();
+            pending.add(n);
+            while (!pending.isEmpty()) {
+                List<Expansion> expansions = this.expand(pending, init, context, threshold, concepts, pool);
+                pending = new ArrayList<Concept>();
+                for (Expansion expansion : expansions) {
+                    for (Concept c : expansion.created) {
+                        this.addNode(c);
+                        pending.add(c);
+                    }
+                }
+                for (Expansion expansion : expansions) {
+                    for (Concept c : expansion.successors) {
+                        this.addEdge(expansion.concept, c);
+                    }
+                    this.addDependencies(expansion.dependencies, components.valuation(expansion.concept.getSetA()));
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
             }
         }
     }
 
     /**
-     * Returns the Hasse diagramme of the closed set iceberg of the specified
-     * closure system issued from the specified concept.
+     * Computes the expansion of each pending concept, in parallel when a pool
+     * is given.
      *
-     * Immediate successors generation is an adaptation of Bordat's theorem
-     * stating that there is a bijection between minimal strongly connected
-     * component of the precedence subgraph issued from the specified node, and
-     * its immediate successors.
+     * @param pending   the pending concepts
+     * @param init      a closure system
+     * @param context   the context giving the support of closed sets, or null
+     * @param threshold a support threshold, as a number of observations
+     * @param concepts  the concepts indexed by their intent
+     * @param pool      a fork/join pool, or null for a sequential expansion
      *
-     * This treatment is performed in O(cCl|S|^3log g) where S is the initial
-     * set of elements, c is the number of closed sets that could be exponential
-     * in the worst case, Cl is the closure computation complexity and g is the
-     * number of minimal generators of the lattice.
+     * @return the expansions, in the order of the pending concepts
+     */
+    private List<Expansion> expand(List<Concept> pending, final ClosureSystem init, final Context context,
+            final int threshold, final IntentMap concepts, ForkJoinPool pool) {
+        final SortedSet<Node> elements = this.getDependencyGraph().getNodes();
+        List<Expansion> expansions = new ArrayList<Expansion>(pending.size());
+        if (pool == null) {
+            ClosureOperator operator = init.closureOperator();
+            for (Concept c : pending) {
+                expansions.add(expand(c, init, operator, elements, context, threshold, concepts));
+            }
+            return expansions;
+        }
+        List<Future<Expansion>> futures = new ArrayList<Future<Expansion>>(pending.size());
+        for (final Concept c : pending) {
+            final ClosureOperator operator = init.closureOperator();
+            futures.add(pool.submit(new Callable<Expansion>() {
+                /**
+                 * Expands a pending concept.
+                 *
+                 * @return the expansion
+                 */
+                public Expansion call() {
+                    return expand(c, init, operator, elements, context, threshold, concepts);
+                }
+            }));
+        }
+        try {
+            for (Future<Expansion> future : futures) {
+                expansions.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+        return expansions;
+    }
+
+    /**
+     * Computes the expansion of a concept: its immediate successors whose
+     * support reaches the threshold, and the dependance relation computed
+     * from its intent.
+     *
+     * A successor that is not yet in the map of concepts is put into it, and
+     * is created by this expansion. This method does not modify the lattice,
+     * and can be invoked concurrently with distinct closure operators.
      *
      * @param n         a concept
      * @param init      a closure system
+     * @param operator  a closure operator of the closure system, or null
+     * @param elements  the nodes of the dependency graph
+     * @param context   the context giving the support of closed sets, or null
      * @param threshold a support threshold, as a number of observations
+     * @param concepts  the concepts indexed by their intent
+     *
+     * @return the expansion
      */
-    private void recursiveDiagramIceberg(Concept n, ClosureSystem init, int threshold) {
-        Context context = (Context) init;
-        Vector<TreeSet<Comparable>> immSucc = this.immediateSuccessors(n, init);
-        for (TreeSet<Comparable> setX : immSucc) {
-            if (context.getExtentNb(setX) >= threshold) {
+    private static Expansion expand(Concept n, ClosureSystem init, ClosureOperator operator, SortedSet<Node> elements,
+            Context context, int threshold, IntentMap concepts) {
+        Expansion expansion = new Expansion(n);
+        Vector<TreeSet<Comparable>> immSucc = successors(n.getSetA(), init, operator, elements, expansion.dependencies);
+        int[] supports = null;
+        if (context != null) {
+            supports = context.getExtentNb(immSucc);
+        }
+        for (int i = 0; i < immSucc.size(); i++) {
+            if (supports == null || supports[i] >= threshold) {
+                TreeSet<Comparable> setX = immSucc.get(i);
                 Concept c = new Concept(new TreeSet(setX), false);
-                Concept ns = (Concept) this.getNode(c);
-                if (ns != null) {
-                    this.addEdge(n, ns);
+                Concept ns = concepts.putIfAbsent(setX, c);
+                if (ns == null) {
+                    expansion.created.add(c);
+                    expansion.successors.add(c);
                 } else {
-                    this.addNode(c);
-                    this.addEdge(n, c);
-                    this.recursiveDiagramIceberg(c, init, threshold);
+                    expansion.successors.add(ns);
                 }
             }
         }
+        return expansion;
     }
 
     /**
@@ -880,7 +1673,39 @@ public class ConceptLattice extends Lattice {
      * @return a set of immediate successors
      */
     public Vector<TreeSet<Comparable>> immediateSuccessors(Node n, ClosureSystem init) {
+        return this.immediateSuccessors(n, init, new PrecedenceComponents(init));
+    }
+
+    /**
+     * Returns the list of immediate successors of a given node of the lattice,
+     * using the precomputed components of the precedence graph of the closure
+     * system.
+     *
+     * @param n          a node
+     * @param init       a closure system
+     * @param components the components of the precedence graph of init
+     *
+     * @return a set of immediate successors
+     */
+    private Vector<TreeSet<Comparable>> immediateSuccessors(Node n, ClosureSystem init,
+            PrecedenceComponents components) {
         // Initialisation of the dependance graph when not initialised by method recursiveDiagramLattice
+        this.initDependencyGraph(init);
+        SortedSet<Comparable> setF = ((Concept) n).getSetA();
+        List<Edge> dependencies = new ArrayList<Edge>();
+        Vector<TreeSet<Comparable>> immSucc = successors(setF, init, init.closureOperator(),
+                this.getDependencyGraph().getNodes(), dependencies);
+        this.addDependencies(dependencies, components.valuation(setF));
+        return immSucc;
+    }
+
+    /**
+     * Initialises the dependance graph with the elements of the specified
+     * closure system, when it is not already initialised.
+     *
+     * @param init a closure system
+     */
+    private void initDependencyGraph(ClosureSystem init) {
         if (!this.hasDependencyGraph()) {
             ConcreteDGraph graph = new ConcreteDGraph();
             for (Comparable c : init.getSet()) {
@@ -888,82 +1713,77 @@ public class ConceptLattice extends Lattice {
             }
             this.setDependencyGraph(graph);
         }
-        // computes newVal, the subset to be used to valuate every new dependance relation
-        // newVal = F\predecessors of F in the precedence graph of the closure system
-        // For a non reduced closure system, the precedence graph is not acyclic,
-        // and therefore strongly connected components have to be used.
-        ComparableSet setF = new ComparableSet(((Concept) n).getSetA());
-        ConcreteDGraph prec = init.precedenceGraph();
-        DAGraph acyclPrec = prec.getStronglyConnectedComponent();
-        ComparableSet newVal = new ComparableSet();
-        newVal.addAll(setF);
-        for (Object x : setF) {
-            // computes nx, the strongly connected component containing x
-            Node nx = null;
-            for (Object cc : acyclPrec.getNodes()) {
-                TreeSet<Node> setCC = (TreeSet<Node>) ((Node) cc).getContent();
-                for (Node y : setCC) {
-                    if (x.equals(y.getContent())) {
-                        nx = (Node) cc;
-                    }
-                }
-            }
-            // computes the minorants of nx in the acyclic graph
-            SortedSet<Node> ccMinNx = acyclPrec.minorants(nx);
-            // removes from newVal every minorants of nx
-            for (Node cc : ccMinNx) {
-                TreeSet<Node> setCC = (TreeSet<Node>) cc.getContent();
-                for (Node y : setCC) {
-                    newVal.remove(y.getContent());
-                }
-            }
-        }
+    }
+
+    /**
+     * Returns the list of immediate successors of the specified closed set.
+     *
+     * The dependance relation between the elements that do not belong to the
+     * closed set is computed and put into the specified list, as unvaluated
+     * edges between nodes of the dependency graph. This method does not modify
+     * the dependency graph, and can be invoked concurrently with distinct
+     * closure operators.
+     *
+     * @param setF         a closed set
+     * @param init         a closure system
+     * @param operator     a closure operator of the closure system, or null to
+     *                     compute closures with the closure system
+     * @param elements     the nodes of the dependency graph
+     * @param dependencies the list receiving the dependance relation
+     *
+     * @return a set of immediate successors
+     */
+    private static Vector<TreeSet<Comparable>> successors(SortedSet<Comparable> setF, ClosureSystem init,
+            ClosureOperator operator, SortedSet<Node> elements, List<Edge> dependencies) {
         // computes the node belonging in S\F
         TreeSet<Node> nodes = new TreeSet<Node>();
-        for (Object in : this.getDependencyGraph().getNodes()) {
-            if (!setF.contains(((Node) in).getContent())) {
-                nodes.add((Node) in);
+        for (Node in : elements) {
+            if (!setF.contains(in.getContent())) {
+                nodes.add(in);
             }
         }
         // computes the dependance relation between nodes in S\F
-        // and valuated this relation by the subset of S\F
-        TreeSet<Edge> edges = new TreeSet<Edge>();
-        for (Node source : nodes) {
-            for (Node target : nodes) {
+        // "source" is in dependance relation with "target" when it belongs to the closure of "F+target"
+        // when the closure system provides a closure operator, closures are computed on reusable bitset buffers
+        ConcreteDGraph delta = new ConcreteDGraph();
+        for (Node node : nodes) {
+            delta.addNode(node);
+        }
+        long[] base = null;
+        long[] closed = null;
+        if (operator != null) {
+            base = operator.toWords(setF);
+            closed = operator.create();
+        }
+        for (Node target : nodes) {
+            TreeSet<Comparable> fPlusTo = null;
+            if (base == null) {
+                fPlusTo = new ComparableSet(setF);
+                fPlusTo.add((Comparable) target.getContent());
+                fPlusTo = init.closure(fPlusTo);
+            } else {
+                BitWords.copy(closed, base, operator.length());
+                BitWords.set(closed, operator.indexOf((Comparable) target.getContent()));
+                operator.closure(closed, closed);
+            }
+            for (Node source : nodes) {
                 if (!source.equals(target)) {
-                    // check if source is in dependance relation with target
-                    // i.e. "source" belongs to the closure of "F+target"
-                    ComparableSet fPlusTo = new ComparableSet(setF);
-                    fPlusTo.add(target.getContent());
-                    fPlusTo = new ComparableSet(init.closure(fPlusTo));
-                    if (fPlusTo.contains(source.getContent())) {
-                        // there is a dependance relation between source and target
-                        // search for an existing edge between source and target
-                        Edge ed = this.getDependencyGraph().getEdge(source, target);
-                        if (ed == null) {
-                            ed = new Edge(source, target, new TreeSet<ComparableSet>());
-                            this.getDependencyGraph().addEdge(ed);
-                        }
-                        edges.add(ed);
-                        // check if F is a minimal set closed for dependance relation between source and target
-                        ((TreeSet<ComparableSet>) ed.getContent()).add(newVal);
-                        TreeSet<ComparableSet> valEd = new TreeSet<ComparableSet>((TreeSet<ComparableSet>) ed.getContent());
-                        for (ComparableSet x1 : valEd) {
-                            if (x1.containsAll(newVal) && !newVal.containsAll(x1)) {
-                                ((TreeSet<ComparableSet>) ed.getContent()).remove(x1);
-                            }
-                            if (!x1.containsAll(newVal) && newVal.containsAll(x1)) {
-                                ((TreeSet<ComparableSet>) ed.getContent()).remove(newVal);
-                            }
-                        }
+                    boolean dependance;
+                    if (base == null) {
+                        dependance = fPlusTo.contains(source.getContent());
+                    } else {
+                        dependance = BitWords.get(closed, operator.indexOf((Comparable) source.getContent()));
+                    }
+                    if (dependance) {
+                        Edge edge = new Edge(source, target);
+                        delta.addEdge(edge);
+                        dependencies.add(edge);
                     }
                 }
             }
         }
-        // computes the dependance subgraph of the closed set F as the reduction
-        // of the dependance graph composed of nodes in S\A and edges of the dependance relation
-        ConcreteDGraph sub = this.getDependencyGraph().getSubgraphByNodes(nodes);
-        ConcreteDGraph delta = sub.getSubgraphByEdges(edges);
+        // the dependance subgraph of the closed set F is composed of nodes in S\F
+        // and edges of the dependance relation
         // computes the sources of the CFC of the dependance subgraph
         // that corresponds to successors of the closed set F
         DAGraph cfc = delta.getStronglyConnectedComponent();
@@ -980,6 +1800,52 @@ public class ConceptLattice extends Lattice {
         return immSucc;
     }
 
+    /**
+     * Adds the dependance relation computed from a closed set to the
+     * dependency graph, valuated by the specified subset.
+     *
+     * @param dependencies the dependance relation, as unvaluated edges
+     * @param newVal       the valuation
+     */
+    private void addDependencies(List<Edge> dependencies, ComparableSet newVal) {
+        for (Edge dependency : dependencies) {
+            this.addDependency(dependency.getSource(), dependency.getTarget(), newVal);
+        }
+    }
+
+    /**
+     * Adds a dependance relation between two nodes of the dependency graph.
+     *
+     * The relation is valuated by the specified subset, which is kept only if
+     * it is minimal among the valuations of the relation.
+     *
+     * @param source the source node
+     * @param target the target node
+     * @param newVal the valuation
+     *
+     * @return the edge of the dependency graph
+     */
+    private Edge addDependency(Node source, Node target, ComparableSet newVal) {
+        // search for an existing edge between source and target
+        Edge ed = this.getDependencyGraph().getEdge(source, target);
+        if (ed == null) {
+            ed = new Edge(source, target, new TreeSet<ComparableSet>());
+            this.getDependencyGraph().addEdge(ed);
+        }
+        // check if F is a minimal set closed for dependance relation between source and target
+        ((TreeSet<ComparableSet>) ed.getContent()).add(newVal);
+        TreeSet<ComparableSet> valEd = new TreeSet<ComparableSet>((TreeSet<ComparableSet>) ed.getContent());
+        for (ComparableSet x1 : valEd) {
+            if (x1.containsAll(newVal) && !newVal.containsAll(x1)) {
+                ((TreeSet<ComparableSet>) ed.getContent()).remove(x1);
+            }
+            if (!x1.containsAll(newVal) && newVal.containsAll(x1)) {
+                ((TreeSet<ComparableSet>) ed.getContent()).remove(newVal);
+            }
+        }
+        return ed;
+    }
+
     /**
      * Save the description of this component in a file whose name is specified.
      *
@@ -991,4 +1857,112 @@ public class ConceptLattice extends Lattice {
     public void save(final String filename) throws IOException {
         Filer.getInstance().save(this, ConceptLatticeIOFactory.getInstance(), filename);
     }
+
+    /**
+     * This class gives the expansion of a concept by the Bordat algorithm.
+     */
+    private static final class Expansion {
+
+        /**
+         * The expanded concept.
+         */
+        private final Concept concept;
+
+        /**
+         * The immediate successors of the concept.
+         */
+        private final List<Concept> successors;
+
+        /**
+         * The immediate successors created by this expansion.
+         */
+        private final List<Concept> created;
+
+        /**
+         * The dependance relation computed from the intent of the concept.
+         */
+        private final List<Edge> dependencies;
+
+        /**
+         * Constructs an empty expansion of the specified concept.
+         *
+         * @param concept a concept
+         */
+        private Expansion(Concept concept) {
+            this.concept = concept;
+            this.successors = new ArrayList<Concept>();
+            this.created = new ArrayList<Concept>();
+            this.dependencies = new ArrayList<Edge>();
+        }
+    }
+
+    /**
+     * This class gives a concurrent map of the concepts generated from a
+     * closure system, keyed by their intent.
+     *
+     * Intents are keyed by the packed words of the identifiers of their
+     * elements (see {@link BitKey}). Identifiers are the ones of the closure
+     * operator of the closure system when it provides one (see
+     * {@link ClosureSystem#closureOperator}), e.g. the identifiers of the
+     * attributes of a context, and the ones of a symbol table of the elements
+     * of the closure system otherwise.
+     */
+    private static final class IntentMap {
+
+        /**
+         * The concepts indexed by the key of their intent.
+         */
+        private final ConcurrentHashMap<BitKey, Concept> concepts;
+
+        /**
+         * The closure operator giving the identifiers, or null.
+         */
+        private final ClosureOperator operator;
+
+        /**
+         * The identifiers of the elements when there is no closure operator.
+         */
+        private final SymbolTable symbols;
+
+        /**
+         * Constructs an empty map of the concepts of the specified closure
+         * system.
+         *
+         * @param init a closure system
+         */
+        private IntentMap(ClosureSystem init) {
+            this.concepts = new ConcurrentHashMap<BitKey, Concept>();
+            this.operator = init.closureOperator();
+            if (this.operator == null) {
+                this.symbols = new SymbolTable(init.getSet());
+            } else {
+                this.symbols = null;
+            }
+        }
+
+        /**
+         * Maps the specified intent to the specified concept, unless a concept
+         * is already mapped to it.
+         *
+         * @param intent  an intent
+         * @param concept a concept
+         *
+         * @return the concept already mapped to the intent, or null
+         *
+         * @throws IllegalArgumentException if an element of the intent does not
+         *                                  belong to the closure system
+         */
+        private Concept putIfAbsent(SortedSet<Comparable> intent, Concept concept) {
+            long[] words;
+            if (this.operator == null) {
+                words = this.symbols.toWords(intent);
+            } else {
+                words = this.operator.toWords(intent);
+            }
+            if (words == null) {
+                throw new IllegalArgumentException("Intent not included in the closure system: " + intent);
+            }
+            return this.concepts.putIfAbsent(new BitKey(words, words.length), concept);
+        }
+    }
 }
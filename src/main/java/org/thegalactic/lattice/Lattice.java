@@ -1038,9 +1038,12 @@ public class Lattice<N, E> extends DAGraph<N, E> {
             if (supportClosedSet / nbObs > support) {
                 //we get the immediate successors of the concept made of the set
                 ArrayList<TreeSet<Comparable>> succs = new Concept(closedSet, new TreeSet()).immediateSuccessorsLOA(context);
-                for (TreeSet<Comparable> succ : succs) {
+                //the supports of all the successors are counted at once
+                int[] supports = context.getExtentNb(succs);
+                for (int i = 0; i < succs.size(); i++) {
+                    TreeSet<Comparable> succ = succs.get(i);
                     //we compute the support of the rule as the ratio between closed set and successor extent
-                    double ex = context.getExtentNb(succ);
+                    double ex = supports[i];
                     double supportSucc = ex / supportClosedSet;
 
                     //the rule conclusion is made of the successors minus the minimal generator
@@ -0,0 +1,218 @@
+package org.thegalactic.lattice;
+
+/*
+ * NextClosure.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class implements the Next Closure algorithm of Ganter on a
+ * {@link ClosureOperator}.
+ *
+ * Closed sets are enumerated in the lectic order defined by the natural order
+ * of the elements, in place on packed words, with buffers allocated once.
+ * When identifiers follow the natural order of the elements, prefixes and
+ * canonicity tests are computed with word masks; otherwise the rank of each
+ * identifier is used.
+ *
+ * This class is also a lazy iterator over the closed sets, starting from the
+ * closure of the empty set and stopping after the last closed set.
+ *
+ * An engine is not thread-safe.
+ */
+public class NextClosure implements Iterator<Concept> {
+
+    /**
+     * The closure operator.
+     */
+    private final ClosureOperator operator;
+
+    /**
+     * Number of words of a set.
+     */
+    private final int length;
+
+    /**
+     * Identifiers, in the natural order of elements, or null if identifiers
+     * follow the natural order.
+     */
+    private final int[] order;
+
+    /**
+     * Rank of each identifier in the natural order of elements, or null if
+     * identifiers follow the natural order.
+     */
+    private final int[] rank;
+
+    /**
+     * Buffer for the prefix of a set.
+     */
+    private final long[] prefix;
+
+    /**
+     * Buffer for candidate sets.
+     */
+    private final long[] candidate;
+
+    /**
+     * The next closed set of the iteration.
+     */
+    private final long[] current;
+
+    /**
+     * Is there a next closed set in the iteration.
+     */
+    private boolean more;
+
+    /**
+     * Constructs a Next Closure engine for the specified closure operator.
+     *
+     * @param operator a closure operator
+     */
+    public NextClosure(final ClosureOperator operator) {
+        this.operator = operator;
+        this.length = operator.length();
+        this.prefix = operator.create();
+        this.candidate = operator.create();
+        final int size = operator.size();
+        final Integer[] ids = new Integer[size];
+        boolean sorted = true;
+        for (int id = 0; id < size; id++) {
+            ids[id] = id;
+            if (id > 0 && operator.getElement(id - 1).compareTo(operator.getElement(id)) > 0) {
+                sorted = false;
+            }
+        }
+        if (sorted) {
+            this.order = null;
+            this.rank = null;
+        } else {
+            Arrays.sort(ids, new Comparator<Integer>() {
+                /**
+                 * Compares the elements of two identifiers.
+                 *
+                 * @param id1 an identifier
+                 * @param id2 an identifier
+                 *
+                 * @return the comparison of the elements
+                 */
+                public int compare(final Integer id1, final Integer id2) {
+                    return operator.getElement(id1).compareTo(operator.getElement(id2));
+                }
+            });
+            this.order = new int[size];
+            this.rank = new int[size];
+            for (int i = 0; i < size; i++) {
+                this.order[i] = ids[i];
+                this.rank[ids[i]] = i;
+            }
+        }
+        this.current = operator.create();
+        operator.closure(this.current, this.current);
+        this.more = true;
+    }
+
+    /**
+     * Returns the closure operator of this engine.
+     *
+     * @return the closure operator
+     */
+    public ClosureOperator getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * Replaces a closed set by the lectically next one.
+     *
+     * @param set a closed set
+     *
+     * @return false if the set was the last closed set, in this case the set is
+     *         left unchanged
+     */
+    public boolean nextClosure(final long[] set) {
+        BitWords.copy(this.prefix, set, this.length);
+        for (int i = this.operator.size() - 1; i >= 0; i--) {
+            int id = i;
+            if (this.order != null) {
+                id = this.order[i];
+            }
+            if (!BitWords.clear(this.prefix, id)) {
+                BitWords.copy(this.candidate, this.prefix, this.length);
+                BitWords.set(this.candidate, id);
+                this.operator.closure(this.candidate, this.candidate);
+                if (this.isCanonical(id, i)) {
+                    BitWords.copy(set, this.candidate, this.length);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tests if there is a next closed set.
+     *
+     * @return true if there is a next closed set
+     */
+    public boolean hasNext() {
+        return this.more;
+    }
+
+    /**
+     * Returns the next closed set and computes the following one.
+     *
+     * @return the next closed set, as a concept without extent
+     */
+    public Concept next() {
+        if (!this.more) {
+            throw new NoSuchElementException();
+        }
+        final Concept concept = new Concept(this.operator.toSet(this.current), false);
+        this.more = this.nextClosure(this.current);
+        return concept;
+    }
+
+    /**
+     * Closed sets cannot be removed.
+     */
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Tests if the candidate does not add to the prefix any element smaller
+     * than the specified one.
+     *
+     * @param id   the identifier of the added element
+     * @param from the rank of the added element
+     *
+     * @return true if the candidate is the lectically next closure
+     */
+    private boolean isCanonical(final int id, final int from) {
+        if (this.order == null) {
+            return BitWords.equalsBelow(this.candidate, this.prefix, id);
+        }
+        for (int w = 0; w < this.length; w++) {
+            long added = this.candidate[w] & ~this.prefix[w];
+            while (added != 0) {
+                if (this.rank[w * BitWords.WORD_SIZE + Long.numberOfTrailingZeros(added)] < from) {
+                    return false;
+                }
+                added &= added - 1;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+package org.thegalactic.lattice;
+
+/*
+ * PrecedenceComponents.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.thegalactic.dgraph.ConcreteDGraph;
+import org.thegalactic.dgraph.DAGraph;
+import org.thegalactic.dgraph.Node;
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * This class gives the strongly connected components of the precedence graph
+ * of a closure system, as used by the Bordat algorithm of
+ * {@link ConceptLattice#immediateSuccessors}.
+ *
+ * The precedence graph, its acyclic graph of strongly connected components
+ * and the transitive closure of the latter only depend on the closure system:
+ * they are computed once, and each element is indexed with the elements of
+ * the components that are minorants of its own component.
+ *
+ * An instance is bound to the state of its closure system when it was
+ * created. It is immutable, and can be shared between threads.
+ */
+final class PrecedenceComponents {
+
+    /**
+     * The elements of the minorant components of the component of each
+     * element.
+     */
+    private final HashMap<Comparable, Set<Comparable>> minorants;
+
+    /**
+     * Computes the components of the precedence graph of the specified closure
+     * system.
+     *
+     * @param init a closure system
+     */
+    PrecedenceComponents(ClosureSystem init) {
+        ConcreteDGraph prec = init.precedenceGraph();
+        DAGraph acyclPrec = prec.getStronglyConnectedComponent();
+        DAGraph closure = new DAGraph(acyclPrec);
+        closure.transitiveClosure();
+        this.minorants = new HashMap<Comparable, Set<Comparable>>();
+        for (Object cc : closure.getNodes()) {
+            Set<Comparable> elements = new HashSet<Comparable>();
+            for (Object minorant : closure.getPredecessorNodes((Node) cc)) {
+                for (Node y : (TreeSet<Node>) ((Node) minorant).getContent()) {
+                    elements.add((Comparable) y.getContent());
+                }
+            }
+            for (Node x : (TreeSet<Node>) ((Node) cc).getContent()) {
+                this.minorants.put((Comparable) x.getContent(), elements);
+            }
+        }
+    }
+
+    /**
+     * Returns the valuation of the dependencies computed from a closed set,
+     * i.e. the elements of the closed set that do not belong to a minorant
+     * component of the component of another element of the closed set.
+     *
+     * @param setF a closed set
+     *
+     * @return the valuation
+     */
+    ComparableSet valuation(Collection<Comparable> setF) {
+        ComparableSet newVal = new ComparableSet();
+        newVal.addAll(setF);
+        for (Comparable x : setF) {
+            Set<Comparable> elements = this.minorants.get(x);
+            if (elements != null) {
+                newVal.removeAll(elements);
+            }
+        }
+        return newVal;
+    }
+}
@@ -0,0 +1,115 @@
+package org.thegalactic.lattice;
+
+/*
+ * UpperCovers.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.List;
+
+import org.thegalactic.util.BitWords;
+
+/**
+ * This class computes the upper covers of closed sets by the neighbours
+ * algorithm of Lindig.
+ *
+ * The upper covers of a closed set B are the minimal closures of B + m, for
+ * each element m outside of B. The elements m are scanned in increasing
+ * order: m is dropped from the set of candidate minimal elements as soon as
+ * the closure of B + m contains another candidate, otherwise the closure is
+ * an upper cover. Each upper cover is found once, with one closure per
+ * element outside of B.
+ *
+ * Sets are handled as packed words of a {@link ClosureOperator}, in buffers
+ * allocated once. An instance is not thread-safe.
+ */
+public class UpperCovers {
+
+    /**
+     * The closure operator.
+     */
+    private final ClosureOperator operator;
+
+    /**
+     * Number of words of a set.
+     */
+    private final int length;
+
+    /**
+     * Buffer for the candidate minimal elements.
+     */
+    private final long[] minimal;
+
+    /**
+     * Buffer for the closures.
+     */
+    private final long[] candidate;
+
+    /**
+     * Constructs an upper covers computation for the specified closure
+     * operator.
+     *
+     * @param operator a closure operator
+     */
+    public UpperCovers(final ClosureOperator operator) {
+        this.operator = operator;
+        this.length = operator.length();
+        this.minimal = operator.create();
+        this.candidate = operator.create();
+    }
+
+    /**
+     * Returns the upper covers of the specified closed set.
+     *
+     * @param closed a closed set
+     *
+     * @return the words of the upper covers
+     */
+    public List<long[]> covers(final long[] closed) {
+        final List<long[]> covers = new ArrayList<long[]>();
+        BitWords.fill(this.minimal, this.operator.size(), this.length);
+        BitWords.andNot(this.minimal, closed, this.length);
+        for (int m = 0; m < this.operator.size(); m++) {
+            if (!BitWords.get(closed, m)) {
+                BitWords.copy(this.candidate, closed, this.length);
+                BitWords.set(this.candidate, m);
+                this.operator.closure(this.candidate, this.candidate);
+                if (this.isMinimal(closed, m)) {
+                    covers.add(BitWords.copyOf(this.candidate, this.length));
+                } else {
+                    BitWords.clear(this.minimal, m);
+                }
+            }
+        }
+        return covers;
+    }
+
+    /**
+     * Tests if the closure does not add any candidate minimal element other
+     * than the specified one.
+     *
+     * @param closed the closed set
+     * @param m      the added element
+     *
+     * @return true if the closure is an upper cover
+     */
+    private boolean isMinimal(final long[] closed, final int m) {
+        final int word = m / BitWords.WORD_SIZE;
+        for (int w = 0; w < this.length; w++) {
+            long added = this.candidate[w] & ~closed[w] & this.minimal[w];
+            if (w == word) {
+                added &= ~(1L << m);
+            }
+            if (added != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
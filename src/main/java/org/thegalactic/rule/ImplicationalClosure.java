@@ -0,0 +1,289 @@
+package org.thegalactic.rule;
+
+/*
+ * ImplicationalClosure.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Collection;
+import java.util.TreeSet;
+
+import org.thegalactic.lattice.ClosureOperator;
+import org.thegalactic.util.BitWords;
+import org.thegalactic.util.SymbolTable;
+
+/**
+ * This class gives a closure operator on the elements of an implicational
+ * system.
+ *
+ * Closures are computed by the LinClosure algorithm of Beeri and Bernstein,
+ * in a time linear in the size of the rules. The rules are encoded once, with
+ * element identifiers (see {@link SymbolTable}): the size of the premise and
+ * the conclusion of each rule, and the list of rules whose premise contains
+ * each element. Computing a closure then keeps, for each rule, a counter of
+ * the elements of its premise that are not yet in the closure. Each element
+ * added to the closure is visited once, and decrements the counters of the
+ * rules whose premise contains it; a rule whose counter reaches 0 is fired,
+ * adding the elements of its conclusion. Counters and pending elements are
+ * kept in buffers allocated once by this operator.
+ *
+ * An operator is bound to the state of its implicational system when it was
+ * created. An operator is not thread-safe; each thread must use its own
+ * operator (see {@link #ImplicationalClosure(ImplicationalClosure)}).
+ */
+public class ImplicationalClosure implements ClosureOperator {
+
+    /**
+     * The identifiers of the elements.
+     */
+    private final SymbolTable symbols;
+
+    /**
+     * The number of elements of the premise of each rule.
+     */
+    private final int[] premiseSizes;
+
+    /**
+     * The identifiers of the elements of the conclusion of each rule.
+     */
+    private final int[][] conclusions;
+
+    /**
+     * The rules whose premise contains each element.
+     */
+    private final int[][] rules;
+
+    /**
+     * The rules whose premise is empty.
+     */
+    private final int[] axioms;
+
+    /**
+     * Number of words of a set of elements.
+     */
+    private final int length;
+
+    /**
+     * Buffer for the number of elements of the premise of each rule that do
+     * not belong to the closure.
+     */
+    private final int[] counters;
+
+    /**
+     * Buffer for the elements of the closure that are pending.
+     */
+    private final int[] pending;
+
+    /**
+     * Constructs a closure operator for the specified rules.
+     *
+     * Identifiers are given to the elements of the implicational system in
+     * their natural order, followed by the elements that only appear in rules.
+     *
+     * @param set   the elements of the implicational system
+     * @param sigma the rules of the implicational system
+     */
+    ImplicationalClosure(final Collection<Comparable> set, final Collection<Rule> sigma) {
+        this.symbols = new SymbolTable(set);
+        for (final Rule rule : sigma) {
+            for (final Object e : rule.getPremise()) {
+                this.symbols.intern((Comparable) e);
+            }
+            for (final Object e : rule.getConclusion()) {
+                this.symbols.intern((Comparable) e);
+            }
+        }
+        this.length = this.symbols.length();
+        this.premiseSizes = new int[sigma.size()];
+        this.conclusions = new int[sigma.size()][];
+        final int[] occurrences = new int[this.symbols.size()];
+        int empty = 0;
+        int r = 0;
+        for (final Rule rule : sigma) {
+            this.premiseSizes[r] = rule.getPremise().size();
+            if (this.premiseSizes[r] == 0) {
+                empty++;
+            }
+            for (final Object e : rule.getPremise()) {
+                occurrences[this.symbols.indexOf((Comparable) e)]++;
+            }
+            this.conclusions[r] = new int[rule.getConclusion().size()];
+            int k = 0;
+            for (final Object e : rule.getConclusion()) {
+                this.conclusions[r][k] = this.symbols.indexOf((Comparable) e);
+                k++;
+            }
+            r++;
+        }
+        this.rules = new int[this.symbols.size()][];
+        for (int a = 0; a < this.rules.length; a++) {
+            this.rules[a] = new int[occurrences[a]];
+            occurrences[a] = 0;
+        }
+        this.axioms = new int[empty];
+        empty = 0;
+        r = 0;
+        for (final Rule rule : sigma) {
+            if (this.premiseSizes[r] == 0) {
+                this.axioms[empty] = r;
+                empty++;
+            }
+            for (final Object e : rule.getPremise()) {
+                final int a = this.symbols.indexOf((Comparable) e);
+                this.rules[a][occurrences[a]] = r;
+                occurrences[a]++;
+            }
+            r++;
+        }
+        this.counters = new int[this.premiseSizes.length];
+        this.pending = new int[this.symbols.size()];
+    }
+
+    /**
+     * Constructs a closure operator sharing the encoded rules of the specified
+     * one, with its own buffers.
+     *
+     * @param operator a closure operator
+     */
+    public ImplicationalClosure(final ImplicationalClosure operator) {
+        this.symbols = operator.symbols;
+        this.premiseSizes = operator.premiseSizes;
+        this.conclusions = operator.conclusions;
+        this.rules = operator.rules;
+        this.axioms = operator.axioms;
+        this.length = operator.length;
+        this.counters = new int[this.premiseSizes.length];
+        this.pending = new int[this.symbols.size()];
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.symbols.size();
+    }
+
+    /**
+     * Returns the number of words of a set of elements.
+     *
+     * @return the number of words
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Returns a new empty set of elements.
+     *
+     * @return a new array of words
+     */
+    public long[] create() {
+        return new long[this.length];
+    }
+
+    /**
+     * Computes the closure of a set of elements.
+     *
+     * The result may be the specified set itself.
+     *
+     * @param set    a set of elements
+     * @param result the closure of the set
+     */
+    public void closure(final long[] set, final long[] result) {
+        if (result != set) {
+            BitWords.copy(result, set, this.length);
+        }
+        System.arraycopy(this.premiseSizes, 0, this.counters, 0, this.counters.length);
+        int tail = 0;
+        final int size = this.symbols.size();
+        for (int a = BitWords.nextSetBit(result, 0, this.length); a >= 0 && a < size;
+                a = BitWords.nextSetBit(result, a + 1, this.length)) {
+            this.pending[tail] = a;
+            tail++;
+        }
+        for (final int r : this.axioms) {
+            tail = this.fire(r, result, tail);
+        }
+        for (int head = 0; head < tail; head++) {
+            for (final int r : this.rules[this.pending[head]]) {
+                this.counters[r]--;
+                if (this.counters[r] == 0) {
+                    tail = this.fire(r, result, tail);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the elements of the conclusion of a rule to a closure, and to the
+     * pending elements.
+     *
+     * @param r      a rule
+     * @param result the closure
+     * @param tail   the number of pending elements
+     *
+     * @return the new number of pending elements
+     */
+    private int fire(final int r, final long[] result, final int tail) {
+        int next = tail;
+        for (final int a : this.conclusions[r]) {
+            if (!BitWords.get(result, a)) {
+                BitWords.set(result, a);
+                this.pending[next] = a;
+                next++;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Returns the element of the specified identifier.
+     *
+     * @param id an identifier
+     *
+     * @return the element
+     */
+    public Comparable getElement(final int id) {
+        return this.symbols.get(id);
+    }
+
+    /**
+     * Returns the identifier of the specified element.
+     *
+     * @param element an element
+     *
+     * @return the identifier, or -1 if the element is unknown
+     */
+    public int indexOf(final Comparable element) {
+        return this.symbols.indexOf(element);
+    }
+
+    /**
+     * Translates a set of elements to a set of identifiers.
+     *
+     * @param set a set of elements
+     *
+     * @return the words of the set, or null if an element is unknown
+     */
+    public long[] toWords(final Collection<Comparable> set) {
+        return this.symbols.toWords(set, this.length);
+    }
+
+    /**
+     * Translates a set of identifiers to a set of elements.
+     *
+     * @param words the words of a set
+     *
+     * @return the set of elements
+     */
+    public TreeSet<Comparable> toSet(final long[] words) {
+        return this.symbols.toSet(words);
+    }
+}
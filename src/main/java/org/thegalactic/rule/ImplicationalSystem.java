@@ -25,7 +25,10 @@ import org.thegalactic.dgraph.Edge;
 import org.thegalactic.dgraph.Node;
 import org.thegalactic.io.Filer;
 import org.thegalactic.lattice.ClosureSystem;
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.lattice.NextClosure;
 import org.thegalactic.lattice.io.ImplicationalSystemIOFactory;
+import org.thegalactic.util.BitWords;
 import org.thegalactic.util.ComparableSet;
 
 /**
@@ -126,6 +129,15 @@ public class ImplicationalSystem extends ClosureSystem {
      */
     private TreeSet<Comparable> set;
 
+    /**
+     * The closure operator on the encoded rules, or null if the rules have not
+     * been encoded since the last modification.
+     *
+     * Its buffers are never used: each closure uses a copy of this operator,
+     * so that concurrent closures only share the immutable encoding.
+     */
+    private volatile ImplicationalClosure operator;
+
     /*
      * --------------- CONSTRUCTORS -----------
      */
@@ -197,6 +209,7 @@ public class ImplicationalSystem extends ClosureSystem {
     public ImplicationalSystem init() {
         this.sigma = new TreeSet<Rule>();
         this.set = new TreeSet<Comparable>();
+        this.invalidate();
         return this;
     }
 
@@ -250,6 +263,7 @@ public class ImplicationalSystem extends ClosureSystem {
      * @return true if the element has been added to `S`
      */
     public boolean addElement(Comparable e) {
+        this.invalidate();
         return set.add(e);
     }
 
@@ -262,6 +276,7 @@ public class ImplicationalSystem extends ClosureSystem {
      */
     public boolean addAllElements(TreeSet<Comparable> x) {
         boolean all = true;
+        this.invalidate();
         for (Comparable e : x) {
             if (!set.add(e)) {
                 all = false;
@@ -281,6 +296,7 @@ public class ImplicationalSystem extends ClosureSystem {
     public boolean deleteElement(Comparable e) {
         if (set.contains(e)) {
             set.remove(e);
+            this.invalidate();
             ImplicationalSystem save = new ImplicationalSystem(this);
             for (Rule rule : save.sigma) {
                 Rule newR = new Rule(rule.getPremise(), rule.getConclusion());
@@ -343,6 +359,7 @@ public class ImplicationalSystem extends ClosureSystem {
      */
     public boolean addRule(Rule rule) {
         if (!this.containsRule(rule) && this.checkRuleElements(rule)) {
+            this.invalidate();
             return this.sigma.add(rule);
         }
         return false;
@@ -356,6 +373,7 @@ public class ImplicationalSystem extends ClosureSystem {
      * @return true if the rule has been removed
      */
     public boolean removeRule(Rule rule) {
+        this.invalidate();
         return this.sigma.remove(rule);
     }
 
@@ -721,6 +739,7 @@ public class ImplicationalSystem extends ClosureSystem {
         ImplicationalSystem save = new ImplicationalSystem(this);
         int before = this.sigma.size();
         this.sigma = new TreeSet();
+        this.invalidate();
 
         while (save.sigma.size() > 0) {
             Rule rule1 = save.sigma.first();
@@ -758,6 +777,7 @@ public class ImplicationalSystem extends ClosureSystem {
         ImplicationalSystem save = new ImplicationalSystem(this);
         int before = this.sigma.size();
         this.sigma = new TreeSet();
+        this.invalidate();
 
         while (save.sigma.size() > 0) {
             AssociationRule rule1 = (AssociationRule) save.sigma.first();
@@ -825,7 +845,7 @@ public class ImplicationalSystem extends ClosureSystem {
                 if (!rule1.equals(rule2)
                         && rule2.getPremise().containsAll(rule1.getPremise())
                         && rule1.getConclusion().equals(rule2.getConclusion())) {
-                    this.sigma.remove(rule2);
+                    this.removeRule(rule2);
                 }
             }
         }
@@ -1099,32 +1119,93 @@ public class ImplicationalSystem extends ClosureSystem {
      * Builds the closure of a set X of indexed elements.
      *
      * The closure is initialised with X. The closure is incremented with the
-     * conclusion of each rule whose premise is included in it. Iterations over
-     * the rules are performed until no new element has to be added in the
-     * closure.
+     * conclusion of each rule whose premise is included in it, until no new
+     * element has to be added in the closure.
      *
-     * For direct ImplicationalSystem, only one iteration is needed, and the
-     * treatment is performed in O(|Sigma||S|).
+     * Closures are computed by the LinClosure algorithm (see
+     * {@link ImplicationalClosure}): each element of the closure decrements a
+     * counter of the rules whose premise contains it, and a rule is fired when
+     * its counter reaches 0. This treatment is performed in O(|S| + the size
+     * of Sigma), for direct and non direct ImplicationalSystem.
      *
-     * For non direct ImplicationalSystem, at most |S| iterations are needed,
-     * and this tratment is performed in O(|Sigma||S|^2).
+     * Rules are encoded once, with the list of rules of each element, and the
+     * encoding is reused by the following closures until this component is
+     * modified. Each closure uses its own buffers: closures may be computed
+     * concurrently, as long as this component is not modified.
      *
      * @param x a TreeSet of indexed elements
      *
      * @return the closure of X for this component
      */
     public TreeSet<Comparable> closure(TreeSet<Comparable> x) {
-        TreeSet<Comparable> oldES = new TreeSet<Comparable>();
-        // all the attributes are in their own closure
-        TreeSet<Comparable> newES = new TreeSet<Comparable>(x);
-        do {
-            oldES.addAll(newES);
-            for (Rule rule : this.sigma) {
-                if (newES.containsAll(rule.getPremise()) || rule.getPremise().isEmpty()) {
-                    newES.addAll(rule.getConclusion());
-                }
+        final ImplicationalClosure closure = new ImplicationalClosure(this.encode());
+        final long[] closed = closure.create();
+        for (Comparable e : x) {
+            final int id = closure.indexOf(e);
+            if (id >= 0) {
+                BitWords.set(closed, id);
             }
-        } while (!oldES.equals(newES));
-        return newES;
+        }
+        closure.closure(closed, closed);
+        // elements of x that are not in S are in their own closure
+        final TreeSet<Comparable> result = closure.toSet(closed);
+        result.addAll(x);
+        return result;
+    }
+
+    /**
+     * Returns a closure operator on the identifiers of the elements of this
+     * component.
+     *
+     * The operator shares the encoding of the rules, and is bound to the
+     * current state of this component.
+     *
+     * @return a new closure operator
+     */
+    @Override
+    public ImplicationalClosure closureOperator() {
+        return new ImplicationalClosure(this.encode());
+    }
+
+    /**
+     * Returns a lazy iterator over the closed sets of this component, in the
+     * lectic order.
+     *
+     * Closed sets are enumerated by a {@link NextClosure} engine on the
+     * encoded rules.
+     *
+     * @return an iterator over the closed sets
+     */
+    @Override
+    public Iterator<Concept> closureIterator() {
+        return new NextClosure(this.closureOperator());
+    }
+
+    /**
+     * Encodes the premise and the conclusion of each rule as packed words of
+     * identifiers of elements, if this has not been done since the last
+     * modification of this component.
+     *
+     * The encoding is published through a volatile field: concurrent callers
+     * may both encode the rules, and then each use its own encoding.
+     *
+     * @return the operator on the encoded rules
+     */
+    private ImplicationalClosure encode() {
+        ImplicationalClosure encoded = this.operator;
+        if (encoded == null) {
+            encoded = new ImplicationalClosure(this.set, this.sigma);
+            this.operator = encoded;
+        }
+        return encoded;
+    }
+
+    /**
+     * Discards the encoding of the rules after a modification of this
+     * component.
+     */
+    private void invalidate() {
+        this.operator = null;
+        this.modified();
     }
 }
@@ -0,0 +1,93 @@
+package org.thegalactic.util;
+
+/*
+ * BitKey.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Arrays;
+
+/**
+ * This class gives an immutable set of identifiers, as packed words (see
+ * {@link BitWords}), that can be used as a key of a hash map.
+ *
+ * Equality and hash code only depend on the identifiers of the set: keys of
+ * the same set built from different numbers of words are equal.
+ */
+public final class BitKey {
+
+    /**
+     * The words of the set.
+     */
+    private final long[] words;
+
+    /**
+     * Number of words up to the last non-zero one.
+     */
+    private final int significant;
+
+    /**
+     * The hash code of the set.
+     */
+    private final int hash;
+
+    /**
+     * Constructs a key from a copy of the specified words.
+     *
+     * @param words  the words of a set
+     * @param length number of words to consider
+     */
+    public BitKey(final long[] words, final int length) {
+        this.words = Arrays.copyOf(words, length);
+        int last = length;
+        while (last > 0 && this.words[last - 1] == 0) {
+            last--;
+        }
+        this.significant = last;
+        this.hash = BitWords.hashCode(this.words, length);
+    }
+
+    /**
+     * Returns a copy of the words of this key.
+     *
+     * @return the words of the set
+     */
+    public long[] getWords() {
+        return this.words.clone();
+    }
+
+    /**
+     * Compares this key with the specified object.
+     *
+     * @param object an object
+     *
+     * @return true if the object is a key of the same set
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof BitKey)) {
+            return false;
+        }
+        final BitKey key = (BitKey) object;
+        return this.hash == key.hash && this.significant == key.significant
+                && BitWords.equals(this.words, key.words, this.significant);
+    }
+
+    /**
+     * Returns the hash code of this key.
+     *
+     * @return the hash code of the set
+     */
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+}
@@ -0,0 +1,403 @@
+package org.thegalactic.util;
+
+/*
+ * BitWords.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+/**
+ * Static operations on sets of integers packed in arrays of long words.
+ *
+ * Bit `i` of a set is stored in bit `i % 64` of the word `i / 64`. Unlike
+ * `java.util.BitSet`, the arrays are handled directly so that callers can keep
+ * and reuse their own buffers: none of the methods of this class allocate
+ * memory, except {@link #create} and {@link #copyOf}.
+ *
+ * Operations taking a `length` parameter only consider the first `length`
+ * words of their arguments.
+ */
+public final class BitWords {
+
+    /**
+     * Number of bits in a word.
+     */
+    public static final int WORD_SIZE = 64;
+
+    /**
+     * Shift giving the word index of a bit.
+     */
+    private static final int ADDRESS_BITS = 6;
+
+    /**
+     * A word with all bits set.
+     */
+    private static final long ALL = 0xffffffffffffffffL;
+
+    /**
+     * This class is not designed to be instantiated.
+     */
+    private BitWords() {
+    }
+
+    /**
+     * Returns the number of words needed to store the specified number of bits.
+     *
+     * @param bits number of bits
+     *
+     * @return the number of words
+     */
+    public static int size(final int bits) {
+        return (bits + WORD_SIZE - 1) >>> ADDRESS_BITS;
+    }
+
+    /**
+     * Creates an empty set able to store the specified number of bits.
+     *
+     * @param bits number of bits
+     *
+     * @return a new array of words
+     */
+    public static long[] create(final int bits) {
+        return new long[size(bits)];
+    }
+
+    /**
+     * Returns a copy of the specified words with the specified length.
+     *
+     * @param words  the words to copy
+     * @param length the length of the copy
+     *
+     * @return a new array of words
+     */
+    public static long[] copyOf(final long[] words, final int length) {
+        final long[] copy = new long[length];
+        System.arraycopy(words, 0, copy, 0, Math.min(length, words.length));
+        return copy;
+    }
+
+    /**
+     * Tests if the specified bit is set.
+     *
+     * @param words the words
+     * @param index the bit index
+     *
+     * @return true if the bit is set
+     */
+    public static boolean get(final long[] words, final int index) {
+        return (words[index >>> ADDRESS_BITS] & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets the specified bit.
+     *
+     * @param words the words
+     * @param index the bit index
+     *
+     * @return true if the bit was not already set
+     */
+    public static boolean set(final long[] words, final int index) {
+        final int w = index >>> ADDRESS_BITS;
+        final long old = words[w];
+        words[w] = old | (1L << index);
+        return old != words[w];
+    }
+
+    /**
+     * Clears the specified bit.
+     *
+     * @param words the words
+     * @param index the bit index
+     *
+     * @return true if the bit was set
+     */
+    public static boolean clear(final long[] words, final int index) {
+        final int w = index >>> ADDRESS_BITS;
+        final long old = words[w];
+        words[w] = old & ~(1L << index);
+        return old != words[w];
+    }
+
+    /**
+     * Sets the bits from 0 (inclusive) to `bits` (exclusive) and clears the
+     * following bits up to `length` words.
+     *
+     * @param words  the words
+     * @param bits   number of bits to set
+     * @param length number of words to consider
+     */
+    public static void fill(final long[] words, final int bits, final int length) {
+        final int full = bits >>> ADDRESS_BITS;
+        for (int w = 0; w < full; w++) {
+            words[w] = ALL;
+        }
+        if (full < length) {
+            final int rest = bits & (WORD_SIZE - 1);
+            if (rest == 0) {
+                words[full] = 0;
+            } else {
+                words[full] = ALL >>> (WORD_SIZE - rest);
+            }
+            for (int w = full + 1; w < length; w++) {
+                words[w] = 0;
+            }
+        }
+    }
+
+    /**
+     * Clears the first `length` words.
+     *
+     * @param words  the words
+     * @param length number of words to consider
+     */
+    public static void clearAll(final long[] words, final int length) {
+        for (int w = 0; w < length; w++) {
+            words[w] = 0;
+        }
+    }
+
+    /**
+     * Copies the first `length` words of a source into a target.
+     *
+     * @param target the target words
+     * @param source the source words
+     * @param length number of words to consider
+     */
+    public static void copy(final long[] target, final long[] source, final int length) {
+        System.arraycopy(source, 0, target, 0, length);
+    }
+
+    /**
+     * Intersects a target with a source.
+     *
+     * @param target the target words
+     * @param source the source words
+     * @param length number of words to consider
+     */
+    public static void and(final long[] target, final long[] source, final int length) {
+        for (int w = 0; w < length; w++) {
+            target[w] &= source[w];
+        }
+    }
+
+    /**
+     * Adds a source to a target.
+     *
+     * @param target the target words
+     * @param source the source words
+     * @param length number of words to consider
+     */
+    public static void or(final long[] target, final long[] source, final int length) {
+        for (int w = 0; w < length; w++) {
+            target[w] |= source[w];
+        }
+    }
+
+    /**
+     * Removes a source from a target.
+     *
+     * @param target the target words
+     * @param source the source words
+     * @param length number of words to consider
+     */
+    public static void andNot(final long[] target, final long[] source, final int length) {
+        for (int w = 0; w < length; w++) {
+            target[w] &= ~source[w];
+        }
+    }
+
+    /**
+     * Returns the number of bits set.
+     *
+     * @param words  the words
+     * @param length number of words to consider
+     *
+     * @return the number of bits set
+     */
+    public static int cardinality(final long[] words, final int length) {
+        int count = 0;
+        for (int w = 0; w < length; w++) {
+            count += Long.bitCount(words[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of bits set in the intersection of two sets, without
+     * computing it.
+     *
+     * @param words1 the first words
+     * @param words2 the second words
+     * @param length number of words to consider
+     *
+     * @return the number of bits set in both sets
+     */
+    public static int andCardinality(final long[] words1, final long[] words2, final int length) {
+        int count = 0;
+        for (int w = 0; w < length; w++) {
+            count += Long.bitCount(words1[w] & words2[w]);
+        }
+        return count;
+    }
+
+    /**
+     * Tests if no bit is set.
+     *
+     * @param words  the words
+     * @param length number of words to consider
+     *
+     * @return true if no bit is set
+     */
+    public static boolean isEmpty(final long[] words, final int length) {
+        for (int w = 0; w < length; w++) {
+            if (words[w] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests if two sets are equal.
+     *
+     * @param words1 the first words
+     * @param words2 the second words
+     * @param length number of words to consider
+     *
+     * @return true if the sets are equal
+     */
+    public static boolean equals(final long[] words1, final long[] words2, final int length) {
+        for (int w = 0; w < length; w++) {
+            if (words1[w] != words2[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests if the first set is included in the second one.
+     *
+     * @param words1 the first words
+     * @param words2 the second words
+     * @param length number of words to consider
+     *
+     * @return true if the first set is included in the second one
+     */
+    public static boolean isSubset(final long[] words1, final long[] words2, final int length) {
+        for (int w = 0; w < length; w++) {
+            if ((words1[w] & ~words2[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tests if two sets have the same bits below the specified index.
+     *
+     * @param words1 the first words
+     * @param words2 the second words
+     * @param bits   the index of the first bit not to compare
+     *
+     * @return true if the sets are equal on the bits lower than the index
+     */
+    public static boolean equalsBelow(final long[] words1, final long[] words2, final int bits) {
+        final int w = bits >>> ADDRESS_BITS;
+        for (int i = 0; i < w; i++) {
+            if (words1[i] != words2[i]) {
+                return false;
+            }
+        }
+        return (bits & (WORD_SIZE - 1)) == 0 || ((words1[w] ^ words2[w]) & ~(ALL << bits)) == 0;
+    }
+
+    /**
+     * Tests if the bits of the first set below the specified index are
+     * included in the second set.
+     *
+     * @param words1 the first words
+     * @param words2 the second words
+     * @param bits   the index of the first bit not to compare
+     *
+     * @return true if the first set is included in the second one on the bits
+     *         lower than the index
+     */
+    public static boolean isSubsetBelow(final long[] words1, final long[] words2, final int bits) {
+        final int w = bits >>> ADDRESS_BITS;
+        for (int i = 0; i < w; i++) {
+            if ((words1[i] & ~words2[i]) != 0) {
+                return false;
+            }
+        }
+        return (bits & (WORD_SIZE - 1)) == 0 || (words1[w] & ~words2[w] & ~(ALL << bits)) == 0;
+    }
+
+    /**
+     * Returns the index of the first bit set starting from the specified one.
+     *
+     * @param words  the words
+     * @param from   the first bit index to examine
+     * @param length number of words to consider
+     *
+     * @return the index of the next bit set, or -1 if there is none
+     */
+    public static int nextSetBit(final long[] words, final int from, final int length) {
+        int w = from >>> ADDRESS_BITS;
+        if (w >= length) {
+            return -1;
+        }
+        long word = words[w] & (ALL << from);
+        while (true) {
+            if (word != 0) {
+                return (w << ADDRESS_BITS) + Long.numberOfTrailingZeros(word);
+            }
+            w++;
+            if (w == length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    /**
+     * Removes the specified bit, shifting all the following bits down by one.
+     *
+     * @param words  the words
+     * @param index  the bit index to remove
+     * @param length number of words to consider
+     */
+    public static void remove(final long[] words, final int index, final int length) {
+        final int w = index >>> ADDRESS_BITS;
+        if (w >= length) {
+            return;
+        }
+        final long low = words[w] & ~(ALL << index);
+        final long high = (words[w] >>> 1) & (ALL << index);
+        words[w] = low | high;
+        for (int i = w + 1; i < length; i++) {
+            words[i - 1] |= words[i] << (WORD_SIZE - 1);
+            words[i] >>>= 1;
+        }
+    }
+
+    /**
+     * Computes a hash code for the specified words.
+     *
+     * @param words  the words
+     * @param length number of words to consider
+     *
+     * @return a hash code
+     */
+    public static int hashCode(final long[] words, final int length) {
+        long h = 1234;
+        for (int w = 0; w < length; w++) {
+            h ^= words[w] * (w + 1);
+        }
+        return (int) ((h >> 32) ^ h);
+    }
+}
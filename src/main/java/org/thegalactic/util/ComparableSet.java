@@ -11,6 +11,7 @@ package org.thegalactic.util;
  * This file is part of java-lattices.
  * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
  */
+import java.util.Iterator;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -109,43 +110,24 @@ public class ComparableSet<E extends Comparable> extends TreeSet<E> implements C
      * @todo Is this correct? (see test)
      */
     public int compareTo(final ComparableSet set) {
-
-        int cmp;
-
-        // case of equality between this component and object
-        if (this.equals(set)) {
-            cmp = 0;
-        } else {
-            // computes index i of the first element in set minus this
-            // if i doesn't exist, then this component is not smaller than the set by lectic order
-            final TreeSet<Comparable> setMinusThis = new TreeSet(set);
-            setMinusThis.removeAll(this);
-            if (setMinusThis.isEmpty()) {
-                cmp = 1;
-            } else {
-                final Comparable i = setMinusThis.first();
-                // compute this inter {1, ..., i-1}
-                final TreeSet setAiMinus1 = new TreeSet();
-                for (final Object c : this) {
-                    if (i.compareTo(c) > 0) {
-                        setAiMinus1.add(c);
-                    }
-                }
-                // compute set inter {1, ..., i-1}
-                final TreeSet setBiMinus1 = new TreeSet();
-                for (final Object c : set) {
-                    if (i.compareTo(c) > 0) {
-                        setBiMinus1.add(c);
-                    }
-                }
-                // if setAiminus1 and setBiminus1 are equal then this component is smaller than B by lectic order
-                if (setAiMinus1.equals(setBiMinus1)) {
-                    cmp = -1;
-                } else {
-                    cmp = 1;
-                }
+        // the smallest element of the symmetric difference decides the order
+        final Iterator<E> it1 = this.iterator();
+        final Iterator<Comparable> it2 = set.iterator();
+        while (it1.hasNext() && it2.hasNext()) {
+            final int cmp = it1.next().compareTo(it2.next());
+            if (cmp < 0) {
+                return 1;
+            }
+            if (cmp > 0) {
+                return -1;
             }
         }
-        return cmp;
+        if (it1.hasNext()) {
+            return 1;
+        }
+        if (it2.hasNext()) {
+            return -1;
+        }
+        return 0;
     }
 }
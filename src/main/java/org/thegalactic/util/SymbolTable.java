@@ -0,0 +1,229 @@
+package org.thegalactic.util;
+
+/*
+ * SymbolTable.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * This class gives a dictionary interning elements as compact integer
+ * identifiers.
+ *
+ * Identifiers are given to elements in the order of their addition, starting
+ * from 0. Removing an element decreases the identifier of the elements added
+ * after it, so that identifiers always range from 0 to `size() - 1`.
+ *
+ * Sets of elements can then be handled as packed words (see {@link BitWords})
+ * indexed by the identifiers: comparing and hashing such sets only touches
+ * integers, whatever the type of the elements.
+ */
+public class SymbolTable {
+
+    /**
+     * The elements, indexed by their identifier.
+     */
+    private final ArrayList<Comparable> symbols;
+
+    /**
+     * The identifier of each element.
+     */
+    private final HashMap<Comparable, Integer> identifiers;
+
+    /**
+     * Constructs a new empty symbol table.
+     */
+    public SymbolTable() {
+        this.symbols = new ArrayList<Comparable>();
+        this.identifiers = new HashMap<Comparable, Integer>();
+    }
+
+    /**
+     * Constructs a new symbol table interning the specified elements, in the
+     * order of the collection.
+     *
+     * @param elements a collection of elements
+     */
+    public SymbolTable(final Collection<? extends Comparable> elements) {
+        this.symbols = new ArrayList<Comparable>(elements.size());
+        this.identifiers = new HashMap<Comparable, Integer>(2 * elements.size());
+        for (final Comparable element : elements) {
+            this.intern(element);
+        }
+    }
+
+    /**
+     * Constructs a new symbol table as a copy of the specified one.
+     *
+     * @param table a symbol table
+     */
+    public SymbolTable(final SymbolTable table) {
+        this.symbols = new ArrayList<Comparable>(table.symbols);
+        this.identifiers = new HashMap<Comparable, Integer>(table.identifiers);
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return this.symbols.size();
+    }
+
+    /**
+     * Returns the number of words of a set of elements.
+     *
+     * @return the number of words
+     */
+    public int length() {
+        return BitWords.size(this.symbols.size());
+    }
+
+    /**
+     * Tests if the specified element is interned.
+     *
+     * @param element an element
+     *
+     * @return true if the element has an identifier
+     */
+    public boolean contains(final Comparable element) {
+        return this.identifiers.containsKey(element);
+    }
+
+    /**
+     * Returns the identifier of the specified element, interning it if
+     * needed.
+     *
+     * @param element an element
+     *
+     * @return the identifier of the element
+     */
+    public int intern(final Comparable element) {
+        final Integer id = this.identifiers.get(element);
+        if (id != null) {
+            return id;
+        }
+        final int next = this.symbols.size();
+        this.symbols.add(element);
+        this.identifiers.put(element, next);
+        return next;
+    }
+
+    /**
+     * Returns the identifier of the specified element.
+     *
+     * @param element an element
+     *
+     * @return the identifier, or -1 if the element is not interned
+     */
+    public int indexOf(final Comparable element) {
+        final Integer id = this.identifiers.get(element);
+        if (id == null) {
+            return -1;
+        }
+        return id;
+    }
+
+    /**
+     * Returns the element of the specified identifier.
+     *
+     * @param id an identifier
+     *
+     * @return the element
+     */
+    public Comparable get(final int id) {
+        return this.symbols.get(id);
+    }
+
+    /**
+     * Returns the elements, indexed by their identifier.
+     *
+     * @return an unmodifiable view of the elements
+     */
+    public List<Comparable> elements() {
+        return Collections.unmodifiableList(this.symbols);
+    }
+
+    /**
+     * Removes the specified element, and decreases the identifier of the
+     * elements following it.
+     *
+     * @param element an element
+     *
+     * @return the former identifier of the element, or -1 if the element was
+     *         not interned
+     */
+    public int remove(final Comparable element) {
+        final Integer id = this.identifiers.remove(element);
+        if (id == null) {
+            return -1;
+        }
+        this.symbols.remove((int) id);
+        for (int i = id; i < this.symbols.size(); i++) {
+            this.identifiers.put(this.symbols.get(i), i);
+        }
+        return id;
+    }
+
+    /**
+     * Translates a set of elements to a set of identifiers.
+     *
+     * @param set a set of elements
+     *
+     * @return the words of the identifiers, or null if an element is not
+     *         interned
+     */
+    public long[] toWords(final Collection<? extends Comparable> set) {
+        return this.toWords(set, this.length());
+    }
+
+    /**
+     * Translates a set of elements to a set of identifiers of the specified
+     * number of words.
+     *
+     * @param set    a set of elements
+     * @param length the number of words
+     *
+     * @return the words of the identifiers, or null if an element is not
+     *         interned
+     */
+    public long[] toWords(final Collection<? extends Comparable> set, final int length) {
+        final long[] words = new long[length];
+        for (final Comparable element : set) {
+            final Integer id = this.identifiers.get(element);
+            if (id == null) {
+                return null;
+            }
+            BitWords.set(words, id);
+        }
+        return words;
+    }
+
+    /**
+     * Translates a set of identifiers to a set of elements.
+     *
+     * @param words the words of the identifiers
+     *
+     * @return the set of elements
+     */
+    public TreeSet<Comparable> toSet(final long[] words) {
+        final TreeSet<Comparable> set = new TreeSet<Comparable>();
+        final int length = Math.min(words.length, this.length());
+        for (int i = BitWords.nextSetBit(words, 0, length); i >= 0; i = BitWords.nextSetBit(words, i + 1, length)) {
+            set.add(this.symbols.get(i));
+        }
+        return set;
+    }
+}
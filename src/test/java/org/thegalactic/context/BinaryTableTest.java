@@ -0,0 +1,198 @@
+package org.thegalactic.context;
+
+/*
+ * BinaryTableTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.nio.LongBuffer;
+
+import org.junit.Test;
+import org.thegalactic.util.BitWords;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * BinaryTable test.
+ */
+public class BinaryTableTest {
+
+    /**
+     * Test add methods.
+     */
+    @Test
+    public void testAdd() {
+        BinaryTable table = new BinaryTable();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, table.addObservation());
+        }
+        for (int i = 0; i < 150; i++) {
+            assertEquals(i, table.addAttribute());
+        }
+        assertEquals(100, table.sizeObservations());
+        assertEquals(150, table.sizeAttributes());
+        assertEquals(2, table.columnLength());
+        assertEquals(3, table.rowLength());
+        assertTrue(table.set(99, 149));
+        assertFalse(table.set(99, 149));
+        assertTrue(table.get(99, 149));
+        long[] column = new long[table.columnLength()];
+        table.column(149, column);
+        assertTrue(BitWords.get(column, 99));
+        assertEquals(1, table.columnSize(149));
+        assertEquals(1, table.rowSize(99));
+        assertTrue(table.clear(99, 149));
+        assertFalse(table.get(99, 149));
+    }
+
+    /**
+     * Test remove methods.
+     */
+    @Test
+    public void testRemove() {
+        BinaryTable table = new BinaryTable();
+        for (int i = 0; i < 3; i++) {
+            table.addObservation();
+            table.addAttribute();
+            table.set(i, i);
+        }
+        table.removeObservation(1);
+        assertEquals(2, table.sizeObservations());
+        assertTrue(table.get(1, 2));
+        assertFalse(table.get(1, 1));
+        table.removeAttribute(0);
+        assertEquals(2, table.sizeAttributes());
+        assertTrue(table.get(1, 1));
+        assertEquals(1, table.columnSize(1));
+    }
+
+    /**
+     * Test extent and intent computations.
+     */
+    @Test
+    public void testExtentIntent() {
+        BinaryTable table = new BinaryTable();
+        for (int i = 0; i < 3; i++) {
+            table.addObservation();
+            table.addAttribute();
+        }
+        table.set(0, 0);
+        table.set(0, 1);
+        table.set(1, 1);
+        table.set(2, 2);
+        long[] attributes = new long[1];
+        long[] extent = new long[1];
+        table.extent(attributes, extent);
+        assertEquals(3, BitWords.cardinality(extent, 1));
+        BitWords.set(attributes, 1);
+        assertEquals(2, table.extentSize(attributes, extent));
+        long[] intent = new long[1];
+        table.intent(extent, intent);
+        assertTrue(BitWords.get(intent, 1));
+        assertEquals(1, table.intentSize(extent, intent));
+    }
+
+    /**
+     * Test copy and reverse.
+     */
+    @Test
+    public void testCopyReverse() {
+        BinaryTable table = new BinaryTable();
+        table.addObservation();
+        table.addAttribute();
+        table.addAttribute();
+        table.set(0, 1);
+        BinaryTable copy = new BinaryTable(table);
+        copy.clear(0, 1);
+        assertTrue(table.get(0, 1));
+        table.reverse();
+        assertEquals(2, table.sizeObservations());
+        assertEquals(1, table.sizeAttributes());
+        assertTrue(table.get(1, 0));
+        assertEquals(1, table.addAttribute());
+    }
+
+    /**
+     * Test compression.
+     */
+    @Test
+    public void testCompression() {
+        BinaryTable table = new BinaryTable(1000, 3, true);
+        assertTrue(table.isCompression());
+        for (int o = 0; o < 1000; o += 100) {
+            table.set(o, 0);
+            table.set(o, 1);
+        }
+        for (int o = 0; o < 1000; o++) {
+            table.set(o, 2);
+        }
+        assertTrue(table.isCompressedColumn(0));
+        assertFalse(table.isCompressedColumn(2));
+        assertEquals(10, table.columnSize(0));
+        assertEquals(1000, table.columnSize(2));
+        long[] attributes = new long[1];
+        long[] extent = new long[table.columnLength()];
+        BitWords.set(attributes, 0);
+        BitWords.set(attributes, 2);
+        assertEquals(10, table.extentSize(attributes, extent));
+        assertTrue(BitWords.get(extent, 900));
+        assertEquals(10, table.extentSize(extent, 1));
+        table.extent(extent, 1, extent);
+        assertEquals(10, BitWords.cardinality(extent, table.columnLength()));
+        table.removeObservation(0);
+        assertTrue(table.get(99, 0));
+        assertEquals(9, table.columnSize(0));
+        BinaryTable copy = new BinaryTable(table);
+        table.setCompression(false);
+        assertFalse(table.isCompressedColumn(0));
+        assertTrue(copy.isCompressedColumn(0));
+        assertEquals(9, table.columnSize(0));
+        table.clear(99, 2);
+        table.setCompression(true);
+        assertTrue(table.isCompressedColumn(0));
+        assertFalse(table.isCompressedColumn(2));
+        table.reverse();
+        assertTrue(table.isCompressedRow(0));
+        assertTrue(table.get(0, 99 + 100));
+    }
+
+    /**
+     * Test a table built from read-only buffers of rows.
+     */
+    @Test
+    public void testBuffers() {
+        LongBuffer[] rows = new LongBuffer[2];
+        rows[0] = LongBuffer.wrap(new long[]{1L, 6L}).asReadOnlyBuffer();
+        rows[1] = LongBuffer.wrap(new long[]{5L}).asReadOnlyBuffer();
+        BinaryTable table = new BinaryTable(3, 3, rows, 2);
+        assertEquals(3, table.sizeObservations());
+        assertEquals(3, table.sizeAttributes());
+        assertTrue(table.get(1, 2));
+        assertFalse(table.get(0, 1));
+        assertEquals(2, table.rowSize(2));
+        assertEquals(2, table.columnSize(0));
+        long[] attributes = new long[1];
+        long[] extent = new long[table.columnLength()];
+        BitWords.set(attributes, 2);
+        assertEquals(2, table.extentSize(attributes, extent));
+        long[] intent = new long[table.rowLength()];
+        assertEquals(1, table.intentSize(extent, intent));
+        assertTrue(BitWords.get(intent, 2));
+        BinaryTable copy = new BinaryTable(table);
+        table.set(0, 1);
+        table.clear(2, 0);
+        assertTrue(table.get(0, 1));
+        assertEquals(1, table.columnSize(0));
+        assertFalse(copy.get(0, 1));
+        assertEquals(2, copy.columnSize(0));
+        assertEquals(1L, rows[0].get(0));
+        assertEquals(5L, rows[1].get(0));
+    }
+}
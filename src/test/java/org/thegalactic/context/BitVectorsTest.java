@@ -0,0 +1,93 @@
+package org.thegalactic.context;
+
+/*
+ * BitVectorsTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.Random;
+
+import org.junit.Test;
+import org.thegalactic.util.BitWords;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * BitVectors test.
+ */
+public class BitVectorsTest {
+
+    /**
+     * Test that compressed and dense vectors give the same results.
+     */
+    @Test
+    public void testCompressedAndDense() {
+        Random random = new Random(42);
+        BitVectors dense = new BitVectors(0, 0, false);
+        BitVectors sparse = new BitVectors(0, 0, true);
+        for (int b = 0; b < 700; b++) {
+            dense.addBit();
+            sparse.addBit();
+        }
+        for (int v = 0; v < 5; v++) {
+            dense.add();
+            sparse.add();
+        }
+        for (int i = 0; i < 60; i++) {
+            int v = random.nextInt(5);
+            int b = random.nextInt(700);
+            assertEquals(dense.set(v, b), sparse.set(v, b));
+        }
+        for (int b = 0; b < 700; b++) {
+            assertEquals(dense.set(4, b), sparse.set(4, b));
+        }
+        assertTrue(sparse.isCompressed(0));
+        assertFalse(sparse.isCompressed(4));
+        assertEquals(dense.clear(1, 3), sparse.clear(1, 3));
+        dense.removeBit(10);
+        sparse.removeBit(10);
+        long[] expected = new long[dense.length()];
+        long[] actual = new long[sparse.length()];
+        long[] words = BitWords.create(700);
+        BitWords.fill(words, 350, words.length);
+        for (int v = 0; v < 5; v++) {
+            assertEquals(dense.cardinality(v), sparse.cardinality(v));
+            dense.copy(v, expected);
+            sparse.copy(v, actual);
+            assertArrayEquals(expected, actual);
+            dense.and(v, words, expected);
+            sparse.and(v, words, actual);
+            assertArrayEquals(expected, actual);
+            assertEquals(dense.andCardinality(v, words), sparse.andCardinality(v, words));
+        }
+        long[] selection = new long[1];
+        for (int s = 0; s < 32; s++) {
+            selection[0] = s;
+            dense.intersect(selection, expected);
+            sparse.intersect(selection, actual);
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Test remove and add of vectors.
+     */
+    @Test
+    public void testRemove() {
+        BitVectors vectors = new BitVectors(3, 100, true);
+        vectors.set(2, 42);
+        vectors.remove(0);
+        assertEquals(2, vectors.count());
+        assertTrue(vectors.get(1, 42));
+        assertEquals(2, vectors.add());
+        assertEquals(0, vectors.cardinality(2));
+    }
+}
@@ -0,0 +1,82 @@
+package org.thegalactic.context;
+
+/*
+ * ConceptMinerAssert.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.thegalactic.lattice.ClosureIterator;
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * Assertions shared by the tests of the concept miners.
+ */
+final class ConceptMinerAssert {
+
+    /**
+     * This class is not designed to be instantiated.
+     */
+    private ConceptMinerAssert() {
+    }
+
+    /**
+     * Asserts that the concepts given by a miner are the closed sets of its
+     * context, each one given once with its extent.
+     *
+     * @param context a context
+     * @param miner   a miner of the context
+     */
+    static void assertConcepts(Context context, ConceptMiner miner) {
+        TreeSet<ComparableSet> expected = new TreeSet<ComparableSet>();
+        Iterator<Concept> closures = new ClosureIterator(context);
+        while (closures.hasNext()) {
+            expected.add(new ComparableSet(closures.next().getSetA()));
+        }
+        List<Concept> concepts = miner.concepts();
+        assertEquals(expected.size(), concepts.size());
+        for (Concept concept : concepts) {
+            assertTrue(expected.contains(concept.getSetA()));
+        }
+        assertExtents(context, concepts);
+    }
+
+    /**
+     * Asserts that the set B of each concept is the extent of its set A.
+     *
+     * @param context  a context
+     * @param concepts a list of concepts
+     */
+    static void assertExtents(Context context, List<Concept> concepts) {
+        for (Concept concept : concepts) {
+            assertEquals(context.getExtent(concept.getSetA()), concept.getSetB());
+        }
+    }
+
+    /**
+     * Returns the intents of a list of concepts.
+     *
+     * @param concepts a list of concepts
+     *
+     * @return the set of intents
+     */
+    static TreeSet<ComparableSet> intents(List<Concept> concepts) {
+        TreeSet<ComparableSet> intents = new TreeSet<ComparableSet>();
+        for (Concept concept : concepts) {
+            intents.add(new ComparableSet(concept.getSetA()));
+        }
+        return intents;
+    }
+}
@@ -0,0 +1,80 @@
+package org.thegalactic.context;
+
+/*
+ * ContextBuilderTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ContextBuilder test.
+ */
+public class ContextBuilderTest {
+
+    /**
+     * Test building a new context.
+     */
+    @Test
+    public void testBuild() {
+        ContextBuilder builder = new ContextBuilder();
+        assertTrue(builder.addToObservations("2"));
+        assertTrue(builder.addToObservations("1"));
+        assertFalse(builder.addToObservations("1"));
+        assertTrue(builder.addToAttributes("b"));
+        assertTrue(builder.addToAttributes("a"));
+        assertTrue(builder.containsObservation("1"));
+        assertTrue(builder.containsAttribute("a"));
+        assertFalse(builder.containsAttribute("c"));
+        assertTrue(builder.addExtentIntent("1", "a"));
+        assertTrue(builder.addExtentIntent("1", "a"));
+        assertTrue(builder.addExtentIntent("2", "b"));
+        assertFalse(builder.addExtentIntent("2", "c"));
+        Context context = builder.build();
+        assertEquals(2, context.getObservations().size());
+        assertEquals(2, context.getAttributes().size());
+        assertEquals(0, context.indexOfObservation("1"));
+        assertEquals(1, context.indexOfAttribute("b"));
+        assertTrue(context.containAsIntent("1", "a"));
+        assertTrue(context.containAsIntent("2", "b"));
+        assertFalse(context.containAsIntent("1", "b"));
+        assertEquals(1, context.getExtent("a").size());
+    }
+
+    /**
+     * Test building an existing context.
+     */
+    @Test
+    public void testBuildExisting() {
+        Context context = new Context();
+        context.addToObservations("1");
+        context.addToAttributes("a");
+        context.addExtentIntent("1", "a");
+        ContextBuilder builder = new ContextBuilder(context);
+        builder.addToObservations("0");
+        builder.addToAttributes("b");
+        builder.addExtentIntent("0", "b");
+        assertFalse(context.containsObservation("0"));
+        assertSame(context, builder.build());
+        assertTrue(context.containAsIntent("1", "a"));
+        assertTrue(context.containAsIntent("0", "b"));
+        TreeSet<Comparable> set = new TreeSet();
+        set.add("a");
+        assertEquals(1, context.getExtentNb(set));
+        assertTrue(context.addToObservations("2"));
+        assertTrue(context.addExtentIntent("2", "a"));
+        assertEquals(2, context.getExtentNb(set));
+    }
+}
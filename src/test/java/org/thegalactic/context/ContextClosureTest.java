@@ -0,0 +1,89 @@
+package org.thegalactic.context;
+
+/*
+ * ContextClosureTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.thegalactic.util.ComparableSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ContextClosure test.
+ */
+public class ContextClosureTest {
+
+    /**
+     * Builds a context whose attributes are not added in their natural order.
+     *
+     * @return a context
+     */
+    private Context getContext() {
+        Context context = new Context();
+        context.addToAttributes("c");
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("3", "b");
+        context.addExtentIntent("3", "c");
+        return context;
+    }
+
+    /**
+     * Test closure.
+     */
+    @Test
+    public void testClosure() {
+        Context context = this.getContext();
+        ContextClosure operator = new ContextClosure(context);
+        TreeSet<Comparable> set = new TreeSet();
+        set.add("c");
+        long[] words = operator.toWords(set);
+        operator.closure(words, words);
+        TreeSet<Comparable> expected = new TreeSet();
+        expected.add("b");
+        expected.add("c");
+        assertEquals(expected, operator.toSet(words));
+        assertEquals(context.closure(set), operator.toSet(words));
+        assertEquals(1, context.toObservations(operator.getExtent()).size());
+    }
+
+    /**
+     * Test nextClosure.
+     */
+    @Test
+    public void testNextClosure() {
+        Context context = this.getContext();
+        ContextClosure operator = new ContextClosure(context);
+        long[] words = operator.create();
+        operator.closure(words, words);
+        ArrayList<ComparableSet> closures = new ArrayList<ComparableSet>();
+        do {
+            closures.add(new ComparableSet(operator.toSet(words)));
+        } while (operator.nextClosure(words));
+        assertEquals(6, closures.size());
+        for (int i = 1; i < closures.size(); i++) {
+            assertTrue(closures.get(i - 1).compareTo(closures.get(i)) < 0);
+            assertEquals(closures.get(i), context.closure(closures.get(i)));
+        }
+        assertEquals(context.getAttributes(), closures.get(closures.size() - 1));
+        assertFalse(operator.nextClosure(words));
+    }
+}
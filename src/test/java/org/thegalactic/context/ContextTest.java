@@ -19,11 +19,16 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.thegalactic.util.Couple;
 import org.thegalactic.dgraph.Node;
+import org.thegalactic.lattice.ClosureSystem;
 import org.thegalactic.lattice.Lattice;
 import org.thegalactic.lattice.ConceptLattice;
 import org.thegalactic.lattice.LatticeFactory;
@@ -284,6 +289,66 @@ public class ContextTest {
         assertFalse(context.removeFromAttributes("4"));
     }
 
+    /**
+     * Test of the binary table identifiers after removals.
+     */
+    @Test
+    public void testTableIndexes() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("2", "b");
+        context.addExtentIntent("3", "c");
+        context.removeFromObservations("2");
+        context.removeFromAttributes("a");
+        assertEquals(2, context.getTable().sizeObservations());
+        assertEquals(2, context.getTable().sizeAttributes());
+        assertEquals(1, context.indexOfObservation("3"));
+        assertEquals(1, context.indexOfAttribute("c"));
+        assertEquals(-1, context.indexOfAttribute("a"));
+        assertEquals("3", context.getObservation(1));
+        assertEquals("b", context.getAttribute(0));
+        assertTrue(context.containAsIntent("3", "c"));
+        assertTrue(context.getIntent("1").isEmpty());
+        assertTrue(context.getExtent("b").isEmpty());
+        TreeSet<Comparable> set = new TreeSet();
+        set.add("c");
+        assertEquals(set, context.closure(set));
+        set.add("d");
+        assertTrue(context.getExtent(set).isEmpty());
+        assertEquals(0, context.getExtentNb(set));
+    }
+
+    /**
+     * Test of compression of sparse extents and intents.
+     */
+    @Test
+    public void testCompressed() {
+        Context context = Context.random(1000, 2, 200);
+        Context compressed = new Context(context);
+        compressed.setCompressed(true);
+        assertTrue(compressed.isCompressed());
+        assertTrue(compressed.getTable().isCompressedColumn(0));
+        assertTrue(compressed.getTable().isCompressedRow(0));
+        assertFalse(context.isCompressed());
+        for (Comparable attribute : context.getAttributes()) {
+            TreeSet<Comparable> set = new TreeSet();
+            set.add(attribute);
+            assertEquals(context.getExtent(attribute), compressed.getExtent(attribute));
+            assertEquals(context.getExtentNb(set), compressed.getExtentNb(set));
+            assertEquals(context.closure(set), compressed.closure(set));
+        }
+        for (Comparable observation : context.getObservations()) {
+            assertEquals(context.getIntent(observation), compressed.getIntent(observation));
+        }
+        assertEquals(context.allClosures().size(), compressed.allClosures().size());
+    }
+
     /**
      * Test of getExtentNb.
      */
@@ -451,4 +516,87 @@ public class ContextTest {
         TreeSet<Node> convex = ctx.getDivisionConvex(subContexts.get(0));
         assertEquals(subContexts.get(0).conceptLattice(true).getNodes().size() + convex.size(), l.getNodes().size());
     }
+
+    /**
+     * Test getReducibleElements against the precedence graph of the closure
+     * system.
+     */
+    @Test
+    public void testGetReducibleElements() {
+        Random random = new Random(1);
+        for (int n = 0; n < 50; n++) {
+            final Context context = new Context();
+            for (int o = 0; o < 8; o++) {
+                context.addToObservations(o);
+            }
+            for (int a = 0; a < 10; a++) {
+                context.addToAttributes("a" + a);
+                for (int o = 0; o < 8; o++) {
+                    if (random.nextInt(3) > 0) {
+                        context.addExtentIntent(o, "a" + a);
+                    }
+                }
+            }
+            ClosureSystem generic = new ClosureSystem() {
+                public SortedSet<Comparable> getSet() {
+                    return context.getSet();
+                }
+
+                public TreeSet<Comparable> closure(TreeSet<Comparable> set) {
+                    return context.closure(set);
+                }
+
+                public void save(String file) throws IOException {
+                }
+            };
+            assertEquals(generic.getReducibleElements(), context.getReducibleElements());
+        }
+    }
+
+    /**
+     * Test clarification.
+     */
+    @Test
+    public void testClarification() {
+        Context context = new Context();
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "c");
+        context.addExtentIntent("3", "c");
+        TreeMap<Comparable, TreeSet<Comparable>> red = context.clarification();
+        assertEquals("{3=[2], b=[a]}", red.toString());
+        assertEquals("[a, c]", context.getAttributes().toString());
+        assertEquals("[1, 2]", context.getObservations().toString());
+        assertTrue(context.getIntent("2").contains("c"));
+    }
+
+    /**
+     * Test reduction of observations without reversing the context.
+     */
+    @Test
+    public void testObservationsReduction() {
+        Context context = new Context();
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addToObservations("4");
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("2", "c");
+        context.addExtentIntent("3", "a");
+        context.addExtentIntent("4", "c");
+        TreeMap<Comparable, TreeSet<Comparable>> red = context.observationsReduction();
+        assertEquals("{3=[1, 2]}", red.toString());
+        assertEquals("[1, 2, 4]", context.getObservations().toString());
+    }
 }
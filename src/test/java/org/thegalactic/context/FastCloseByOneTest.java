@@ -0,0 +1,97 @@
+package org.thegalactic.context;
+
+/*
+ * FastCloseByOneTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import static org.thegalactic.context.ConceptMinerAssert.assertConcepts;
+import static org.thegalactic.context.ConceptMinerAssert.assertExtents;
+import static org.thegalactic.context.ConceptMinerAssert.intents;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * FastCloseByOne test.
+ */
+public class FastCloseByOneTest {
+
+    /**
+     * Test the concepts of a random context.
+     */
+    @Test
+    public void testConcepts() {
+        Context context = Context.random(30, 4, 4);
+        assertConcepts(context, new FastCloseByOne(context));
+    }
+
+    /**
+     * Test the concepts of a context with more than one word of attributes.
+     */
+    @Test
+    public void testConceptsWords() {
+        Context context = Context.random(12, 2, 40);
+        assertConcepts(context, new FastCloseByOne(context));
+    }
+
+    /**
+     * Test the concepts of a context with a full row and an empty column.
+     */
+    @Test
+    public void testConceptsBounds() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "a");
+        assertConcepts(context, new FastCloseByOne(context));
+        assertEquals(3, new FastCloseByOne(context).concepts().size());
+    }
+
+    /**
+     * Test that a parallel enumeration gives the same concepts at any split
+     * depth.
+     */
+    @Test
+    public void testParallel() {
+        Context context = Context.random(40, 4, 4);
+        TreeSet<ComparableSet> expected = intents(new FastCloseByOne(context).concepts());
+        for (int depth = 0; depth <= 4; depth++) {
+            FastCloseByOne engine = new FastCloseByOne(context);
+            engine.setParallelism(4);
+            engine.setSplitDepth(depth);
+            List<Concept> concepts = engine.concepts();
+            assertEquals(expected.size(), concepts.size());
+            assertEquals(expected, intents(concepts));
+            assertExtents(context, concepts);
+        }
+    }
+
+    /**
+     * Test the concepts of an empty context.
+     */
+    @Test
+    public void testConceptsEmpty() {
+        List<Concept> concepts = new FastCloseByOne(new Context()).concepts();
+        assertEquals(1, concepts.size());
+        assertTrue(concepts.get(0).getSetA().isEmpty());
+    }
+}
@@ -0,0 +1,62 @@
+package org.thegalactic.context;
+
+/*
+ * FrequentClosedMinerTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * FrequentClosedMiner test.
+ */
+public class FrequentClosedMinerTest {
+
+    /**
+     * Test the frequent closed sets against the filtered concepts, for each
+     * minimal support.
+     */
+    @Test
+    public void testConcepts() {
+        Context context = Context.random(30, 4, 4);
+        List<Concept> all = new FastCloseByOne(context).concepts();
+        for (int minSupport = 0; minSupport <= 31; minSupport += 3) {
+            TreeSet<ComparableSet> expected = new TreeSet<ComparableSet>();
+            expected.add(new ComparableSet(context.closure(new TreeSet<Comparable>())));
+            for (Concept concept : all) {
+                if (concept.getSetB().size() >= minSupport) {
+                    expected.add(new ComparableSet(concept.getSetA()));
+                }
+            }
+            List<Concept> concepts = new FrequentClosedMiner(context, minSupport).concepts();
+            TreeSet<ComparableSet> intents = new TreeSet<ComparableSet>();
+            for (Concept concept : concepts) {
+                intents.add(new ComparableSet(concept.getSetA()));
+                assertEquals(context.getExtent(concept.getSetA()), concept.getSetB());
+            }
+            assertEquals(expected.size(), concepts.size());
+            assertEquals(expected, intents);
+        }
+    }
+
+    /**
+     * Test the minimal support accessor.
+     */
+    @Test
+    public void testGetMinSupport() {
+        assertEquals(2, new FrequentClosedMiner(new Context(), 2).getMinSupport());
+    }
+}
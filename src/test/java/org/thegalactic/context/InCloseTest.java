@@ -0,0 +1,137 @@
+package org.thegalactic.context;
+
+/*
+ * InCloseTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.thegalactic.context.ConceptMinerAssert.assertConcepts;
+import static org.thegalactic.context.ConceptMinerAssert.assertExtents;
+import static org.thegalactic.context.ConceptMinerAssert.intents;
+
+import java.util.List;
+import java.util.Random;
+
+import org.thegalactic.lattice.Concept;
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * InClose test.
+ */
+public class InCloseTest {
+
+    /**
+     * Returns a set of attributes.
+     *
+     * @param attributes the attributes, one per character
+     *
+     * @return a new set
+     */
+    private static ComparableSet set(String attributes) {
+        ComparableSet set = new ComparableSet();
+        for (char c : attributes.toCharArray()) {
+            set.add(String.valueOf(c));
+        }
+        return set;
+    }
+
+    /**
+     * Test the concepts of a random context.
+     */
+    @Test
+    public void testConcepts() {
+        Context context = Context.random(30, 4, 4);
+        assertConcepts(context, new InClose(context));
+    }
+
+    /**
+     * Test the concepts of a context with far more attributes than
+     * observations, many attributes sharing the same column.
+     */
+    @Test
+    public void testWide() {
+        Context context = new Context();
+        Random random = new Random(1);
+        for (int o = 0; o < 8; o++) {
+            context.addToObservations(o);
+        }
+        for (int a = 0; a < 300; a++) {
+            context.addToAttributes(a);
+            for (int o = 0; o < 8; o++) {
+                if (random.nextInt(3) == 0) {
+                    context.addExtentIntent(o, a);
+                }
+            }
+        }
+        assertConcepts(context, new InClose(context));
+        List<Concept> concepts = new InClose(context).concepts();
+        assertEquals(intents(new FastCloseByOne(context).concepts()), intents(concepts));
+    }
+
+    /**
+     * Test the completion of partial intents and the canonicity test.
+     *
+     * Attribute e belongs to every observation and is added to the intent of
+     * the top concept while its attributes are scanned. The column of b is
+     * included in the column of a, so the child of the top concept by b is
+     * not canonical: the concept of intent a b c e is generated once, from the
+     * concept of intent a e, where c is then added to its partial intent.
+     */
+    @Test
+    public void testPartialClosure() {
+        Context context = new Context();
+        for (char c : "abcde".toCharArray()) {
+            context.addToAttributes(String.valueOf(c));
+        }
+        String[] intents = {"abce", "abce", "ade", "de"};
+        for (int o = 0; o < intents.length; o++) {
+            context.addToObservations(o);
+            for (char c : intents[o].toCharArray()) {
+                context.addExtentIntent(o, String.valueOf(c));
+            }
+        }
+        List<Concept> concepts = new InClose(context).concepts();
+        String[] expected = {"e", "ae", "abce", "abcde", "ade", "de"};
+        assertEquals(expected.length, concepts.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(set(expected[i]), concepts.get(i).getSetA());
+        }
+        assertExtents(context, concepts);
+    }
+
+    /**
+     * Test the concepts of a context with a full row and an empty column.
+     */
+    @Test
+    public void testConceptsBounds() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToAttributes("c");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "a");
+        assertConcepts(context, new InClose(context));
+    }
+
+    /**
+     * Test the concepts of an empty context.
+     */
+    @Test
+    public void testConceptsEmpty() {
+        List<Concept> concepts = new InClose(new Context()).concepts();
+        assertEquals(1, concepts.size());
+        assertTrue(concepts.get(0).getSetA().isEmpty());
+    }
+}
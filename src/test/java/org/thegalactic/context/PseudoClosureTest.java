@@ -0,0 +1,126 @@
+package org.thegalactic.context;
+
+/*
+ * PseudoClosureTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.thegalactic.rule.ImplicationalSystem;
+import org.thegalactic.rule.Rule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PseudoClosure test.
+ */
+public class PseudoClosureTest {
+
+    /**
+     * Builds a context whose attributes are not added in their natural order.
+     *
+     * Its canonical basis is b -> a, c -> a, d -> a b c and a b c -> d.
+     *
+     * @return a context
+     */
+    private Context getContext() {
+        Context context = new Context();
+        context.addToAttributes("d");
+        context.addToAttributes("c");
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addToObservations("4");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "b");
+        context.addExtentIntent("2", "a");
+        context.addExtentIntent("2", "c");
+        context.addExtentIntent("3", "a");
+        context.addToObservations("5");
+        return context;
+    }
+
+    /**
+     * Returns a rule.
+     *
+     * @param premise    the premise, one attribute per character
+     * @param conclusion the conclusion, one attribute per character
+     *
+     * @return a new rule
+     */
+    private static Rule rule(String premise, String conclusion) {
+        TreeSet<Comparable> p = new TreeSet<Comparable>();
+        for (char c : premise.toCharArray()) {
+            p.add(String.valueOf(c));
+        }
+        TreeSet<Comparable> q = new TreeSet<Comparable>();
+        for (char c : conclusion.toCharArray()) {
+            q.add(String.valueOf(c));
+        }
+        return new Rule(p, q);
+    }
+
+    /**
+     * Test the canonical basis of a small context.
+     */
+    @Test
+    public void testCanonicalBasis() {
+        ImplicationalSystem basis = getContext().canonicalBasis();
+        assertEquals(4, basis.sizeElements());
+        assertEquals(4, basis.sizeRules());
+        assertTrue(basis.containsRule(rule("b", "a")));
+        assertTrue(basis.containsRule(rule("c", "a")));
+        assertTrue(basis.containsRule(rule("d", "abc")));
+        assertTrue(basis.containsRule(rule("abc", "d")));
+        assertTrue(basis.isCanonicalBasis());
+    }
+
+    /**
+     * Test the canonical basis of random contexts against the canonical basis
+     * computed from the implications X -> X'' of all sets of attributes.
+     */
+    @Test
+    public void testRandom() {
+        for (int i = 0; i < 10; i++) {
+            Context context = Context.random(10, 2, 3);
+            List<Comparable> attributes = new ArrayList<Comparable>(context.getAttributes());
+            ImplicationalSystem expected = new ImplicationalSystem();
+            expected.addAllElements(context.getAttributes());
+            for (int bits = 0; bits < 1 << attributes.size(); bits++) {
+                TreeSet<Comparable> premise = new TreeSet<Comparable>();
+                for (int k = 0; k < attributes.size(); k++) {
+                    if ((bits & 1 << k) != 0) {
+                        premise.add(attributes.get(k));
+                    }
+                }
+                TreeSet<Comparable> conclusion = context.closure(premise);
+                conclusion.removeAll(premise);
+                if (!conclusion.isEmpty()) {
+                    expected.addRule(new Rule(premise, conclusion));
+                }
+            }
+            expected.makeCanonicalBasis();
+            assertEquals(expected.getRules(), context.canonicalBasis().getRules());
+        }
+    }
+
+    /**
+     * Test the canonical basis of an empty context.
+     */
+    @Test
+    public void testEmpty() {
+        assertEquals(0, new Context().canonicalBasis().sizeRules());
+    }
+}
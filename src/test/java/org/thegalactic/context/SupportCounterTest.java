@@ -0,0 +1,117 @@
+package org.thegalactic.context;
+
+/*
+ * SupportCounterTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * SupportCounter test.
+ */
+public class SupportCounterTest {
+
+    /**
+     * Returns random sets of attributes of a context.
+     *
+     * @param context a context
+     * @param count   the number of sets
+     *
+     * @return the sets
+     */
+    private static List<TreeSet<Comparable>> randomSets(Context context, int count) {
+        Random random = new Random(2);
+        ArrayList<Comparable> attributes = new ArrayList<Comparable>(context.getAttributes());
+        List<TreeSet<Comparable>> sets = new ArrayList<TreeSet<Comparable>>();
+        for (int i = 0; i < count; i++) {
+            TreeSet<Comparable> set = new TreeSet<Comparable>();
+            int size = random.nextInt(4);
+            for (int k = 0; k < size; k++) {
+                set.add(attributes.get(random.nextInt(attributes.size())));
+            }
+            sets.add(set);
+        }
+        return sets;
+    }
+
+    /**
+     * Test supports against getExtentNb.
+     */
+    @Test
+    public void testSupports() {
+        Context context = Context.random(200, 4, 10);
+        List<TreeSet<Comparable>> sets = randomSets(context, 500);
+        int[] supports = new SupportCounter(context).supports(sets);
+        for (int i = 0; i < sets.size(); i++) {
+            assertEquals(context.getExtentNb(sets.get(i)), supports[i]);
+        }
+        assertArrayEquals(supports, context.getExtentNb(sets));
+    }
+
+    /**
+     * Test supports in parallel.
+     */
+    @Test
+    public void testSupportsParallel() {
+        Context context = Context.random(200, 4, 10);
+        List<TreeSet<Comparable>> sets = randomSets(context, 5000);
+        SupportCounter counter = new SupportCounter(context);
+        counter.setParallelism(1);
+        int[] expected = counter.supports(sets);
+        counter.setParallelism(4);
+        counter.setThreshold(1);
+        assertEquals(4, counter.getParallelism());
+        assertEquals(1, counter.getThreshold());
+        assertArrayEquals(expected, counter.supports(sets));
+    }
+
+    /**
+     * Test supports of sets of identifiers.
+     */
+    @Test
+    public void testSupportsWords() {
+        Context context = Context.random(100, 3, 5);
+        List<TreeSet<Comparable>> sets = randomSets(context, 100);
+        long[][] words = new long[sets.size()][];
+        for (int i = 0; i < sets.size(); i++) {
+            words[i] = context.toAttributeWords(sets.get(i));
+        }
+        SupportCounter counter = new SupportCounter(context);
+        assertArrayEquals(counter.supports(sets), counter.supports(words));
+    }
+
+    /**
+     * Test supports of empty and unknown sets.
+     */
+    @Test
+    public void testSupportsSpecial() {
+        Context context = new Context();
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToAttributes("a");
+        context.addExtentIntent("1", "a");
+        List<TreeSet<Comparable>> sets = new ArrayList<TreeSet<Comparable>>();
+        sets.add(new TreeSet<Comparable>());
+        TreeSet<Comparable> unknown = new TreeSet<Comparable>();
+        unknown.add("z");
+        sets.add(unknown);
+        TreeSet<Comparable> set = new TreeSet<Comparable>();
+        set.add("a");
+        sets.add(set);
+        assertArrayEquals(new int[] {2, 0, 1}, new SupportCounter(context).supports(sets));
+    }
+}
@@ -0,0 +1,110 @@
+package org.thegalactic.context.io;
+
+/*
+ * ContextSerializerBinaryTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.thegalactic.context.Context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the org.thegalactic.context.io.ContextSerializerBinary class.
+ */
+public class ContextSerializerBinaryTest {
+
+    /**
+     * Test getInstance.
+     */
+    @Test
+    public void testGetInstance() {
+        ContextSerializerBinary serializer = ContextSerializerBinary.getInstance();
+        assertEquals(serializer, ContextSerializerBinary.getInstance());
+    }
+
+    /**
+     * Test save and read.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test
+    public void testReadWrite() throws IOException {
+        File file = File.createTempFile("junit", ".ctxb");
+        String filename = file.getPath();
+        Context context = new Context();
+        context.addToAttributes("c");
+        context.addToAttributes("a");
+        context.addToAttributes("bé");
+        context.addToObservations(3);
+        context.addToObservations(1);
+        context.addToObservations(2);
+        context.addExtentIntent(1, "a");
+        context.addExtentIntent(1, "bé");
+        context.addExtentIntent(2, "a");
+        context.addExtentIntent(3, "bé");
+        context.addExtentIntent(3, "c");
+        context.save(filename);
+        Context copy = new Context(filename);
+        assertEquals(context.getAttributes(), copy.getAttributes());
+        assertEquals(context.getObservations(), copy.getObservations());
+        for (Comparable observation : context.getObservations()) {
+            assertEquals(context.getIntent(observation), copy.getIntent(observation));
+        }
+        for (Comparable attribute : context.getAttributes()) {
+            assertEquals(context.getExtent(attribute), copy.getExtent(attribute));
+        }
+        assertEquals(context.allClosures().size(), copy.allClosures().size());
+        assertTrue(copy.addToObservations(4));
+        assertTrue(copy.addExtentIntent(4, "c"));
+        assertTrue(copy.addExtentIntent(2, "c"));
+        assertEquals(3, copy.getExtent("c").size());
+        // the mapped file is left unchanged
+        Context unchanged = new Context(filename);
+        assertEquals(context.getObservations(), unchanged.getObservations());
+        assertEquals(context.getExtent("c"), unchanged.getExtent("c"));
+        file.delete();
+    }
+
+    /**
+     * Test reading an invalid file.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test(expected = IOException.class)
+    public void testReadInvalid() throws IOException {
+        File file = File.createTempFile("junit", ".ctxb");
+        file.deleteOnExit();
+        FileWriter writer = new FileWriter(file);
+        writer.write("Observations: 1 2 3\nAttributes: a b c\n");
+        writer.close();
+        new Context(file.getPath());
+    }
+
+    /**
+     * Test writing a context whose elements are neither integers nor strings.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test(expected = IOException.class)
+    public void testWriteUnsupported() throws IOException {
+        File file = File.createTempFile("junit", ".ctxb");
+        file.deleteOnExit();
+        Context context = new Context();
+        context.addToAttributes('a');
+        context.addToObservations(1);
+        context.addExtentIntent(1, 'a');
+        context.save(file.getPath());
+    }
+}
@@ -18,8 +18,11 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
+import java.io.StringReader;
+import java.util.Arrays;
 
 import org.thegalactic.context.Context;
 
@@ -257,4 +260,53 @@ public class ContextSerializerCsvTest {
             new File(filename).delete();
         }
     }
+
+    /**
+     * Test read with a projection of the attributes.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test
+    public void testReadProjection() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(",a,b,c\n1,1,0,1\n2,0,1,1\n"));
+        Context context = new Context();
+        ContextSerializerCsv.getInstance().read(context, reader, Arrays.asList("a", "c"));
+        assertEquals("[a, c]", context.getAttributes().toString());
+        assertEquals("[1, 2]", context.getObservations().toString());
+        assertEquals("[1]", context.getExtent("a").toString());
+        assertEquals("[1, 2]", context.getExtent("c").toString());
+    }
+
+    /**
+     * Test read with a projection on an unknown attribute.
+     */
+    @Test
+    public void testReadProjectionUnknown() {
+        BufferedReader reader = new BufferedReader(new StringReader(",a,b,c\n1,1,0,1\n"));
+        try {
+            ContextSerializerCsv.getInstance().read(new Context(), reader, Arrays.asList("a", "d"));
+            fail();
+        } catch (IOException e) {
+            assertEquals(e.toString(), "java.io.IOException: Projected attribute not found");
+        }
+    }
+
+    /**
+     * Test read into a non-empty context.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test
+    public void testReadNonEmpty() throws IOException {
+        Context context = new Context();
+        context.addToObservations("0");
+        context.addToAttributes("z");
+        context.addExtentIntent("0", "z");
+        BufferedReader reader = new BufferedReader(new StringReader(",a,b\n1,1,0\n2,1,1\n"));
+        ContextSerializerCsv.getInstance().read(context, reader);
+        assertEquals("[0, 1, 2]", context.getObservations().toString());
+        assertEquals("[a, b, z]", context.getAttributes().toString());
+        assertEquals("[z]", context.getIntent("0").toString());
+        assertEquals("[a, b]", context.getIntent("2").toString());
+    }
 }
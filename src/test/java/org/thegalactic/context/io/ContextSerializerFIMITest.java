@@ -13,10 +13,19 @@ package org.thegalactic.context.io;
  */
 import org.junit.Test;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
 
 import org.thegalactic.context.Context;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test the org.thegalactic.dgraph.io.ContextSerializerFIMITest class.
@@ -61,4 +70,109 @@ public class ContextSerializerFIMITest {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Test read from a file channel split into several chunks.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test
+    public void testReadChannel() throws IOException {
+        File file = File.createTempFile("junit", ".dat");
+        Writer writer = new FileWriter(file);
+        Random random = new Random(1);
+        for (int line = 0; line < 100000; line++) {
+            for (int i = 0; i < 10; i++) {
+                writer.write(Integer.toString(random.nextInt(1000)));
+                writer.write(' ');
+            }
+            writer.write('\n');
+        }
+        writer.close();
+        Context expected = new Context();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        ContextSerializerFIMI.getInstance().read(expected, reader);
+        reader.close();
+        Context context = new Context();
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        FileChannel channel = input.getChannel();
+        ContextSerializerFIMI.getInstance().read(context, channel);
+        input.close();
+        file.delete();
+        assertEquals(expected.getObservations(), context.getObservations());
+        assertEquals(expected.getAttributes(), context.getAttributes());
+        for (Comparable observation : expected.getObservations()) {
+            assertEquals(expected.getIntent(observation), context.getIntent(observation));
+        }
+    }
+
+    /**
+     * Test read from a file channel with empty lines, blanks and no final
+     * line feed.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test
+    public void testReadChannelLines() throws IOException {
+        File file = File.createTempFile("junit", ".dat");
+        Writer writer = new FileWriter(file);
+        writer.write("1 2\r\n\n\t3  -1\n2");
+        writer.close();
+        Context context = new Context();
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        ContextSerializerFIMI.getInstance().read(context, input.getChannel());
+        input.close();
+        file.delete();
+        assertEquals(4, context.getObservations().size());
+        assertEquals(4, context.getAttributes().size());
+        assertEquals(2, context.getIntent("O1").size());
+        assertTrue(context.getIntent("O2").isEmpty());
+        assertTrue(context.getIntent("O3").contains(-1));
+        assertTrue(context.getIntent("O4").contains(2));
+    }
+
+    /**
+     * Test read from a file channel with an invalid item.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test(expected = IOException.class)
+    public void testReadChannelInvalid() throws IOException {
+        File file = File.createTempFile("junit", ".dat");
+        Writer writer = new FileWriter(file);
+        writer.write("1 2\n3 a\n");
+        writer.close();
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            ContextSerializerFIMI.getInstance().read(new Context(), input.getChannel());
+        } finally {
+            input.close();
+            file.delete();
+        }
+    }
+
+    /**
+     * Test that chunks of large files are at most 1 GiB on a single processor.
+     */
+    @Test
+    public void testChunkCount() {
+        assertEquals(1, ContextSerializerFIMI.chunkCount(0, 1));
+        assertEquals(1, ContextSerializerFIMI.chunkCount(1 << 20, 1));
+        assertEquals(8, ContextSerializerFIMI.chunkCount(64L << 20, 2));
+        assertEquals(16, ContextSerializerFIMI.chunkCount(16L << 30, 1));
+        assertEquals(17, ContextSerializerFIMI.chunkCount((16L << 30) + 1, 2));
+        assertTrue((20L << 30) / ContextSerializerFIMI.chunkCount(20L << 30, 1) <= 1L << 30);
+    }
+
+    /**
+     * Test that a number of cells exceeding the range of an integer is
+     * rejected.
+     *
+     * @throws IOException When an IOException occurs
+     */
+    @Test(expected = IOException.class)
+    public void testCellCount() throws IOException {
+        assertEquals(Integer.MAX_VALUE, ContextSerializerFIMI.cellCount(Integer.MAX_VALUE));
+        ContextSerializerFIMI.cellCount(Integer.MAX_VALUE + 1L);
+    }
 }
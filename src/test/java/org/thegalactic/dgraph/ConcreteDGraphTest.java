@@ -368,6 +368,33 @@ public class ConcreteDGraphTest {
         assertTrue(graph.getPredecessorEdges(target).isEmpty());
     }
 
+    /**
+     * Test the removeNode method on a node with several edges to a node that
+     * has other edges.
+     */
+    @Test
+    public void testRemoveNodeEdges() {
+        Node node = new Node();
+        Node other = new Node();
+        Node first = new Node();
+        Node second = new Node();
+        ConcreteDGraph graph = new ConcreteDGraph();
+        graph.addNode(node);
+        graph.addNode(other);
+        graph.addNode(first);
+        graph.addNode(second);
+        graph.addEdge(first, node);
+        graph.addEdge(second, node);
+        graph.addEdge(node, other);
+        graph.addEdge(first, other);
+        graph.addEdge(second, other);
+        assertTrue(graph.removeNode(node));
+        assertEquals(2, graph.sizeEdges());
+        assertEquals(2, graph.getPredecessorEdges(other).size());
+        assertEquals(1, graph.getSuccessorEdges(first).size());
+        assertEquals(1, graph.getSuccessorEdges(second).size());
+    }
+
     /**
      * Test the removeNodes method.
      */
@@ -0,0 +1,165 @@
+package org.thegalactic.lattice;
+
+/*
+ * CachedClosureSystemTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.TreeSet;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.rule.ImplicationalSystem;
+import org.thegalactic.rule.Rule;
+
+/**
+ * CachedClosureSystem test.
+ */
+public class CachedClosureSystemTest {
+
+    /**
+     * Returns an implicational system on {a, b, c} with the rule a -> b c.
+     *
+     * @return an implicational system
+     */
+    private static ImplicationalSystem system() {
+        ImplicationalSystem is = new ImplicationalSystem();
+        is.addElement('a');
+        is.addElement('b');
+        is.addElement('c');
+        Rule r = new Rule();
+        r.addToPremise('a');
+        r.addToConclusion('b');
+        r.addToConclusion('c');
+        is.addRule(r);
+        return is;
+    }
+
+    /**
+     * Returns a set of elements.
+     *
+     * @param elements the elements
+     *
+     * @return a new set
+     */
+    private static TreeSet<Comparable> set(Comparable... elements) {
+        TreeSet<Comparable> set = new TreeSet<Comparable>();
+        for (Comparable element : elements) {
+            set.add(element);
+        }
+        return set;
+    }
+
+    /**
+     * Test the closures and the counters.
+     */
+    @Test
+    public void testClosure() {
+        CachedClosureSystem cache = new CachedClosureSystem(system());
+        assertEquals(set('a', 'b', 'c'), cache.closure(set('a')));
+        assertEquals(set('a', 'b', 'c'), cache.closure(set('a')));
+        assertEquals(set('b'), cache.closure(set('b')));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.getWeight());
+        TreeSet<Comparable> closure = cache.closure(set('a'));
+        closure.clear();
+        assertEquals(set('a', 'b', 'c'), cache.closure(set('a')));
+        assertEquals(set('d'), cache.closure(set('d')));
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * Test the eviction of the least recently used closures.
+     */
+    @Test
+    public void testEviction() {
+        CachedClosureSystem cache = new CachedClosureSystem(system(), 2);
+        cache.closure(set('a'));
+        cache.closure(set('b'));
+        cache.closure(set('a'));
+        cache.closure(set('c'));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        cache.closure(set('a'));
+        assertEquals(2, cache.getHits());
+        cache.closure(set('b'));
+        assertEquals(2, cache.getHits());
+        cache = new CachedClosureSystem(system(), 10, 4);
+        cache.closure(set('a'));
+        cache.closure(set('b'));
+        cache.closure(set('c'));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getWeight());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    /**
+     * Test the invalidation of the cache by a modification of an
+     * implicational system.
+     */
+    @Test
+    public void testInvalidationImplicationalSystem() {
+        ImplicationalSystem is = system();
+        CachedClosureSystem cache = new CachedClosureSystem(is);
+        assertEquals(set('b'), cache.closure(set('b')));
+        Rule r = new Rule();
+        r.addToPremise('b');
+        r.addToConclusion('c');
+        is.addRule(r);
+        assertEquals(set('b', 'c'), cache.closure(set('b')));
+        assertEquals(0, cache.getHits());
+        is.addElement('d');
+        assertEquals(set('d'), cache.closure(set('d')));
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Test the invalidation of the cache by a modification of a context.
+     */
+    @Test
+    public void testInvalidationContext() {
+        Context context = new Context();
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToObservations("1");
+        context.addExtentIntent("1", "a");
+        CachedClosureSystem cache = new CachedClosureSystem(context);
+        assertEquals(set("a"), cache.closure(set("a")));
+        context.addExtentIntent("1", "b");
+        assertEquals(set("a", "b"), cache.closure(set("a")));
+        context.removeExtentIntent("1", "b");
+        assertEquals(set("a"), cache.closure(set("a")));
+        context.addToObservations("2");
+        context.addExtentIntent("2", "b");
+        assertEquals(set("b"), cache.closure(set("b")));
+        context.removeFromObservations("1");
+        assertEquals(set("a", "b"), cache.closure(set("a")));
+        assertEquals(0, cache.getHits());
+    }
+
+    /**
+     * Test the lattices of a cached context.
+     */
+    @Test
+    public void testLattice() {
+        Context context = Context.random(10, 3, 4);
+        CachedClosureSystem cache = new CachedClosureSystem(context);
+        ConceptLattice expected = ConceptLattice.diagramLattice(context);
+        ConceptLattice lattice = ConceptLattice.diagramLattice(cache);
+        assertEquals(expected.getNodes().size(), lattice.getNodes().size());
+        assertEquals(expected.getEdges().size(), lattice.getEdges().size());
+        assertEquals(context.getReducibleElements(), cache.getReducibleElements());
+        assertTrue(cache.getHits() > 0);
+    }
+}
@@ -0,0 +1,96 @@
+package org.thegalactic.lattice;
+
+/*
+ * ClosureIteratorTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+import org.thegalactic.rule.ImplicationalSystem;
+import org.thegalactic.rule.Rule;
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * ClosureIterator test.
+ */
+public class ClosureIteratorTest {
+
+    /**
+     * Returns an implicational system on {a, b, c} with the rule a -> b c.
+     *
+     * @return an implicational system
+     */
+    private static ImplicationalSystem system() {
+        ImplicationalSystem is = new ImplicationalSystem();
+        is.addElement('a');
+        is.addElement('b');
+        is.addElement('c');
+        Rule r = new Rule();
+        r.addToPremise('a');
+        r.addToConclusion('b');
+        r.addToConclusion('c');
+        is.addRule(r);
+        return is;
+    }
+
+    /**
+     * Test the closed sets and their lectic order.
+     */
+    @Test
+    public void testIterator() {
+        Iterator<Concept> closures = new ClosureIterator(system());
+        String[] expected = {"[]", "[c]", "[b]", "[b, c]", "[a, b, c]"};
+        ComparableSet previous = null;
+        for (String closed : expected) {
+            assertTrue(closures.hasNext());
+            ComparableSet set = new ComparableSet(closures.next().getSetA());
+            assertEquals(closed, set.toString());
+            if (previous != null) {
+                assertTrue(previous.compareTo(set) < 0);
+            }
+            previous = set;
+        }
+        assertFalse(closures.hasNext());
+    }
+
+    /**
+     * Test the end of the iteration.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void testNoSuchElement() {
+        Iterator<Concept> closures = new ClosureIterator(new ImplicationalSystem());
+        assertEquals("[]", closures.next().getSetA().toString());
+        assertFalse(closures.hasNext());
+        closures.next();
+    }
+
+    /**
+     * Test closureIterator of a random implicational system.
+     */
+    @Test
+    public void testClosureIterator() {
+        ImplicationalSystem is = ImplicationalSystem.random(8, 6);
+        Iterator<Concept> closures = is.closureIterator();
+        TreeSet<ComparableSet> sets = new TreeSet<ComparableSet>();
+        while (closures.hasNext()) {
+            TreeSet<Comparable> set = closures.next().getSetA();
+            assertEquals(is.closure(set), set);
+            assertTrue(sets.add(new ComparableSet(set)));
+        }
+        assertEquals(is.getSet(), sets.last());
+    }
+}
@@ -0,0 +1,110 @@
+package org.thegalactic.lattice;
+
+/*
+ * ConceptIndexTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * ConceptIndex test.
+ */
+public class ConceptIndexTest {
+
+    /**
+     * Returns a set of the specified elements.
+     *
+     * @param elements elements
+     *
+     * @return a set
+     */
+    private static ComparableSet set(Comparable... elements) {
+        ComparableSet set = new ComparableSet();
+        for (Comparable element : elements) {
+            set.add(element);
+        }
+        return set;
+    }
+
+    /**
+     * Test the addition and the removal of concepts.
+     */
+    @Test
+    public void testAddRemove() {
+        ConceptIndex index = new ConceptIndex();
+        Concept concept = new Concept(set("a", "b"), set(1));
+        index.add(concept);
+        assertTrue(concept == index.getByIntent(set("a", "b")));
+        assertTrue(concept == index.getByExtent(set(1)));
+        assertEquals(null, index.getByIntent(set("a")));
+        assertTrue(index.isUnique());
+        assertTrue(index.remove(concept));
+        assertEquals(null, index.getByIntent(set("a", "b")));
+        assertEquals(null, index.getByExtent(set(1)));
+    }
+
+    /**
+     * Test the keys are copies of the sets.
+     */
+    @Test
+    public void testCopies() {
+        ConceptIndex index = new ConceptIndex();
+        Concept concept = new Concept(set("a"), set(1));
+        index.add(concept);
+        concept.addToA("b");
+        assertTrue(concept == index.getByIntent(set("a")));
+        assertEquals(null, index.getByIntent(set("a", "b")));
+        assertFalse(index.remove(concept));
+    }
+
+    /**
+     * Test that concepts are still found once more elements are interned.
+     */
+    @Test
+    public void testKeys() {
+        ConceptIndex index = new ConceptIndex();
+        Concept first = new Concept(set("a"), set(1));
+        index.add(first);
+        ComparableSet large = new ComparableSet();
+        for (int i = 0; i < 100; i++) {
+            large.add(i);
+        }
+        Concept second = new Concept(large, set(2));
+        index.add(second);
+        assertTrue(first == index.getByIntent(set("a")));
+        assertTrue(second == index.getByIntent(new ComparableSet(large)));
+        assertTrue(index.remove(first));
+        assertEquals(null, index.getByIntent(set("a")));
+    }
+
+    /**
+     * Test concepts sharing a set.
+     */
+    @Test
+    public void testShared() {
+        ConceptIndex index = new ConceptIndex();
+        Concept first = new Concept(set(), set(1));
+        Concept second = new Concept(set(), set(2));
+        index.add(first);
+        index.add(second);
+        assertFalse(index.isUnique());
+        assertTrue(first == index.getByIntent(set()));
+        assertTrue(second == index.getByExtent(set(2)));
+        assertTrue(index.remove(second));
+        assertTrue(index.isUnique());
+        index.add(second);
+        assertFalse(index.remove(first));
+    }
+}
@@ -17,6 +17,8 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TreeSet;
 import java.util.Vector;
 import java.util.Scanner;
@@ -24,8 +26,11 @@ import java.io.File;
 
 import org.thegalactic.util.ComparableSet;
 import org.thegalactic.dgraph.DAGraph;
+import org.thegalactic.dgraph.Edge;
 import org.thegalactic.dgraph.Node;
 import org.thegalactic.context.Context;
+import org.thegalactic.context.InClose;
+import org.thegalactic.rule.ImplicationalSystem;
 
 /**
  * Test of class ConceptLattice.
@@ -179,6 +184,78 @@ public class ConceptLatticeTest {
         assertFalse(cl.getConcept(new ComparableSet(), new ComparableSet()) == null);
     }
 
+    /**
+     * Test of getConceptByIntent and getConceptByExtent methods.
+     */
+    @Test
+    public void testGetConceptByIntent() {
+        Context context = Context.random(15, 3, 3);
+        ConceptLattice lattice = ConceptLattice.closeByOneLattice(context);
+        for (Object node : lattice.getNodes()) {
+            Concept concept = (Concept) node;
+            assertTrue(concept == lattice.getConceptByIntent(new ComparableSet(concept.getSetA())));
+            assertTrue(concept == lattice.getConceptByExtent(new ComparableSet(concept.getSetB())));
+            assertTrue(concept == lattice.getConcept(new ComparableSet(concept.getSetA()),
+                    new ComparableSet(concept.getSetB())));
+        }
+        Concept top = (Concept) lattice.getNodes().last();
+        lattice.removeNode(top);
+        assertEquals(null, lattice.getConceptByIntent(top.getSetA()));
+        lattice.addNode(top);
+        assertTrue(top == lattice.getConceptByIntent(top.getSetA()));
+        // set A modified in place outside the lattice
+        ComparableSet former = new ComparableSet(top.getSetA());
+        top.addToA("unknown");
+        assertEquals(null, lattice.getConceptByIntent(former));
+        lattice.reindex();
+        assertTrue(top == lattice.getConceptByIntent(top.getSetA()));
+    }
+
+    /**
+     * Test of getConcept method when the sets of a concept are modified by the
+     * methods of the concept after it has been added.
+     */
+    @Test
+    public void testGetConceptModified() {
+        Context context = Context.random(15, 3, 3);
+        ConceptLattice lattice = ConceptLattice.closeByOneLattice(context);
+        ComparableSet setA = new ComparableSet();
+        setA.add("unknown");
+        Concept concept = new Concept(new ComparableSet(), new ComparableSet());
+        lattice.addNode(concept);
+        assertTrue(concept == lattice.getConcept(new ComparableSet(), new ComparableSet()));
+        concept.putSetA(setA);
+        lattice.reindex();
+        assertTrue(concept == lattice.getConcept(setA, new ComparableSet()));
+        concept.addToB("unknown");
+        assertEquals(null, lattice.getConceptByExtent(concept.getSetB()));
+        lattice.reindex();
+        assertTrue(concept == lattice.getConceptByExtent(concept.getSetB()));
+        // a modified concept is removed from the index
+        ComparableSet former = new ComparableSet(concept.getSetA());
+        concept.putSetA(new ComparableSet());
+        lattice.removeNode(concept);
+        concept.putSetA(former);
+        assertEquals(null, lattice.getConceptByIntent(former));
+        assertEquals(null, lattice.getConcept(former, new ComparableSet(concept.getSetB())));
+    }
+
+    /**
+     * Test of getConcept method when concepts share their sets.
+     */
+    @Test
+    public void testGetConceptShared() {
+        Context context = Context.random(15, 3, 3);
+        ConceptLattice lattice = ConceptLattice.closeByOneLattice(context);
+        lattice.makeIrreduciblesReduction();
+        for (Object node : lattice.getNodes()) {
+            Concept concept = (Concept) node;
+            Concept result = lattice.getConcept(new ComparableSet(concept.getSetA()), new ComparableSet(concept.getSetB()));
+            assertEquals(concept.getSetA(), result.getSetA());
+            assertEquals(concept.getSetB(), result.getSetB());
+        }
+    }
+
     /**
      * Test of removeAllSetA method, of class ConceptLattice.
      */
@@ -363,6 +440,177 @@ public class ConceptLatticeTest {
         assertEquals(9, result.getEdges().size());
     }
 
+    /**
+     * Test of completeLattice method with or without the transitive edges, of
+     * class ConceptLattice.
+     */
+    @Test
+    public void testCompleteLatticeDiagram() {
+        ClosureSystem[] systems = {Context.random(15, 3, 3), ImplicationalSystem.random(8, 6)};
+        for (ClosureSystem system : systems) {
+            ConceptLattice complete = ConceptLattice.completeLattice(system);
+            int comparable = 0;
+            for (Object source : complete.getNodes()) {
+                for (Object target : complete.getNodes()) {
+                    if (((Concept) target).containsAllInA(((Concept) source).getSetA())) {
+                        comparable++;
+                    }
+                }
+            }
+            assertEquals(comparable, complete.getEdges().size());
+            ConceptLattice diagram = ConceptLattice.completeLattice(system, true);
+            assertEquals(covers(ConceptLattice.diagramLattice(system)), covers(diagram));
+        }
+    }
+
+    /**
+     * Test of closeByOneLattice method, of class ConceptLattice.
+     */
+    @Test
+    public void testCloseByOneLattice() {
+        Context cs = Context.random(15, 3, 3);
+        ConceptLattice expected = ConceptLattice.completeLattice(cs);
+        ConceptLattice result = ConceptLattice.closeByOneLattice(cs);
+        assertEquals(expected.getNodes().size(), result.getNodes().size());
+        assertEquals(expected.getEdges().size(), result.getEdges().size());
+        ConceptLattice parallel = ConceptLattice.closeByOneLattice(cs, 3);
+        assertEquals(expected.getNodes().size(), parallel.getNodes().size());
+        assertEquals(expected.getEdges().size(), parallel.getEdges().size());
+        for (Object node : result.getNodes()) {
+            Concept concept = (Concept) node;
+            assertEquals(cs.getExtent(concept.getSetA()), concept.getSetB());
+        }
+    }
+
+    /**
+     * Test of completeLattice method with a concept miner, of class
+     * ConceptLattice.
+     */
+    @Test
+    public void testCompleteLatticeMiner() {
+        Context cs = Context.random(15, 3, 3);
+        ConceptLattice expected = ConceptLattice.completeLattice(cs);
+        ConceptLattice result = ConceptLattice.completeLattice(new InClose(cs));
+        assertEquals(expected.getNodes().size(), result.getNodes().size());
+        assertEquals(expected.getEdges().size(), result.getEdges().size());
+        expected = ConceptLattice.completeLattice(cs, true);
+        result = ConceptLattice.completeLattice(new InClose(cs), true);
+        assertEquals(expected.getNodes().size(), result.getNodes().size());
+        assertEquals(expected.getEdges().size(), result.getEdges().size());
+        assertEquals(ConceptLattice.diagramLattice(cs).getEdges().size(), result.getEdges().size());
+    }
+
+    /**
+     * Test of frequentIceberg method, of class ConceptLattice.
+     */
+    @Test
+    public void testFrequentIceberg() {
+        Context cs = Context.random(20, 3, 3);
+        ConceptLattice expected = ConceptLattice.diagramIceberg(cs, 0.2);
+        ConceptLattice result = ConceptLattice.frequentIceberg(cs, 0.2);
+        assertEquals(expected.getNodes().size(), result.getNodes().size());
+        assertEquals(expected.getEdges().size(), result.getEdges().size());
+        for (Object node : result.getNodes()) {
+            assertTrue(((Concept) node).getSetB().size() >= 4 || result.getPredecessorNodes((Node) node).isEmpty());
+        }
+    }
+
+    /**
+     * Returns the concepts of a lattice, as strings of their sets.
+     *
+     * @param lattice a concept lattice
+     *
+     * @return the sorted strings of the concepts
+     */
+    private static TreeSet<String> concepts(ConceptLattice lattice) {
+        TreeSet<String> concepts = new TreeSet<String>();
+        for (Object node : lattice.getNodes()) {
+            Concept concept = (Concept) node;
+            concepts.add(concept.getSetA() + " " + concept.getSetB());
+        }
+        return concepts;
+    }
+
+    /**
+     * Test of addObservation method, of class ConceptLattice.
+     */
+    @Test
+    public void testAddObservation() {
+        Context context = Context.random(20, 3, 4);
+        Context partial = new Context();
+        partial.addAllToAttributes(context.getAttributes());
+        ConceptLattice lattice = partial.conceptLattice(true);
+        for (Comparable observation : context.getObservations()) {
+            Concept concept = lattice.addObservation(observation, context.getIntent(observation));
+            assertEquals(context.getIntent(observation), concept.getSetA());
+        }
+        ConceptLattice expected = context.conceptLattice(true);
+        assertEquals(concepts(expected), concepts(lattice));
+        assertEquals(expected.getEdges().size(), lattice.getEdges().size());
+        assertTrue(lattice.isLattice());
+    }
+
+    /**
+     * Test of addObservation method on an empty lattice, of class
+     * ConceptLattice.
+     */
+    @Test
+    public void testAddObservationEmpty() {
+        ConceptLattice lattice = new ConceptLattice();
+        TreeSet<Comparable> intent = new TreeSet<Comparable>();
+        intent.add("a");
+        lattice.addObservation("1", intent);
+        assertEquals("[[a] [1]]", concepts(lattice).toString());
+        intent = new TreeSet<Comparable>();
+        intent.add("b");
+        lattice.addObservation("2", intent);
+        assertEquals("[[] [1, 2], [a, b] [], [a] [1], [b] [2]]", concepts(lattice).toString());
+        assertEquals(4, lattice.getEdges().size());
+    }
+
+    /**
+     * Test of removeObservation method, of class ConceptLattice.
+     */
+    @Test
+    public void testRemoveObservation() {
+        Context context = Context.random(20, 3, 4);
+        ConceptLattice lattice = context.conceptLattice(true);
+        List<Comparable> observations = new ArrayList<Comparable>(context.getObservations());
+        for (Comparable observation : observations.subList(0, 10)) {
+            assertTrue(lattice.removeObservation(observation, context.getIntent(observation)));
+            assertFalse(lattice.removeObservation(observation, context.getIntent(observation)));
+            context.removeFromObservations(observation);
+            ConceptLattice expected = context.conceptLattice(true);
+            assertEquals(concepts(expected), concepts(lattice));
+            assertEquals(expected.getEdges().size(), lattice.getEdges().size());
+        }
+    }
+
+    /**
+     * Test of updateObservation method, of class ConceptLattice.
+     */
+    @Test
+    public void testUpdateObservation() {
+        Context context = Context.random(20, 3, 4);
+        ConceptLattice lattice = context.conceptLattice(true);
+        int i = 0;
+        for (Comparable observation : new ArrayList<Comparable>(context.getObservations())) {
+            TreeSet<Comparable> former = context.getIntent(observation);
+            Comparable attribute = context.getAttributes().first();
+            if (i % 2 == 0) {
+                context.removeExtentIntent(observation, former.first());
+            } else {
+                context.addExtentIntent(observation, attribute);
+            }
+            i++;
+            Concept concept = lattice.updateObservation(observation, former, context.getIntent(observation));
+            assertEquals(context.getIntent(observation), concept.getSetA());
+        }
+        ConceptLattice expected = context.conceptLattice(true);
+        assertEquals(concepts(expected), concepts(lattice));
+        assertEquals(expected.getEdges().size(), lattice.getEdges().size());
+    }
+
     /**
      * Test of diagramLattice method, of class ConceptLattice.
      */
@@ -387,6 +635,58 @@ public class ConceptLatticeTest {
         assertEquals(null, ((Node) result.getNodes().first()).getContent());
     }
 
+    /**
+     * Returns the edges of a lattice, as strings.
+     *
+     * @param lattice a concept lattice
+     *
+     * @return the sorted strings of the edges
+     */
+    private static TreeSet<String> covers(ConceptLattice lattice) {
+        TreeSet<String> edges = new TreeSet<String>();
+        for (Object edge : lattice.getEdges()) {
+            Edge e = (Edge) edge;
+            edges.add(((Concept) e.getSource()).getSetA() + " < " + ((Concept) e.getTarget()).getSetA());
+        }
+        return edges;
+    }
+
+    /**
+     * Returns the cover edges and the dependencies of a lattice, as strings.
+     *
+     * @param lattice a concept lattice
+     *
+     * @return the sorted strings of the edges
+     */
+    private static TreeSet<String> diagram(ConceptLattice lattice) {
+        TreeSet<String> edges = covers(lattice);
+        for (Object edge : lattice.getDependencyGraph().getEdges()) {
+            Edge e = (Edge) edge;
+            edges.add(e.getSource() + " -> " + e.getTarget() + " " + e.getContent());
+        }
+        return edges;
+    }
+
+    /**
+     * Test of diagramLattice and diagramIceberg methods with several threads,
+     * of class ConceptLattice.
+     */
+    @Test
+    public void testDiagramLatticeParallel() {
+        ClosureSystem[] systems = {Context.random(20, 3, 3), ImplicationalSystem.random(8, 6)};
+        for (ClosureSystem system : systems) {
+            ConceptLattice expected = ConceptLattice.diagramLattice(system);
+            ConceptLattice result = ConceptLattice.diagramLattice(system, 4);
+            assertEquals(ConceptLattice.completeLattice(system).getNodes().size(), result.getNodes().size());
+            assertEquals(diagram(expected), diagram(result));
+        }
+        Context context = Context.random(20, 3, 3);
+        ConceptLattice expected = ConceptLattice.diagramIceberg(context, 0.2);
+        ConceptLattice result = ConceptLattice.diagramIceberg(context, 0.2, 4);
+        assertEquals(expected.getNodes().size(), result.getNodes().size());
+        assertEquals(diagram(expected), diagram(result));
+    }
+
     /**
      * Test of immediateSuccessors method, of class ConceptLattice.
      */
@@ -0,0 +1,117 @@
+package org.thegalactic.lattice;
+
+/*
+ * NextClosureTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Iterator;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextClosure;
+import org.thegalactic.rule.ImplicationalSystem;
+
+/**
+ * NextClosure test.
+ */
+public class NextClosureTest {
+
+    /**
+     * Asserts that the closed sets of a closure system are those of the
+     * generic iterator, in the same order.
+     *
+     * @param system a closure system
+     */
+    private static void assertClosures(ClosureSystem system) {
+        Iterator<Concept> expected = new ClosureIterator(system);
+        Iterator<Concept> closures = system.closureIterator();
+        while (expected.hasNext()) {
+            assertEquals(expected.next().getSetA(), closures.next().getSetA());
+        }
+        assertFalse(closures.hasNext());
+    }
+
+    /**
+     * Test the closed sets of a context.
+     */
+    @Test
+    public void testContext() {
+        assertClosures(Context.random(20, 3, 4));
+    }
+
+    /**
+     * Test the closed sets of a context with more than one word of
+     * attributes.
+     */
+    @Test
+    public void testContextWords() {
+        assertClosures(Context.random(12, 2, 40));
+    }
+
+    /**
+     * Test the closed sets of a context whose identifiers do not follow the
+     * natural order of attributes.
+     */
+    @Test
+    public void testContextOrder() {
+        Context context = new Context();
+        context.addToAttributes("c");
+        context.addToAttributes("a");
+        context.addToAttributes("b");
+        context.addToObservations("1");
+        context.addToObservations("2");
+        context.addToObservations("3");
+        context.addExtentIntent("1", "a");
+        context.addExtentIntent("1", "c");
+        context.addExtentIntent("2", "b");
+        context.addExtentIntent("3", "c");
+        assertClosures(context);
+    }
+
+    /**
+     * Test the closed sets of an implicational system.
+     */
+    @Test
+    public void testImplicationalSystem() {
+        assertClosures(ImplicationalSystem.random(8, 6));
+    }
+
+    /**
+     * Test the iteration on a context where the closure of the empty set is
+     * not empty.
+     */
+    @Test
+    public void testTop() {
+        Context context = new Context();
+        context.addToObservations("1");
+        context.addToAttributes("a");
+        context.addExtentIntent("1", "a");
+        Iterator<Concept> closures = context.closureIterator();
+        assertEquals("[a]", closures.next().getSetA().toString());
+        assertFalse(closures.hasNext());
+    }
+
+    /**
+     * Test that the last closed set is left unchanged.
+     */
+    @Test
+    public void testLast() {
+        Context context = Context.random(10, 2, 3);
+        NextClosure engine = new NextClosure(new ContextClosure(context));
+        long[] set = engine.getOperator().toWords(context.getAttributes());
+        long[] last = set.clone();
+        assertFalse(engine.nextClosure(set));
+        assertArrayEquals(last, set);
+    }
+}
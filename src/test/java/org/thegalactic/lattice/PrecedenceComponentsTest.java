@@ -0,0 +1,71 @@
+package org.thegalactic.lattice;
+
+/*
+ * PrecedenceComponentsTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.TreeSet;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.dgraph.DAGraph;
+import org.thegalactic.dgraph.Node;
+import org.thegalactic.rule.ImplicationalSystem;
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * PrecedenceComponents test.
+ */
+public class PrecedenceComponentsTest {
+
+    /**
+     * Test the valuation against the minorants in the acyclic precedence graph.
+     */
+    @Test
+    public void testValuation() {
+        ClosureSystem[] systems = {ImplicationalSystem.random(8, 6), Context.random(12, 3, 3)};
+        for (ClosureSystem system : systems) {
+            PrecedenceComponents components = new PrecedenceComponents(system);
+            DAGraph acyclPrec = system.precedenceGraph().getStronglyConnectedComponent();
+            for (Concept concept : system.allClosures()) {
+                ComparableSet setF = new ComparableSet(concept.getSetA());
+                ComparableSet expected = new ComparableSet(setF);
+                for (Object cc : acyclPrec.getNodes()) {
+                    boolean contains = false;
+                    for (Node x : (TreeSet<Node>) ((Node) cc).getContent()) {
+                        contains = contains || setF.contains(x.getContent());
+                    }
+                    if (contains) {
+                        for (Object minorant : acyclPrec.minorants((Node) cc)) {
+                            for (Node y : (TreeSet<Node>) ((Node) minorant).getContent()) {
+                                expected.remove(y.getContent());
+                            }
+                        }
+                    }
+                }
+                assertEquals(expected, components.valuation(setF));
+            }
+        }
+    }
+
+    /**
+     * Test that the diagram lattice is unchanged by the shared components.
+     */
+    @Test
+    public void testDiagramLattice() {
+        Context context = Context.random(15, 3, 3);
+        ConceptLattice lattice = ConceptLattice.diagramLattice(context);
+        ConceptLattice expected = ConceptLattice.frequentIceberg(context, 0);
+        assertEquals(expected.getNodes().size(), lattice.getNodes().size());
+        assertEquals(expected.getEdges().size(), lattice.getEdges().size());
+    }
+}
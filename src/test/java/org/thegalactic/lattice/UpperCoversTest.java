@@ -0,0 +1,50 @@
+package org.thegalactic.lattice;
+
+/*
+ * UpperCoversTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.TreeSet;
+
+import org.thegalactic.context.Context;
+import org.thegalactic.context.ContextClosure;
+import org.thegalactic.dgraph.Node;
+import org.thegalactic.util.ComparableSet;
+
+/**
+ * UpperCovers test.
+ */
+public class UpperCoversTest {
+
+    /**
+     * Test the upper covers against the Hasse diagram of the lattice.
+     */
+    @Test
+    public void testCovers() {
+        Context context = Context.random(15, 3, 3);
+        ConceptLattice lattice = ConceptLattice.diagramLattice(context);
+        ContextClosure operator = new ContextClosure(context);
+        UpperCovers covers = new UpperCovers(operator);
+        for (Object node : lattice.getNodes()) {
+            TreeSet<ComparableSet> expected = new TreeSet<ComparableSet>();
+            for (Object successor : lattice.getSuccessorNodes((Node) node)) {
+                expected.add(new ComparableSet(((Concept) successor).getSetA()));
+            }
+            TreeSet<ComparableSet> result = new TreeSet<ComparableSet>();
+            for (long[] cover : covers.covers(operator.toWords(((Concept) node).getSetA()))) {
+                result.add(new ComparableSet(operator.toSet(cover)));
+            }
+            assertEquals(expected, result);
+        }
+    }
+}
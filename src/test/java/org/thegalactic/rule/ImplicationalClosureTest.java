@@ -0,0 +1,155 @@
+package org.thegalactic.rule;
+
+/*
+ * ImplicationalClosureTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ImplicationalClosure test.
+ */
+public class ImplicationalClosureTest {
+
+    /**
+     * Returns the closure of a set by firing rules until a fixpoint.
+     *
+     * @param system an implicational system
+     * @param set    a set of elements
+     *
+     * @return the closure
+     */
+    private static TreeSet<Comparable> fixpoint(ImplicationalSystem system, TreeSet<Comparable> set) {
+        TreeSet<Comparable> closure = new TreeSet<Comparable>(set);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Rule rule : system.getRules()) {
+                if (closure.containsAll(rule.getPremise()) && closure.addAll(rule.getConclusion())) {
+                    changed = true;
+                }
+            }
+        }
+        return closure;
+    }
+
+    /**
+     * Test the closure against a fixpoint computation.
+     */
+    @Test
+    public void testClosure() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10; i++) {
+            ImplicationalSystem system = ImplicationalSystem.random(10, 12);
+            ImplicationalClosure operator = system.closureOperator();
+            List<Comparable> elements = new ArrayList<Comparable>(system.getSet());
+            for (int j = 0; j < 20; j++) {
+                TreeSet<Comparable> set = new TreeSet<Comparable>();
+                for (Comparable element : elements) {
+                    if (random.nextInt(4) == 0) {
+                        set.add(element);
+                    }
+                }
+                long[] words = operator.toWords(set);
+                operator.closure(words, words);
+                assertEquals(fixpoint(system, set), operator.toSet(words));
+            }
+        }
+    }
+
+    /**
+     * Test the closure with a rule whose premise is empty.
+     */
+    @Test
+    public void testEmptyPremise() {
+        ImplicationalSystem system = new ImplicationalSystem();
+        system.addElement("a");
+        system.addElement("b");
+        system.addElement("c");
+        Rule axiom = new Rule();
+        axiom.addToConclusion("a");
+        system.addRule(axiom);
+        Rule rule = new Rule();
+        rule.addToPremise("a");
+        rule.addToConclusion("b");
+        system.addRule(rule);
+        ImplicationalClosure operator = system.closureOperator();
+        long[] closed = operator.create();
+        operator.closure(operator.create(), closed);
+        TreeSet<Comparable> expected = new TreeSet<Comparable>();
+        expected.add("a");
+        expected.add("b");
+        assertEquals(expected, operator.toSet(closed));
+        assertEquals(expected, system.closure(new TreeSet<Comparable>()));
+    }
+
+    /**
+     * Test closures of an implicational system computed by several threads.
+     *
+     * @throws Exception when a thread fails
+     */
+    @Test
+    public void testConcurrentClosure() throws Exception {
+        Random random = new Random(11);
+        final ImplicationalSystem system = ImplicationalSystem.random(40, 200);
+        List<Comparable> elements = new ArrayList<Comparable>(system.getSet());
+        final List<TreeSet<Comparable>> sets = new ArrayList<TreeSet<Comparable>>();
+        final List<TreeSet<Comparable>> expected = new ArrayList<TreeSet<Comparable>>();
+        for (int j = 0; j < 200; j++) {
+            TreeSet<Comparable> set = new TreeSet<Comparable>();
+            for (Comparable element : elements) {
+                if (random.nextInt(8) == 0) {
+                    set.add(element);
+                }
+            }
+            sets.add(set);
+            expected.add(fixpoint(system, set));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    /**
+                     * Counts the wrong closures.
+                     *
+                     * @return the number of wrong closures
+                     */
+                    public Integer call() {
+                        int errors = 0;
+                        for (int k = 0; k < 50; k++) {
+                            for (int j = 0; j < sets.size(); j++) {
+                                if (!expected.get(j).equals(system.closure(sets.get(j)))) {
+                                    errors++;
+                                }
+                            }
+                        }
+                        return errors;
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(0, (int) future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
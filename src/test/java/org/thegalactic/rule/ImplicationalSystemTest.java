@@ -537,4 +537,34 @@ public class ImplicationalSystemTest {
         is.reduction();
         assertTrue(is.isReduced());
     }
+
+    /**
+     * Test closure after modifications of the rules.
+     */
+    @Test
+    public void testClosureModification() {
+        ImplicationalSystem is = new ImplicationalSystem();
+        is.addElement("a");
+        is.addElement("b");
+        is.addElement("c");
+        TreeSet<Comparable> premise = new TreeSet<Comparable>();
+        premise.add("a");
+        TreeSet<Comparable> conclusion = new TreeSet<Comparable>();
+        conclusion.add("b");
+        Rule rule = new Rule(premise, conclusion);
+        is.addRule(rule);
+        assertEquals("[a, b]", is.closure(premise).toString());
+        TreeSet<Comparable> premise2 = new TreeSet<Comparable>();
+        premise2.add("b");
+        TreeSet<Comparable> conclusion2 = new TreeSet<Comparable>();
+        conclusion2.add("c");
+        is.addRule(new Rule(premise2, conclusion2));
+        assertEquals("[a, b, c]", is.closure(premise).toString());
+        is.removeRule(rule);
+        assertEquals("[a]", is.closure(premise).toString());
+        TreeSet<Comparable> unknown = new TreeSet<Comparable>();
+        unknown.add("b");
+        unknown.add("d");
+        assertEquals("[b, c, d]", is.closure(unknown).toString());
+    }
 }
@@ -0,0 +1,53 @@
+package org.thegalactic.util;
+
+/*
+ * BitKeyTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * BitKey test.
+ */
+public class BitKeyTest {
+
+    /**
+     * Test equals and hashCode.
+     */
+    @Test
+    public void testEquals() {
+        long[] words = BitWords.create(100);
+        BitWords.set(words, 70);
+        BitKey key = new BitKey(words, 2);
+        BitWords.set(words, 3);
+        assertFalse(key.equals(new BitKey(words, 2)));
+        BitWords.clear(words, 3);
+        assertEquals(key, new BitKey(words, 2));
+        assertEquals(key.hashCode(), new BitKey(words, 2).hashCode());
+        assertEquals(key, new BitKey(words, 3));
+        assertEquals(key.hashCode(), new BitKey(words, 3).hashCode());
+        assertFalse(key.equals(words));
+    }
+
+    /**
+     * Test getWords.
+     */
+    @Test
+    public void testGetWords() {
+        long[] words = BitWords.create(10);
+        BitWords.set(words, 3);
+        BitKey key = new BitKey(words, 1);
+        key.getWords()[0] = 0;
+        assertArrayEquals(words, key.getWords());
+    }
+}
@@ -0,0 +1,160 @@
+package org.thegalactic.util;
+
+/*
+ * BitWordsTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * BitWords test.
+ */
+public class BitWordsTest {
+
+    /**
+     * Test size.
+     */
+    @Test
+    public void testSize() {
+        assertEquals(0, BitWords.size(0));
+        assertEquals(1, BitWords.size(1));
+        assertEquals(1, BitWords.size(64));
+        assertEquals(2, BitWords.size(65));
+    }
+
+    /**
+     * Test set, get and clear.
+     */
+    @Test
+    public void testSetGetClear() {
+        long[] words = BitWords.create(130);
+        assertTrue(BitWords.set(words, 129));
+        assertFalse(BitWords.set(words, 129));
+        assertTrue(BitWords.get(words, 129));
+        assertFalse(BitWords.get(words, 128));
+        assertTrue(BitWords.clear(words, 129));
+        assertFalse(BitWords.clear(words, 129));
+        assertTrue(BitWords.isEmpty(words, 3));
+    }
+
+    /**
+     * Test fill.
+     */
+    @Test
+    public void testFill() {
+        long[] words = new long[3];
+        words[2] = 1;
+        BitWords.fill(words, 70, 3);
+        assertEquals(70, BitWords.cardinality(words, 3));
+        assertEquals(0, words[2]);
+        BitWords.fill(words, 128, 3);
+        assertEquals(128, BitWords.cardinality(words, 3));
+    }
+
+    /**
+     * Test and, or, andNot and cardinalities.
+     */
+    @Test
+    public void testOperations() {
+        long[] words1 = BitWords.create(100);
+        long[] words2 = BitWords.create(100);
+        BitWords.set(words1, 3);
+        BitWords.set(words1, 80);
+        BitWords.set(words2, 80);
+        BitWords.set(words2, 99);
+        assertEquals(1, BitWords.andCardinality(words1, words2, 2));
+        long[] result = BitWords.copyOf(words1, 2);
+        BitWords.or(result, words2, 2);
+        assertEquals(3, BitWords.cardinality(result, 2));
+        BitWords.andNot(result, words2, 2);
+        assertTrue(BitWords.get(result, 3));
+        assertEquals(1, BitWords.cardinality(result, 2));
+        BitWords.and(result, words2, 2);
+        assertTrue(BitWords.isEmpty(result, 2));
+    }
+
+    /**
+     * Test equals, isSubset and hashCode.
+     */
+    @Test
+    public void testComparisons() {
+        long[] words1 = BitWords.create(100);
+        long[] words2 = BitWords.create(100);
+        BitWords.set(words1, 70);
+        BitWords.set(words2, 70);
+        assertTrue(BitWords.equals(words1, words2, 2));
+        assertEquals(BitWords.hashCode(words1, 2), BitWords.hashCode(words2, 2));
+        BitWords.set(words2, 5);
+        assertFalse(BitWords.equals(words1, words2, 2));
+        assertTrue(BitWords.isSubset(words1, words2, 2));
+        assertFalse(BitWords.isSubset(words2, words1, 2));
+    }
+
+    /**
+     * Test equalsBelow and isSubsetBelow.
+     */
+    @Test
+    public void testComparisonsBelow() {
+        long[] words1 = BitWords.create(128);
+        long[] words2 = BitWords.create(128);
+        BitWords.set(words1, 3);
+        BitWords.set(words2, 3);
+        BitWords.set(words2, 70);
+        assertTrue(BitWords.equalsBelow(words1, words2, 70));
+        assertFalse(BitWords.equalsBelow(words1, words2, 71));
+        assertTrue(BitWords.equalsBelow(words1, words2, 64));
+        assertTrue(BitWords.isSubsetBelow(words1, words2, 128));
+        assertFalse(BitWords.isSubsetBelow(words2, words1, 128));
+        assertTrue(BitWords.isSubsetBelow(words2, words1, 70));
+        BitWords.set(words1, 0);
+        assertTrue(BitWords.equalsBelow(words1, words2, 0));
+        assertFalse(BitWords.equalsBelow(words1, words2, 1));
+    }
+
+    /**
+     * Test nextSetBit.
+     */
+    @Test
+    public void testNextSetBit() {
+        long[] words = BitWords.create(200);
+        BitWords.set(words, 0);
+        BitWords.set(words, 63);
+        BitWords.set(words, 150);
+        assertEquals(0, BitWords.nextSetBit(words, 0, 4));
+        assertEquals(63, BitWords.nextSetBit(words, 1, 4));
+        assertEquals(150, BitWords.nextSetBit(words, 64, 4));
+        assertEquals(-1, BitWords.nextSetBit(words, 151, 4));
+        assertEquals(-1, BitWords.nextSetBit(words, 300, 4));
+    }
+
+    /**
+     * Test remove.
+     */
+    @Test
+    public void testRemove() {
+        long[] words = BitWords.create(130);
+        BitWords.set(words, 2);
+        BitWords.set(words, 10);
+        BitWords.set(words, 64);
+        BitWords.set(words, 129);
+        BitWords.remove(words, 5, 3);
+        assertTrue(BitWords.get(words, 2));
+        assertTrue(BitWords.get(words, 9));
+        assertTrue(BitWords.get(words, 63));
+        assertTrue(BitWords.get(words, 128));
+        assertEquals(4, BitWords.cardinality(words, 3));
+        BitWords.remove(words, 2, 3);
+        assertFalse(BitWords.get(words, 2));
+        assertEquals(3, BitWords.cardinality(words, 3));
+    }
+}
@@ -0,0 +1,84 @@
+package org.thegalactic.util;
+
+/*
+ * SymbolTableTest.java
+ *
+ * Copyright: 2016 The Galactic Organization, France
+ *
+ * License: http://www.cecill.info/licences/Licence_CeCILL-B_V1-en.html CeCILL-B license
+ *
+ * This file is part of java-lattices.
+ * You can redistribute it and/or modify it under the terms of the CeCILL-B license.
+ */
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * SymbolTable test.
+ */
+public class SymbolTableTest {
+
+    /**
+     * Test intern, indexOf and get.
+     */
+    @Test
+    public void testIntern() {
+        SymbolTable table = new SymbolTable();
+        assertEquals(0, table.intern("b"));
+        assertEquals(1, table.intern("a"));
+        assertEquals(0, table.intern("b"));
+        assertEquals(2, table.size());
+        assertEquals(1, table.length());
+        assertEquals(1, table.indexOf("a"));
+        assertEquals(-1, table.indexOf("c"));
+        assertEquals("b", table.get(0));
+        assertTrue(table.contains("a"));
+        assertFalse(table.contains("c"));
+        assertEquals(Arrays.asList("b", "a"), table.elements());
+    }
+
+    /**
+     * Test remove.
+     */
+    @Test
+    public void testRemove() {
+        SymbolTable table = new SymbolTable(Arrays.asList("a", "b", "c"));
+        assertEquals(1, table.remove("b"));
+        assertEquals(-1, table.remove("b"));
+        assertEquals(2, table.size());
+        assertEquals(1, table.indexOf("c"));
+        assertEquals("c", table.get(1));
+    }
+
+    /**
+     * Test copy.
+     */
+    @Test
+    public void testCopy() {
+        SymbolTable table = new SymbolTable(Arrays.asList("a", "b"));
+        SymbolTable copy = new SymbolTable(table);
+        copy.intern("c");
+        assertEquals(2, table.size());
+        assertEquals(3, copy.size());
+    }
+
+    /**
+     * Test toWords and toSet.
+     */
+    @Test
+    public void testWords() {
+        SymbolTable table = new SymbolTable(Arrays.asList("c", "b", "a"));
+        long[] words = table.toWords(Arrays.asList("a", "c"));
+        assertEquals(5L, words[0]);
+        assertEquals(new TreeSet(Arrays.asList("a", "c")), table.toSet(words));
+        assertNull(table.toWords(Arrays.asList("a", "d")));
+        assertEquals(3, table.toWords(Arrays.asList("a"), 3).length);
+    }
+}